@@ -0,0 +1,224 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import org.mule.tools.revapi.cache.ReactorCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counters and timers of a single analysis, collected by the Mule extensions through its {@link AnalysisSession}.
+ * <p/>
+ * Only collected when the {@value #ENABLED_PROPERTY} system property is set to {@code true}, otherwise every method returns
+ * right away. When the analysis ends, the metrics are logged and, if the {@value #FILE_PROPERTY} system property is set,
+ * appended to that file, so the metrics of every module of a build end up together.
+ * <p/>
+ * Metrics are updated from the thread running the analysis.
+ *
+ * @since 1.10
+ */
+public final class AnalysisMetrics {
+
+  /**
+   * System property enabling the metrics.
+   */
+  public static final String ENABLED_PROPERTY = "mule.revapi.metrics";
+
+  /**
+   * System property with the path of the file the metrics are appended to.
+   */
+  public static final String FILE_PROPERTY = "mule.revapi.metrics.file";
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisMetrics.class);
+
+  private final boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+  private final String name;
+  private final long start = System.nanoTime();
+  private final Map<String, Long> timers = new LinkedHashMap<>();
+  private final Map<String, long[]> transforms = new TreeMap<>();
+  private final List<String> caches = new ArrayList<>();
+  private ReactorCache reactorCache;
+  private long archivesScanned;
+  private long bytesRead;
+  private long elementsIncluded;
+  private long elementsExcluded;
+  private long elementsPruned;
+  private long hierarchyWalks;
+  private long hierarchyTypesVisited;
+  private int maxHierarchyDepth;
+
+  /**
+   * @param name identifies the analysis in the output
+   */
+  AnalysisMetrics(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return true if the metrics are collected
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Adds the time spent in a phase of the analysis since the given instant.
+   *
+   * @param phase     name of the phase
+   * @param startNanos value of {@link System#nanoTime()} when the phase started
+   */
+  public void time(String phase, long startNanos) {
+    if (enabled) {
+      timers.merge(phase, System.nanoTime() - startNanos, Long::sum);
+    }
+  }
+
+  /**
+   * @param bytes number of bytes read from a scanned archive
+   */
+  public void archiveScanned(long bytes) {
+    if (enabled) {
+      archivesScanned++;
+      bytesRead += bytes;
+    }
+  }
+
+  /**
+   * @param included true if the filter included the element in the analysis
+   */
+  public void elementFiltered(boolean included) {
+    if (enabled) {
+      if (included) {
+        elementsIncluded++;
+      } else {
+        elementsExcluded++;
+      }
+    }
+  }
+
+  /**
+   * Counts an element of an exported type left out of the analysis because it can never be part of the API, such as a private
+   * nested type or a member generated by the compiler.
+   */
+  public void elementPruned() {
+    if (enabled) {
+      elementsPruned++;
+    }
+  }
+
+  /**
+   * Records the state of a cache of an extension before it is released.
+   *
+   * @param cache the cache, described by its {@link Object#toString()}
+   */
+  public void cache(Object cache) {
+    if (enabled) {
+      caches.add(cache.toString());
+    }
+  }
+
+  /**
+   * @param reactorCache cache the supplementary archives of the analysis were read through
+   */
+  public void reactorCache(ReactorCache reactorCache) {
+    this.reactorCache = reactorCache;
+  }
+
+  /**
+   * @param code     code of the difference a transform was invoked for
+   * @param accepted true if the transform accepted the difference, so it never reaches the reporters
+   */
+  public void transformed(String code, boolean accepted) {
+    if (enabled) {
+      long[] counts = transforms.computeIfAbsent(code, c -> new long[2]);
+      counts[0]++;
+      if (accepted) {
+        counts[1]++;
+      }
+    }
+  }
+
+  /**
+   * @param depth        deepest level of the hierarchy reached by a walk looking for a Mule API annotation
+   * @param typesVisited number of types visited by the walk
+   */
+  public void hierarchyWalked(int depth, int typesVisited) {
+    if (enabled) {
+      hierarchyWalks++;
+      hierarchyTypesVisited += typesVisited;
+      maxHierarchyDepth = Math.max(maxHierarchyDepth, depth);
+    }
+  }
+
+  /**
+   * Logs the metrics, and appends them to the metrics file if there is one.
+   */
+  void report() {
+    if (!enabled) {
+      return;
+    }
+
+    List<String> lines = getSummary();
+    LOG.info(String.join(System.lineSeparator(), lines));
+    String file = System.getProperty(FILE_PROPERTY);
+    if (file != null) {
+      Path path = Paths.get(file);
+      try {
+        if (path.getParent() != null) {
+          Files.createDirectories(path.getParent());
+        }
+        Files.write(path, lines, UTF_8, CREATE, WRITE, APPEND);
+      } catch (IOException e) {
+        LOG.warn("Failed to write the analysis metrics to " + path, e);
+      }
+    }
+  }
+
+  private List<String> getSummary() {
+    List<String> lines = new ArrayList<>();
+    lines.add("Analysis metrics of " + name + ", " + millis(System.nanoTime() - start) + " ms in total");
+    timers.forEach((phase, nanos) -> lines.add("  " + phase + ": " + millis(nanos) + " ms"));
+    lines.add("  archives scanned: " + archivesScanned + ", " + bytesRead / 1024 + " KB read");
+    lines.add("  elements included: " + elementsIncluded + ", excluded: " + elementsExcluded + ", " + elementsPruned
+        + " of them pruned as inaccessible or compiler generated");
+    caches.forEach(cache -> lines.add("  cache: " + cache));
+    if (reactorCache != null) {
+      lines.add("  reactor cache: " + reactorCache);
+    }
+    lines.add("  hierarchy walks: " + hierarchyWalks + ", " + hierarchyTypesVisited + " types visited, max depth "
+        + maxHierarchyDepth);
+    long invocations = 0;
+    long accepted = 0;
+    for (long[] counts : transforms.values()) {
+      invocations += counts[0];
+      accepted += counts[1];
+    }
+    lines.add("  transform invocations: " + invocations + ", accepted: " + accepted + ", passed: " + (invocations - accepted));
+    transforms.forEach((code, counts) -> lines.add("    " + code + ": " + counts[0] + ", accepted: " + counts[1]));
+    return lines;
+  }
+
+  private static long millis(long nanos) {
+    return nanos / 1_000_000;
+  }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.util.Collections.singletonList;
+
+import org.mule.tools.revapi.cache.ReactorCache;
+import org.mule.tools.revapi.cache.SymbolTable;
+import org.mule.tools.revapi.index.ApiIndex;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.Difference;
+import org.revapi.Element;
+import org.revapi.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State shared by the extensions taking part in a single analysis.
+ * <p/>
+ * Revapi creates every extension on its own, so they meet through the API instances of the analysis: every extension
+ * {@link #acquire(AnalysisContext) acquires} the session of the old API when it is initialized, and
+ * {@link #release() releases} it when it is closed. Once the last extension releases the session, the close listeners run
+ * and the {@link #getMetrics() metrics} and {@link #getTypeProfile() type profile} of the analysis are reported. The
+ * {@link #getSymbols() symbols} of the analysis are dropped then too.
+ * <p/>
+ * Code running an analysis can also acquire the session before starting it, to listen to its reports.
+ *
+ * @since 1.10
+ */
+public final class AnalysisSession {
+
+  private static final Logger LOG = LoggerFactory.getLogger(AnalysisSession.class);
+
+  private static final Map<API, AnalysisSession> SESSIONS = new IdentityHashMap<>();
+
+  private final API oldApi;
+  private final AnalysisMetrics metrics;
+  private final TypeProfile typeProfile;
+  private final SymbolTable symbols = new SymbolTable();
+  private final Map<API, ApiIndex> apiIndexes = new HashMap<>();
+  private final List<Consumer<Report>> reportListeners = new ArrayList<>();
+  private final List<Consumer<Report>> acceptListeners = new ArrayList<>();
+  private final List<Runnable> closeListeners = new ArrayList<>();
+  private volatile ReactorCache reactorCache = ReactorCache.getInstance();
+  private int references;
+  private boolean reporting;
+  private volatile boolean aborted;
+
+  private AnalysisSession(AnalysisContext analysisContext) {
+    this.oldApi = analysisContext.getOldApi();
+    String name = getArchiveNames(oldApi) + " -> " + getArchiveNames(analysisContext.getNewApi());
+    this.metrics = new AnalysisMetrics(name);
+    this.typeProfile = new TypeProfile(name);
+    if (typeProfile.isEnabled()) {
+      reportListeners.add(typeProfile::reported);
+      acceptListeners.add(typeProfile::accepted);
+    }
+  }
+
+  private static String getArchiveNames(API api) {
+    List<String> names = new ArrayList<>();
+    api.getArchives().forEach(archive -> names.add(archive.getName()));
+    return names.toString();
+  }
+
+  /**
+   * Joins the session of an analysis, creating it if this is the first extension to join.
+   *
+   * @param analysisContext context of the analysis
+   * @return the session of the analysis
+   */
+  public static AnalysisSession acquire(AnalysisContext analysisContext) {
+    synchronized (SESSIONS) {
+      AnalysisSession session =
+          SESSIONS.computeIfAbsent(analysisContext.getOldApi(), api -> new AnalysisSession(analysisContext));
+      session.references++;
+      return session;
+    }
+  }
+
+  /**
+   * Leaves the session. When no extension is left, the close listeners run and the session is discarded.
+   */
+  public void release() {
+    synchronized (SESSIONS) {
+      if (--references > 0) {
+        return;
+      }
+      SESSIONS.remove(oldApi);
+    }
+
+    for (Runnable closeListener : closeListeners) {
+      try {
+        closeListener.run();
+      } catch (RuntimeException e) {
+        LOG.warn("Failed to close the analysis session", e);
+      }
+    }
+    metrics.cache(symbols);
+    metrics.reactorCache(reactorCache);
+    metrics.report();
+    typeProfile.report();
+    symbols.clear();
+  }
+
+  /**
+   * @return the metrics of the analysis
+   */
+  public AnalysisMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * @return the profile of the types of the analysis
+   */
+  public TypeProfile getTypeProfile() {
+    return typeProfile;
+  }
+
+  /**
+   * @return the names of the types and packages of the analysis, with the ids the extensions key their caches by
+   */
+  public SymbolTable getSymbols() {
+    return symbols;
+  }
+
+  /**
+   * @return the cache to read the supplementary archives of the analysis through, or null if they are read directly
+   */
+  public ReactorCache getReactorCache() {
+    return reactorCache;
+  }
+
+  /**
+   * Replaces the {@link ReactorCache} of the build for this analysis. Must be set before the extensions join the session.
+   *
+   * @param reactorCache cache to read the supplementary archives of the analysis through
+   */
+  public void setReactorCache(ReactorCache reactorCache) {
+    this.reactorCache = reactorCache;
+  }
+
+  /**
+   * @param api      an API of the analysis
+   * @param apiIndex index read from the archives of the API
+   */
+  synchronized void setApiIndex(API api, ApiIndex apiIndex) {
+    apiIndexes.put(api, apiIndex);
+  }
+
+  /**
+   * @param api an API of the analysis
+   * @return the index read from the archives of the API, or null if none of them has one. Archives without an index are not
+   *         part of it.
+   */
+  public synchronized ApiIndex getApiIndex(API api) {
+    return apiIndexes.get(api);
+  }
+
+  /**
+   * @param listener receives every report that reaches the reporters, after all the transforms were applied
+   */
+  public synchronized void addReportListener(Consumer<Report> listener) {
+    reportListeners.add(listener);
+  }
+
+  /**
+   * @param listener receives every difference the Mule API annotation transforms accepted, so it never reaches the reporters
+   */
+  public synchronized void addAcceptListener(Consumer<Report> listener) {
+    acceptListeners.add(listener);
+  }
+
+  /**
+   * @param listener runs once every extension left the session
+   */
+  synchronized void addCloseListener(Runnable listener) {
+    closeListeners.add(listener);
+  }
+
+  /**
+   * Marks that the reports of the analysis are forwarded to this session.
+   */
+  synchronized void startReporting() {
+    reporting = true;
+  }
+
+  /**
+   * @return true if the reports of the analysis are forwarded to this session, so the report listeners see all of them
+   */
+  synchronized boolean isReporting() {
+    return reporting;
+  }
+
+  /**
+   * Marks that the rest of the analysis must be skipped. Results gathered after this point are incomplete.
+   */
+  void abort() {
+    aborted = true;
+  }
+
+  /**
+   * @return true if the rest of the analysis must be skipped
+   */
+  public boolean isAborted() {
+    return aborted;
+  }
+
+  /**
+   * @param report report to forward to the report listeners
+   */
+  synchronized void report(Report report) {
+    reportListeners.forEach(listener -> listener.accept(report));
+  }
+
+  /**
+   * @param oldElement old element of the difference. Can be null.
+   * @param newElement new element of the difference. Can be null.
+   * @param difference difference accepted by a Mule API annotation
+   */
+  public synchronized void accept(Element oldElement, Element newElement, Difference difference) {
+    if (!acceptListeners.isEmpty()) {
+      Report report = new Report(singletonList(difference), oldElement, newElement);
+      acceptListeners.forEach(listener -> listener.accept(report));
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.util.Collections.unmodifiableSet;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Part of the exported API of a module that an analysis is restricted to.
+ * <p/>
+ * The scope is defined by a list of patterns, each one being either:
+ * <ul>
+ * <li>{@code org.foo} or {@code org.foo.*}: every type in the {@code org.foo} package</li>
+ * <li>{@code org.foo.**}: every type in the {@code org.foo} package and its subpackages</li>
+ * <li>{@code org.foo.Bar}: the {@code org.foo.Bar} type and its nested types</li>
+ * </ul>
+ * Patterns are intersected with the exported packages when the scope is created, so only exported packages and types of
+ * exported packages end up in it. A pattern that matches none of them is rejected, so a typo cannot silently restrict the
+ * analysis to nothing.
+ *
+ * @since 1.10
+ */
+final class ApiScope {
+
+  /**
+   * Scope including the whole exported API.
+   */
+  static final ApiScope ALL = new ApiScope(null, null, null);
+
+  private static final String PACKAGE_WILDCARD = ".*";
+  private static final String SUBPACKAGES_WILDCARD = ".**";
+
+  private final Set<String> exportedPackages;
+  private final Set<String> packages;
+  private final Set<String> types;
+
+  private ApiScope(Set<String> exportedPackages, Set<String> packages, Set<String> types) {
+    this.exportedPackages = exportedPackages;
+    this.packages = packages;
+    this.types = types;
+  }
+
+  /**
+   * Creates a scope from a list of patterns.
+   *
+   * @param patterns         patterns defining the scope. An empty list means the whole exported API.
+   * @param exportedPackages packages exported by any version of the module
+   * @param isType           tells whether a canonical name is the one of a type of any version of the module
+   * @return the scope
+   * @throws IllegalArgumentException if a pattern matches no exported package or type
+   */
+  static ApiScope of(Collection<String> patterns, Set<String> exportedPackages, Predicate<String> isType) {
+    if (patterns.isEmpty()) {
+      return ALL;
+    }
+
+    Set<String> packages = new TreeSet<>();
+    Set<String> types = new TreeSet<>();
+    for (String pattern : patterns) {
+      boolean matched = false;
+      if (pattern.endsWith(SUBPACKAGES_WILDCARD)) {
+        String parentPackage = pattern.substring(0, pattern.length() - SUBPACKAGES_WILDCARD.length());
+        for (String exportedPackage : exportedPackages) {
+          if (exportedPackage.equals(parentPackage) || exportedPackage.startsWith(parentPackage + ".")) {
+            packages.add(exportedPackage);
+            matched = true;
+          }
+        }
+      } else {
+        String packageName = pattern.endsWith(PACKAGE_WILDCARD)
+            ? pattern.substring(0, pattern.length() - PACKAGE_WILDCARD.length())
+            : pattern;
+        if (exportedPackages.contains(packageName)) {
+          packages.add(packageName);
+          matched = true;
+        } else if (!pattern.endsWith(PACKAGE_WILDCARD) && findPackage(pattern, exportedPackages) != null
+            && isType.test(pattern)) {
+          types.add(pattern);
+          matched = true;
+        }
+      }
+
+      if (!matched) {
+        throw new IllegalArgumentException("Scope pattern '" + pattern + "' does not match any exported package or type");
+      }
+    }
+
+    return new ApiScope(new HashSet<>(exportedPackages), unmodifiableSet(packages), unmodifiableSet(types));
+  }
+
+  /**
+   * @param typeName canonical name of a type
+   * @return true if the type is part of the scope, false otherwise
+   */
+  boolean includes(String typeName) {
+    if (this == ALL) {
+      return true;
+    }
+
+    for (String type : types) {
+      if (typeName.equals(type) || typeName.startsWith(type + ".")) {
+        return true;
+      }
+    }
+    String packageName = findPackage(typeName, exportedPackages);
+    return packageName != null && packages.contains(packageName);
+  }
+
+  /**
+   * @return true if the scope includes the whole exported API
+   */
+  boolean isAll() {
+    return this == ALL;
+  }
+
+  @Override
+  public String toString() {
+    return this == ALL ? "all exported packages" : "packages " + packages + " and types " + types;
+  }
+
+  /**
+   * @return the longest exported package containing the type, or null if it is not part of any exported package
+   */
+  private static String findPackage(String typeName, Set<String> exportedPackages) {
+    String packageName = typeName;
+    int index;
+    while ((index = packageName.lastIndexOf('.')) > 0) {
+      packageName = packageName.substring(0, index);
+      if (exportedPackages.contains(packageName)) {
+        return packageName;
+      }
+    }
+    return null;
+  }
+}
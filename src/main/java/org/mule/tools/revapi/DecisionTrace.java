@@ -0,0 +1,211 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import org.mule.tools.revapi.cache.SymbolTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import org.revapi.Element;
+import org.revapi.java.spi.JavaFieldElement;
+import org.revapi.java.spi.JavaMethodElement;
+import org.revapi.java.spi.JavaTypeElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the last decisions of the filter in a ring buffer of fixed size, so they can be inspected when an analysis fails
+ * without logging every element.
+ * <p/>
+ * A record is the kind of decision, its outcome, the {@link SymbolTable} id of the top level type of the element it was taken on
+ * and the kind of that element, so the trace holds no reference to the elements and their model. Types are only named when the
+ * trace is dumped, and only the last {@value #SIZE_PROPERTY} records are kept, 10000 by default. Recording can be restricted to
+ * the types whose canonical name starts with one of the comma separated prefixes of {@value #FILTER_PROPERTY}, such as packages
+ * or types.
+ * <p/>
+ * The trace is dumped when the analysis ends if it found a breaking difference, or always if {@value #FILE_PROPERTY} is set.
+ * It is appended to that file if set, otherwise logged.
+ *
+ * @since 1.10
+ */
+final class DecisionTrace {
+
+  /**
+   * System property with the number of records kept.
+   */
+  static final String SIZE_PROPERTY = "mule.revapi.trace.size";
+
+  /**
+   * System property with the prefixes of the types whose decisions are recorded.
+   */
+  static final String FILTER_PROPERTY = "mule.revapi.trace.filter";
+
+  /**
+   * System property with the path of the file the trace is written to.
+   */
+  static final String FILE_PROPERTY = "mule.revapi.trace.file";
+
+  private static final Logger LOG = LoggerFactory.getLogger(DecisionTrace.class);
+
+  private static final int DEFAULT_SIZE = 10000;
+
+  static final byte APPLIES = 0;
+  static final byte DESCEND_INTO = 2;
+  static final byte EXPORTED = 4;
+
+  private static final String[] DECISIONS = {"applies", "descend into", "exported"};
+
+  private static final byte TYPE = 0;
+  private static final byte METHOD = 1;
+  private static final byte FIELD = 2;
+  private static final byte ELEMENT = 3;
+  private static final byte OBJECT = 4;
+
+  private static final String[] KINDS = {"type", "method", "field", "element", "object"};
+
+  private final String name;
+  private final SymbolTable symbols;
+  private final byte[] decisions;
+  private final byte[] kinds;
+  private final int[] typeIds;
+  private final String[] prefixes;
+  // Prefix matches, computed once per type
+  private final BitSet matchedTypes = new BitSet();
+  private final BitSet checkedTypes = new BitSet();
+  private long records;
+  private boolean failed;
+
+  /**
+   * @param name    identifies the analysis in the output
+   * @param symbols names of the types of the analysis
+   */
+  DecisionTrace(String name, SymbolTable symbols) {
+    this.name = name;
+    this.symbols = symbols;
+    int size = Math.max(1, Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+    decisions = new byte[size];
+    kinds = new byte[size];
+    typeIds = new int[size];
+    String filter = System.getProperty(FILTER_PROPERTY, "").trim();
+    prefixes = filter.isEmpty() ? new String[0] : filter.split("\\s*,\\s*");
+  }
+
+  /**
+   * @param decision kind of decision, {@link #APPLIES}, {@link #DESCEND_INTO} or {@link #EXPORTED}
+   * @param outcome  outcome of the decision
+   * @param typeId   id of the top level type of the element in the {@link SymbolTable}, or -1 if it has none
+   * @param element  element the decision was taken on, only used to know its kind
+   */
+  void record(byte decision, boolean outcome, int typeId, Object element) {
+    if (prefixes.length > 0 && !matches(typeId)) {
+      return;
+    }
+
+    int index = (int) (records++ % decisions.length);
+    decisions[index] = (byte) (decision + (outcome ? 1 : 0));
+    kinds[index] = getKind(element);
+    typeIds[index] = typeId;
+  }
+
+  private boolean matches(int typeId) {
+    if (typeId < 0) {
+      return false;
+    }
+    if (!checkedTypes.get(typeId)) {
+      checkedTypes.set(typeId);
+      String type = symbols.getName(typeId);
+      for (String prefix : prefixes) {
+        if (type.startsWith(prefix)) {
+          matchedTypes.set(typeId);
+          break;
+        }
+      }
+    }
+    return matchedTypes.get(typeId);
+  }
+
+  private static byte getKind(Object element) {
+    if (element instanceof JavaTypeElement) {
+      return TYPE;
+    } else if (element instanceof JavaMethodElement) {
+      return METHOD;
+    } else if (element instanceof JavaFieldElement) {
+      return FIELD;
+    } else if (element instanceof Element) {
+      return ELEMENT;
+    }
+    return OBJECT;
+  }
+
+  /**
+   * Marks the analysis as failed, so the trace is dumped when it ends.
+   */
+  void failed() {
+    failed = true;
+  }
+
+  /**
+   * Dumps the trace if the analysis failed or a file was requested, and drops the records.
+   */
+  void close() {
+    String file = System.getProperty(FILE_PROPERTY);
+    if (shouldDump()) {
+      List<String> lines = getRecords();
+      if (file == null) {
+        LOG.info(String.join(System.lineSeparator(), lines));
+      } else {
+        Path path = Paths.get(file);
+        try {
+          if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+          }
+          Files.write(path, lines, UTF_8, CREATE, WRITE, APPEND);
+        } catch (IOException e) {
+          LOG.warn("Failed to write the filter decision trace to " + path, e);
+        }
+      }
+    }
+    records = 0;
+    matchedTypes.clear();
+    checkedTypes.clear();
+  }
+
+  /**
+   * @return true if the trace is dumped when closed
+   */
+  boolean shouldDump() {
+    return failed || System.getProperty(FILE_PROPERTY) != null;
+  }
+
+  /**
+   * @return the records kept, oldest first, preceded by a header line
+   */
+  List<String> getRecords() {
+    long first = Math.max(0, records - decisions.length);
+    List<String> lines = new ArrayList<>();
+    lines.add("Last " + (records - first) + " of " + records + " filter decisions of " + name + ":");
+    for (long record = first; record < records; record++) {
+      int index = (int) (record % decisions.length);
+      int typeId = typeIds[index];
+      String description = KINDS[kinds[index]] + (typeId >= 0 ? " of " + symbols.getName(typeId) : "");
+      boolean outcome = decisions[index] % 2 == 1;
+      lines.add("  #" + record + " " + DECISIONS[decisions[index] / 2] + "=" + outcome + " " + description);
+    }
+    return lines;
+  }
+}
@@ -6,28 +6,74 @@
  */
 package org.mule.tools.revapi;
 
+import static org.mule.tools.revapi.ModuleExports.MODULE_PROPERTIES;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptySet;
+
+import static javax.lang.model.element.Modifier.PROTECTED;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.NestingKind.ANONYMOUS;
+import static javax.lang.model.element.NestingKind.LOCAL;
+
+import static org.revapi.DifferenceSeverity.BREAKING;
+
+import org.mule.tools.revapi.archive.ArchiveEntries;
+import org.mule.tools.revapi.archive.UnchangedExportsCheck;
+import org.mule.tools.revapi.cache.ReactorCache;
+import org.mule.tools.revapi.cache.SymbolTable;
+import org.mule.tools.revapi.cache.Verdicts;
+import org.mule.tools.revapi.classfile.AbiFingerprints;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassMember;
+import org.mule.tools.revapi.classfile.ClassPool;
+import org.mule.tools.revapi.index.ApiIndex;
+import org.mule.tools.revapi.incremental.IncrementalKey;
+import org.mule.tools.revapi.incremental.IncrementalResults;
+import org.mule.tools.revapi.jfr.ArchiveScanEvent;
+import org.mule.tools.revapi.jfr.ExportVerdictEvent;
+import org.mule.tools.revapi.leak.ApiLeak;
+import org.mule.tools.revapi.leak.ApiLeakCheck;
+import org.mule.tools.revapi.lite.CandidateBreak;
+import org.mule.tools.revapi.lite.LiteApiCheck;
+
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.Reader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
 
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.util.Elements;
+
 import org.revapi.API;
 import org.revapi.AnalysisContext;
 import org.revapi.Archive;
+import org.revapi.Difference;
 import org.revapi.Element;
 import org.revapi.ElementFilter;
+import org.revapi.Report;
 import org.revapi.java.model.TypeElement;
+import org.revapi.java.spi.JavaFieldElement;
+import org.revapi.java.spi.JavaMethodElement;
+import org.revapi.java.spi.JavaModelElement;
 import org.revapi.java.spi.JavaTypeElement;
+import org.revapi.java.spi.TypeEnvironment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,18 +86,72 @@ import org.slf4j.LoggerFactory;
  */
 public final class ExportPackageFilter implements ElementFilter {
 
-  private static final String EXPORTED_CLASS_PACKAGES_PROPERTY = "artifact.export.classPackages";
-  private static final String PRIVILEGED_EXPORTED_CLASS_PACKAGES_PROPERTY = "artifact.privileged.classPackages";
   private static final Logger LOG = LoggerFactory.getLogger(ExportPackageFilter.class);
 
-  private Map<API, Set<String>> exportedPackages;
-  private Map<Element, Boolean> exportedElements = new HashMap();
+  private SymbolTable symbols;
+  private Map<API, BitSet> exportedPackages;
+  private Map<API, Verdicts> exportedTypes;
+  private Verdicts accessibleNestedTypes;
+  private Map<API, TypeEnvironment> typeEnvironments;
+  private Map<API, ClassPool> classPools;
+  // Names of the members of each type flagged as synthetic in its class file, keyed by the id of the binary name of the type
+  private Map<API, Map<Integer, Set<String>>> generatedMembers;
+  private API oldApi;
+  private API newApi;
+  private boolean skipAnalysis;
+  private boolean failFast;
+  private BitSet skippedTypes;
+  private ApiScope scope = ApiScope.ALL;
+  private AnalysisSession session;
+  private AnalysisMetrics metrics;
+  private TypeProfile typeProfile;
+  private boolean verbose;
+  private DecisionTrace trace;
 
   @Override
-  public void close() {}
-
-  private static boolean isVerboseLogging() {
-    return System.getProperty("mule.revapi.verbose") != null;
+  public void close() {
+    if (failFast && session != null && !session.isReporting()) {
+      LOG.warn("Reports of the analysis were not available, the analysis could not stop at the first breaking difference");
+    }
+    if (exportedTypes != null) {
+      exportedTypes.values().forEach(cache -> {
+        if (metrics != null) {
+          metrics.cache(cache);
+        }
+        cache.clear();
+      });
+      exportedTypes = null;
+    }
+    if (accessibleNestedTypes != null) {
+      if (metrics != null) {
+        metrics.cache(accessibleNestedTypes);
+      }
+      accessibleNestedTypes.clear();
+      accessibleNestedTypes = null;
+    }
+    typeEnvironments = null;
+    classPools = null;
+    if (generatedMembers != null) {
+      if (metrics != null) {
+        metrics.cache("GeneratedMembers{types=" + generatedMembers.values().stream().mapToInt(Map::size).sum() + "}");
+      }
+      generatedMembers = null;
+    }
+    oldApi = null;
+    newApi = null;
+    exportedPackages = null;
+    skippedTypes = null;
+    symbols = null;
+    if (trace != null) {
+      trace.close();
+      trace = null;
+    }
+    if (session != null) {
+      session.release();
+      session = null;
+      metrics = null;
+      typeProfile = null;
+    }
   }
 
   @Override
@@ -61,37 +161,156 @@ public final class ExportPackageFilter implements ElementFilter {
 
   @Override
   public Reader getJSONSchema() {
-    return null;
+    return new InputStreamReader(getClass().getResourceAsStream(FilterConfiguration.SCHEMA), UTF_8);
   }
 
   @Override
   public void initialize(AnalysisContext analysisContext) {
-    exportedPackages = new HashMap<>();
+    FilterConfiguration configuration = FilterConfiguration.from(analysisContext.getConfigurationNode());
+    session = AnalysisSession.acquire(analysisContext);
+    metrics = session.getMetrics();
+    typeProfile = session.getTypeProfile();
+    symbols = session.getSymbols();
+    // Read once, the filter decisions are traced instead of logged
+    verbose = System.getProperty("mule.revapi.verbose") != null;
+    trace = null;
+    if (verbose) {
+      trace = new DecisionTrace(getArchiveNames(analysisContext.getOldApi()) + " -> "
+          + getArchiveNames(analysisContext.getNewApi()), symbols);
+      session.addReportListener(this::traceBreakingDifference);
+    }
+
+    long start = System.nanoTime();
+    Map<API, Set<String>> packageNames = new HashMap<>();
+    // APIs whose archives all have an index
+    Set<API> indexedApis = new HashSet<>();
     Function<API, Set<String>> getExportedPackages = api -> {
       Set<String> exportedPackages = new HashSet<>();
-      api.getArchives().forEach(a -> addExportedPackages(a, exportedPackages));
+      List<ApiIndex> apiIndexes = new ArrayList<>();
+      boolean indexed = true;
+      for (Archive archive : api.getArchives()) {
+        ApiIndex apiIndex = addExportedPackages(archive, exportedPackages);
+        if (apiIndex != null) {
+          apiIndexes.add(apiIndex);
+        } else {
+          indexed = false;
+        }
+      }
+      if (!apiIndexes.isEmpty()) {
+        session.setApiIndex(api, ApiIndex.merge(apiIndexes));
+        if (indexed) {
+          indexedApis.add(api);
+        }
+      }
       return exportedPackages;
 
     };
 
-    exportedPackages.computeIfAbsent(analysisContext.getOldApi(), getExportedPackages);
-    exportedPackages.computeIfAbsent(analysisContext.getNewApi(), getExportedPackages);
+    packageNames.computeIfAbsent(analysisContext.getOldApi(), getExportedPackages);
+    packageNames.computeIfAbsent(analysisContext.getNewApi(), getExportedPackages);
+    exportedPackages = new HashMap<>();
+    packageNames.forEach((api, packages) -> {
+      BitSet packageIds = new BitSet();
+      packages.forEach(packageName -> packageIds.set(symbols.intern(packageName)));
+      exportedPackages.put(api, packageIds);
+    });
+    exportedTypes = new HashMap<>();
+    exportedTypes.put(analysisContext.getOldApi(), new Verdicts("OldExportVerdicts"));
+    exportedTypes.put(analysisContext.getNewApi(), new Verdicts("NewExportVerdicts"));
+    accessibleNestedTypes = new Verdicts("NestedTypeVerdicts");
+    typeEnvironments = new HashMap<>();
+    classPools = new HashMap<>();
+    generatedMembers = new HashMap<>();
+    oldApi = analysisContext.getOldApi();
+    newApi = analysisContext.getNewApi();
+    metrics.time("exported packages scan", start);
+
+    Set<String> allExportedPackages = new HashSet<>();
+    packageNames.values().forEach(allExportedPackages::addAll);
+    scope = ApiScope.of(configuration.getScope(), allExportedPackages, new Predicate<String>() {
+
+      private Set<String> typeNames;
+
+      @Override
+      public boolean test(String typeName) {
+        if (typeNames == null) {
+          typeNames = getTypeNames(analysisContext.getOldApi());
+          typeNames.addAll(getTypeNames(analysisContext.getNewApi()));
+        }
+        return typeNames.contains(typeName);
+      }
+    });
+    if (!scope.isAll()) {
+      LOG.info("Analysis restricted to " + scope);
+    }
+
+    ReactorCache reactorCache = session.getReactorCache();
+    if (reactorCache != null && verbose) {
+      LOG.info("Reading supplementary archives through " + reactorCache);
+    }
+
+    failFast = configuration.isFailFast();
+    if (failFast) {
+      session.addReportListener(this::stopAtBreakingDifference);
+    }
+    skipAnalysis = configuration.isSkipUnchangedExports() && hasUnchangedExports(analysisContext);
+    skippedTypes = new BitSet();
+    ClassPool newPool = null;
+    boolean fingerprintTypes = configuration.isSkipUnchangedTypes() || configuration.getIncrementalDirectory() != null;
+    boolean indexedFingerprints = indexedApis.contains(analysisContext.getOldApi())
+        && indexedApis.contains(analysisContext.getNewApi());
+    if (!skipAnalysis && fingerprintTypes && !configuration.isLiteMode() && indexedFingerprints) {
+      // Both versions were fingerprinted when they were built, no class needs to be read
+      if (verbose) {
+        LOG.info("Reading the ABI fingerprints of the exported types from the API indexes");
+      }
+      skipTypes(analysisContext, configuration,
+                AbiFingerprints.of(session.getApiIndex(analysisContext.getOldApi()).getFingerprints()),
+                AbiFingerprints.of(session.getApiIndex(analysisContext.getNewApi()).getFingerprints()));
+    } else if (!skipAnalysis && (configuration.isLiteMode() || fingerprintTypes)) {
+      start = System.nanoTime();
+      ClassPool oldPool = ClassPool.of(analysisContext.getOldApi(), reactorCache);
+      newPool = ClassPool.of(analysisContext.getNewApi(), reactorCache);
+      classPools.put(analysisContext.getOldApi(), oldPool);
+      classPools.put(analysisContext.getNewApi(), newPool);
+      metrics.time("class pools", start);
+      skipAnalysis = configuration.isLiteMode() && !hasCandidateBreaks(oldPool, newPool);
+      if (!skipAnalysis && fingerprintTypes) {
+        start = System.nanoTime();
+        AbiFingerprints oldFingerprints = AbiFingerprints.of(oldPool);
+        AbiFingerprints newFingerprints = AbiFingerprints.of(newPool);
+        metrics.time("ABI fingerprints", start);
+        skipTypes(analysisContext, configuration, oldFingerprints, newFingerprints);
+      }
+    }
+    if (configuration.isDetectLeaks()) {
+      reportLeaks(newPool != null ? newPool : ClassPool.of(analysisContext.getNewApi(), reactorCache));
+    }
   }
 
   @Override
   public boolean applies(Element element) {
+    long start = typeProfile.isEnabled() ? System.nanoTime() : 0;
     boolean exported;
 
-    if (element instanceof JavaTypeElement) {
-      exported = isExported(element);
+    if (skipAnalysis || session.isAborted()) {
+      exported = false;
+    } else if (element instanceof JavaTypeElement) {
+      exported = isExported(element) && !isSkipped(element);
     } else {
       TypeElement ownerJavaTypeElement = findOwnerJavaTypeElement(element);
 
-      exported = isExported(ownerJavaTypeElement);
+      exported = isExported(ownerJavaTypeElement) && !isSkipped(ownerJavaTypeElement);
+    }
+    if (exported && isPruned(element)) {
+      exported = false;
+      metrics.elementPruned();
     }
 
-    if (isVerboseLogging()) {
-      LOG.info(exported + " : applies to " + element);
+    metrics.elementFiltered(exported);
+    typeProfile.filtered(element, start);
+    if (trace != null) {
+      trace.record(DecisionTrace.APPLIES, exported, getTraceTypeId(element), element);
     }
 
     return exported;
@@ -99,15 +318,227 @@ public final class ExportPackageFilter implements ElementFilter {
 
   @Override
   public boolean shouldDescendInto(Object element) {
-    boolean descendInto = element instanceof Element ? isExported((Element) element) : false;
+    long start = typeProfile.isEnabled() ? System.nanoTime() : 0;
+    boolean descendInto = !skipAnalysis && !session.isAborted() && element instanceof Element
+        ? isExported((Element) element) && !isSkipped((Element) element) && !isPruned((Element) element)
+        : false;
+    if (element instanceof Element) {
+      typeProfile.filtered((Element) element, start);
+    }
 
-    if (isVerboseLogging()) {
-      LOG.info(descendInto + ": should descend into " + element);
+    if (trace != null) {
+      trace.record(DecisionTrace.DESCEND_INTO, descendInto, getTraceTypeId(element), element);
     }
 
     return descendInto;
   }
 
+  /**
+   * @return the verdict caches of the analysis, empty once the filter is closed
+   */
+  List<Verdicts> getVerdicts() {
+    List<Verdicts> verdicts = new ArrayList<>();
+    if (exportedTypes != null) {
+      verdicts.addAll(exportedTypes.values());
+    }
+    if (accessibleNestedTypes != null) {
+      verdicts.add(accessibleNestedTypes);
+    }
+    return verdicts;
+  }
+
+  private boolean hasUnchangedExports(AnalysisContext analysisContext) {
+    long start = System.nanoTime();
+    boolean unchanged = UnchangedExportsCheck.isUnchanged(analysisContext.getOldApi(), analysisContext.getNewApi(),
+                                                          session.getReactorCache());
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    metrics.time("unchanged exports check", start);
+
+    if (unchanged) {
+      LOG.info("Exported classes are byte-identical (checked in " + elapsedMillis
+          + " ms), no API change. Skipping the full analysis");
+    } else if (verbose) {
+      LOG.info("Exported classes changed. Checked in " + elapsedMillis + " ms");
+    }
+    return unchanged;
+  }
+
+  private boolean hasCandidateBreaks(ClassPool oldPool, ClassPool newPool) {
+    long start = System.nanoTime();
+    List<CandidateBreak> candidates = new ArrayList<>();
+    for (CandidateBreak candidate : LiteApiCheck.check(oldPool, newPool)) {
+      if (scope.includes(candidate.getTypeName())) {
+        candidates.add(candidate);
+      }
+    }
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    metrics.time("lite signature diff", start);
+
+    if (candidates.isEmpty()) {
+      LOG.info("Lite signature diff found no changes in the exported API in " + elapsedMillis
+          + " ms, skipping the full analysis");
+      return false;
+    }
+
+    LOG.info("Lite signature diff found " + candidates.size() + " candidate API changes in " + elapsedMillis
+        + " ms, running the full analysis");
+    if (verbose) {
+      candidates.forEach(candidate -> LOG.info("Candidate API change: " + candidate));
+    }
+    return true;
+  }
+
+  private void reportLeaks(ClassPool newPool) {
+    long start = System.nanoTime();
+    List<ApiLeak> leaks = ApiLeakCheck.check(newPool);
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+    metrics.time("API leak check", start);
+
+    LOG.info("API leak check found " + leaks.size() + " types reachable from the exported API that are not exported in "
+        + elapsedMillis + " ms");
+    leaks.forEach(leak -> LOG.warn("Type leaked by the exported API: " + leak));
+  }
+
+  private void skipTypes(AnalysisContext analysisContext, FilterConfiguration configuration, AbiFingerprints oldFingerprints,
+                         AbiFingerprints newFingerprints) {
+    if (configuration.isSkipUnchangedTypes()) {
+      skipUnchangedTypes(oldFingerprints, newFingerprints);
+    }
+    if (configuration.getIncrementalDirectory() != null) {
+      if (configuration.getConfigurationKey() == null) {
+        // Only the configuration of this extension is visible here, changes to the ignored differences or the options of the
+        // other extensions would go unnoticed
+        LOG.warn("Incremental results are not used without the configurationKey option identifying the whole Revapi "
+            + "configuration, analyzing every type");
+      } else {
+        skipPreviouslyAnalyzedTypes(analysisContext, configuration.getIncrementalDirectory(), oldFingerprints, newFingerprints);
+      }
+    }
+  }
+
+  private void skipUnchangedTypes(AbiFingerprints oldFingerprints, AbiFingerprints newFingerprints) {
+    long start = System.nanoTime();
+    Set<String> unchangedTypes = new HashSet<>();
+    AbiFingerprints.findUnchangedTypes(oldFingerprints, newFingerprints)
+        .forEach(type -> unchangedTypes.add(ClassFile.toCanonicalName(type)));
+    long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+    LOG.info("ABI fingerprints found " + unchangedTypes.size() + " unchanged exported types in " + elapsedMillis
+        + " ms, leaving them out of the analysis");
+    if (verbose) {
+      unchangedTypes.forEach(type -> LOG.info("Unchanged type: " + type));
+    }
+    unchangedTypes.forEach(type -> skippedTypes.set(symbols.intern(type)));
+  }
+
+  private void skipPreviouslyAnalyzedTypes(AnalysisContext analysisContext, Path directory, AbiFingerprints oldFingerprints,
+                                           AbiFingerprints newFingerprints) {
+    String key;
+    try {
+      key = IncrementalKey.of(analysisContext.getConfigurationNode().toString(),
+                              getArchiveNames(analysisContext.getOldApi()), getArchiveNames(analysisContext.getNewApi()));
+    } catch (IOException e) {
+      LOG.warn("Failed to identify the code of the extension, the incremental results are not used", e);
+      return;
+    }
+    IncrementalResults results = IncrementalResults.load(directory, key);
+    Set<String> oldTypes = oldFingerprints.getTopLevelTypes();
+    int reusedTypes = 0;
+    int analyzedTypes = 0;
+
+    for (String type : newFingerprints.getTopLevelTypes()) {
+      String canonicalName = ClassFile.toCanonicalName(type);
+      if (!oldTypes.contains(type) || skippedTypes.get(symbols.intern(canonicalName))) {
+        continue;
+      }
+
+      String oldFingerprint = oldFingerprints.get(type);
+      String newFingerprint = newFingerprints.get(type);
+      if (results.reuse(canonicalName, oldFingerprint, newFingerprint)) {
+        skippedTypes.set(symbols.intern(canonicalName));
+        reusedTypes++;
+        if (verbose) {
+          LOG.info("Reusing the previous result of type: " + canonicalName);
+        }
+      } else {
+        results.analyzed(canonicalName, oldFingerprint, newFingerprint);
+        analyzedTypes++;
+      }
+    }
+    LOG.info("Incremental analysis reuses the results of " + reusedTypes + " changed exported types, analyzing "
+        + analyzedTypes + " of them");
+
+    session.addReportListener(report -> {
+      reportedType(report.getOldElement(), results);
+      reportedType(report.getNewElement(), results);
+    });
+    session.addCloseListener(() -> {
+      if (session.isAborted()) {
+        LOG.info("Analysis stopped at the first breaking difference, the incremental results were not stored");
+      } else if (session.isReporting()) {
+        results.save();
+      } else {
+        LOG.warn("Reports of the analysis were not available, the incremental results were not stored");
+      }
+    });
+  }
+
+  private void stopAtBreakingDifference(Report report) {
+    if (session.isAborted()) {
+      return;
+    }
+
+    for (Difference difference : report.getDifferences()) {
+      if (difference.classification.containsValue(BREAKING)) {
+        session.abort();
+        Element element = report.getNewElement() != null ? report.getNewElement() : report.getOldElement();
+        LOG.info("Found the breaking difference " + difference.code + " in " + element + ", stopping the analysis");
+        return;
+      }
+    }
+  }
+
+  private void traceBreakingDifference(Report report) {
+    for (Difference difference : report.getDifferences()) {
+      if (difference.classification.containsValue(BREAKING)) {
+        trace.failed();
+        return;
+      }
+    }
+  }
+
+  private void reportedType(Element element, IncrementalResults results) {
+    String topLevelType = SessionReporter.getTopLevelTypeName(element);
+    if (topLevelType != null) {
+      results.reported(topLevelType);
+    }
+  }
+
+  private static List<String> getArchiveNames(API api) {
+    List<String> names = new ArrayList<>();
+    api.getArchives().forEach(archive -> names.add(archive.getName()));
+    return names;
+  }
+
+  /**
+   * @return canonical names of the classes in the archives of the API
+   */
+  private static Set<String> getTypeNames(API api) {
+    Set<String> typeNames = new HashSet<>();
+    for (Archive archive : api.getArchives()) {
+      try {
+        ArchiveEntries.read(archive).getClassNames().forEach(name -> typeNames.add(ClassFile.toCanonicalName(name)));
+      } catch (IOException e) {
+        LOG.debug("Failed to read the classes of the archive " + archive, e);
+      }
+    }
+    return typeNames;
+  }
+
+  private boolean isSkipped(Element element) {
+    return element instanceof TypeElement && skippedTypes.get(getTopLevelTypeId(element));
+  }
+
   private TypeElement findOwnerJavaTypeElement(Element element) {
     while (!(element instanceof JavaTypeElement) || element.getParent() instanceof TypeElement) {
       element = element.getParent();
@@ -121,33 +552,148 @@ public final class ExportPackageFilter implements ElementFilter {
   }
 
   private boolean isExported(Element element) {
-    if (exportedElements.containsKey(element)) {
-      return exportedElements.get(element);
+    if (!(element instanceof TypeElement)) {
+      return false;
     }
 
-    boolean exported;
-    if (!(element instanceof TypeElement)) {
-      exported = false;
-    } else {
-      String packageName = getPackageName((TypeElement) element);
-      Set<String> exportDefinitions = exportedPackages.get(element.getApi());
-      if (exportDefinitions == null || exportDefinitions.isEmpty()) {
-        exported = false;
-      } else {
-        exported = exportDefinitions.contains(packageName);
-      }
+    // Every type nested in a top-level type has its verdict, so the cache is keyed by the top-level type
+    int typeId = getTopLevelTypeId(element);
+    Verdicts cache = exportedTypes.get(element.getApi());
+    Boolean cached = cache == null ? null : cache.get(typeId);
+    if (cached != null) {
+      return cached;
     }
-    if (isVerboseLogging()) {
-      LOG.info(exported + " : applies to " + element);
+
+    ExportVerdictEvent event = new ExportVerdictEvent();
+    event.begin();
+    int packageId = symbols.getPackage(typeId);
+    BitSet exportDefinitions = exportedPackages.get(element.getApi());
+    boolean exported =
+        exportDefinitions != null && exportDefinitions.get(packageId) && scope.includes(symbols.getName(typeId));
+    if (trace != null) {
+      trace.record(DecisionTrace.EXPORTED, exported, typeId, element);
+    }
+    if (cache != null) {
+      cache.put(typeId, exported);
+    }
+    if (event.shouldCommit()) {
+      event.element = element.toString();
+      event.packageName = symbols.getName(packageId);
+      event.exported = exported;
+      event.commit();
     }
-    exportedElements.put(element, exported);
     return exported;
   }
 
-  private String getPackageName(TypeElement element) {
-    String canonicalName = findOwnerJavaTypeElement(element).getCanonicalName();
-    int index = canonicalName.lastIndexOf(".");
-    return canonicalName.substring(0, index);
+  private int getTopLevelTypeId(Element element) {
+    return symbols.intern(findOwnerJavaTypeElement(element).getCanonicalName());
+  }
+
+  /**
+   * @return id of the top level type of the element, or -1 if it is not part of a type
+   */
+  private int getTraceTypeId(Object element) {
+    String topLevelType = element instanceof Element ? SessionReporter.getTopLevelTypeName((Element) element) : null;
+    return topLevelType != null ? symbols.intern(topLevelType) : -1;
+  }
+
+  /**
+   * Prunes the elements that can never be part of the API of an exported type, before Revapi compares them and the transforms
+   * run on their differences: nested types that cannot be reached from outside their package in either version of the API, and
+   * members generated by the compiler, such as lambda bodies, bridges and synthetic accessors.
+   */
+  private boolean isPruned(Element element) {
+    if (element instanceof TypeElement) {
+      TypeElement type = (TypeElement) element;
+      typeEnvironments.putIfAbsent(type.getApi(), type.getTypeEnvironment());
+      return type.getParent() instanceof TypeElement && !isAccessibleNestedType(type);
+    }
+    return (element instanceof JavaMethodElement || element instanceof JavaFieldElement)
+        && isCompilerGenerated((JavaModelElement) element);
+  }
+
+  private boolean isAccessibleNestedType(TypeElement type) {
+    javax.lang.model.element.TypeElement declaration = type.getDeclaringElement();
+    if (declaration.getNestingKind() == ANONYMOUS || declaration.getNestingKind() == LOCAL) {
+      return false;
+    }
+
+    // The modifiers of both versions are read once per type, a type that is accessible in only one of them is still compared
+    // so its visibility change is reported
+    int typeId = symbols.intern(type.getCanonicalName());
+    Boolean cached = accessibleNestedTypes.get(typeId);
+    if (cached != null) {
+      return cached;
+    }
+
+    API otherApi = type.getApi() == oldApi ? newApi : oldApi;
+    boolean accessible = isAccessible(declaration) || isAccessibleCounterpart(otherApi, symbols.getName(typeId));
+    accessibleNestedTypes.put(typeId, accessible);
+    return accessible;
+  }
+
+  private boolean isAccessibleCounterpart(API api, String typeName) {
+    TypeEnvironment typeEnvironment = typeEnvironments.get(api);
+    if (typeEnvironment == null) {
+      // The other version was not visited yet, so its modifiers are not known
+      return true;
+    }
+
+    javax.lang.model.element.TypeElement counterpart = typeEnvironment.getElementUtils().getTypeElement(typeName);
+    return counterpart != null && isAccessible(counterpart);
+  }
+
+  private static boolean isAccessible(javax.lang.model.element.Element declaration) {
+    return declaration.getModifiers().contains(PUBLIC) || declaration.getModifiers().contains(PROTECTED);
+  }
+
+  /**
+   * Members are told apart by the flags of their class file and not by their names, so a member declared with a name that looks
+   * generated, like {@code access$run}, is still part of the API. The javac model does not expose the synthetic flag, but keeps
+   * the bridge one. The generated members of a type are read once per version.
+   */
+  private boolean isCompilerGenerated(JavaModelElement member) {
+    javax.lang.model.element.Element declaration = member.getDeclaringElement();
+    Elements elements = member.getTypeEnvironment().getElementUtils();
+    if (declaration instanceof ExecutableElement && elements.isBridge((ExecutableElement) declaration)) {
+      return true;
+    }
+    if (!(declaration.getEnclosingElement() instanceof javax.lang.model.element.TypeElement)) {
+      return false;
+    }
+
+    String binaryName =
+        elements.getBinaryName((javax.lang.model.element.TypeElement) declaration.getEnclosingElement()).toString();
+    Set<String> generated = generatedMembers.computeIfAbsent(member.getApi(), api -> new HashMap<>())
+        .computeIfAbsent(symbols.intern(binaryName), typeId -> getGeneratedMembers(member.getApi(), binaryName));
+    return generated.contains(getMemberKey(declaration.getSimpleName().toString(), declaration instanceof ExecutableElement));
+  }
+
+  /**
+   * @return keys of the members of the type only made of members its class file flags as generated. A method name shared with a
+   *         declared method, as bridges do, is not part of it.
+   */
+  private Set<String> getGeneratedMembers(API api, String binaryName) {
+    ClassFile classFile = classPools.computeIfAbsent(api, a -> ClassPool.of(a, session.getReactorCache()))
+        .find(binaryName.replace('.', '/'));
+    if (classFile == null) {
+      return emptySet();
+    }
+
+    Set<String> generated = new HashSet<>();
+    Set<String> declared = new HashSet<>();
+    for (ClassMember field : classFile.getFields()) {
+      (field.isCompilerGenerated() ? generated : declared).add(getMemberKey(field.getName(), false));
+    }
+    for (ClassMember method : classFile.getMethods()) {
+      (method.isCompilerGenerated() ? generated : declared).add(getMemberKey(method.getName(), true));
+    }
+    generated.removeAll(declared);
+    return generated.isEmpty() ? emptySet() : generated;
+  }
+
+  private static String getMemberKey(String name, boolean method) {
+    return method ? name + "()" : name;
   }
 
   private byte[] getBytes(InputStream is)
@@ -161,47 +707,95 @@ public final class ExportPackageFilter implements ElementFilter {
     return outputStream.toByteArray();
   }
 
-  private void addExportedPackages(Archive archive, Set<String> exportedPackages) {
-    try (JarInputStream jarFile = new JarInputStream(archive.openStream())) {
+  /**
+   * @return the index of the archive, or null if it has none. It holds the exported packages, so the scan stops at the index.
+   */
+  private ApiIndex addExportedPackages(Archive archive, Set<String> exportedPackages) {
+    ArchiveScanEvent event = new ArchiveScanEvent();
+    event.begin();
+    int entries = 0;
+    int packages = 0;
+    ApiIndex apiIndex = null;
+    try (CountingInputStream archiveStream = new CountingInputStream(archive.openStream());
+        JarInputStream jarFile = new JarInputStream(archiveStream)) {
       JarEntry entry;
 
       while ((entry = jarFile.getNextJarEntry()) != null) {
         String name = entry.getName();
+        entries++;
 
-        if (name.equals("META-INF/mule-module.properties")) {
-          Properties properties = new Properties();
+        if (name.equals(MODULE_PROPERTIES)) {
           byte bytes[] = getBytes(new BufferedInputStream(jarFile));
-          properties.load(new ByteArrayInputStream(bytes));
+          ModuleExports moduleExports = ModuleExports.read(new ByteArrayInputStream(bytes));
+          exportedPackages.addAll(moduleExports.getPackages());
+          packages += moduleExports.getPackages().size();
 
-          Set<String> standardPackages = getPackagesFromProperty(properties, EXPORTED_CLASS_PACKAGES_PROPERTY);
-          exportedPackages.addAll(standardPackages);
-          Set<String> privilegedPackages = getPackagesFromProperty(properties, PRIVILEGED_EXPORTED_CLASS_PACKAGES_PROPERTY);
-          exportedPackages.addAll(privilegedPackages);
-
-          if (isVerboseLogging()) {
-            LOG.info("Adding exported packages from: " + jarFile + "\nstandard: " + standardPackages + "\nprivileged: "
-                + privilegedPackages);
+          if (verbose) {
+            LOG.info("Adding exported packages from: " + jarFile + "\n" + moduleExports);
+          }
+        } else if (name.equals(ApiIndex.INDEX_ENTRY)) {
+          try {
+            apiIndex = ApiIndex.read(jarFile);
+          } catch (IOException e) {
+            LOG.warn("Ignoring the API index of the archive " + archive + ", scanning it instead", e);
+            continue;
           }
+          exportedPackages.addAll(apiIndex.getExports().getPackages());
+          packages += apiIndex.getExports().getPackages().size();
+          if (verbose) {
+            LOG.info("Adding exported packages from the API index of: " + archive + "\n" + apiIndex);
+          }
+          break;
         }
       }
+      metrics.archiveScanned(archiveStream.count);
+      if (event.shouldCommit()) {
+        event.archive = archive.getName();
+        event.entries = entries;
+        event.bytesRead = archiveStream.count;
+        event.exportedPackages = packages;
+        event.commit();
+      }
     } catch (IOException e) {
       LOG.debug("Failed to open the archive " + archive + " as a jar.", e);
     }
+    return apiIndex;
   }
 
-  private Set<String> getPackagesFromProperty(Properties properties, String propertyName) {
-    Set<String> result = new HashSet<>();
-    String property = properties.getProperty(propertyName);
-    if (property != null) {
-      String[] packages = property.split(",");
-      for (String packageName : packages) {
-        String name = packageName.trim();
-        if (!"".equals(name)) {
-          result.add(name);
-        }
+  /**
+   * Counts the bytes read from an archive.
+   */
+  private static final class CountingInputStream extends FilterInputStream {
+
+    private long count;
+
+    private CountingInputStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b != -1) {
+        count++;
       }
+      return b;
     }
 
-    return result;
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      int n = super.read(b, off, len);
+      if (n > 0) {
+        count += n;
+      }
+      return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+      long skipped = super.skip(n);
+      count += skipped;
+      return skipped;
+    }
   }
 }
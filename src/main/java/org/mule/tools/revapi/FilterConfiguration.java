@@ -0,0 +1,143 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Configuration of the {@link ExportPackageFilter}, taken from the {@code mule.module.filter} extension configuration.
+ * <p/>
+ * Every option is optional.
+ *
+ * @since 1.10
+ */
+final class FilterConfiguration {
+
+  static final String SCHEMA = "/META-INF/mule-module-filter-config-schema.json";
+
+  private static final String LITE_MODE = "liteMode";
+  private static final String SKIP_UNCHANGED_EXPORTS = "skipUnchangedExports";
+  private static final String SKIP_UNCHANGED_TYPES = "skipUnchangedTypes";
+  private static final String INCREMENTAL_DIRECTORY = "incrementalDirectory";
+  private static final String CONFIGURATION_KEY = "configurationKey";
+  private static final String FAIL_FAST = "failFast";
+  private static final String SCOPE = "scope";
+  private static final String DETECT_LEAKS = "detectLeaks";
+
+  private final boolean liteMode;
+  private final boolean skipUnchangedExports;
+  private final boolean skipUnchangedTypes;
+  private final Path incrementalDirectory;
+  private final String configurationKey;
+  private final boolean failFast;
+  private final List<String> scope;
+  private final boolean detectLeaks;
+
+  private FilterConfiguration(boolean liteMode, boolean skipUnchangedExports, boolean skipUnchangedTypes,
+                              Path incrementalDirectory, String configurationKey, boolean failFast, List<String> scope,
+                              boolean detectLeaks) {
+    this.liteMode = liteMode;
+    this.skipUnchangedExports = skipUnchangedExports;
+    this.skipUnchangedTypes = skipUnchangedTypes;
+    this.incrementalDirectory = incrementalDirectory;
+    this.configurationKey = configurationKey;
+    this.failFast = failFast;
+    this.scope = unmodifiableList(scope);
+    this.detectLeaks = detectLeaks;
+  }
+
+  /**
+   * @param configuration configuration node of the extension. Can be null.
+   * @return the parsed configuration
+   */
+  static FilterConfiguration from(JsonNode configuration) {
+    if (configuration == null || configuration.isMissingNode() || configuration.isNull()) {
+      return new FilterConfiguration(false, false, false, null, null, false, emptyList(), false);
+    }
+
+    String incrementalDirectory = configuration.path(INCREMENTAL_DIRECTORY).asText(null);
+    List<String> scope = new ArrayList<>();
+    configuration.path(SCOPE).forEach(pattern -> scope.add(pattern.asText().trim()));
+    return new FilterConfiguration(configuration.path(LITE_MODE).asBoolean(false),
+                                   configuration.path(SKIP_UNCHANGED_EXPORTS).asBoolean(false),
+                                   configuration.path(SKIP_UNCHANGED_TYPES).asBoolean(false),
+                                   incrementalDirectory == null || incrementalDirectory.isEmpty() ? null
+                                       : Paths.get(incrementalDirectory),
+                                   configuration.path(CONFIGURATION_KEY).asText(null),
+                                   configuration.path(FAIL_FAST).asBoolean(false),
+                                   scope,
+                                   configuration.path(DETECT_LEAKS).asBoolean(false));
+  }
+
+  /**
+   * @return true if a signature diff of the class files must run before the full analysis, which is skipped when the diff finds
+   *         no change in the exported API.
+   */
+  boolean isLiteMode() {
+    return liteMode;
+  }
+
+  /**
+   * @return true if the analysis must be skipped when the exported classes of both versions are byte-identical.
+   */
+  boolean isSkipUnchangedExports() {
+    return skipUnchangedExports;
+  }
+
+  /**
+   * @return true if the exported types whose ABI fingerprint is the same in both versions must be left out of the analysis.
+   */
+  boolean isSkipUnchangedTypes() {
+    return skipUnchangedTypes;
+  }
+
+  /**
+   * @return directory where the results of the analysis are kept for the next run, or null if the analysis is not incremental.
+   */
+  Path getIncrementalDirectory() {
+    return incrementalDirectory;
+  }
+
+  /**
+   * @return text identifying the whole Revapi configuration of the analysis, or null if it was not given. Incremental results
+   *         are only reused when it is given.
+   */
+  String getConfigurationKey() {
+    return configurationKey;
+  }
+
+  /**
+   * @return true if the analysis must stop at the first breaking difference that survives the transforms.
+   */
+  boolean isFailFast() {
+    return failFast;
+  }
+
+  /**
+   * @return patterns of the packages and types the analysis is restricted to. Empty if the whole exported API is analyzed.
+   * @see ApiScope
+   */
+  List<String> getScope() {
+    return scope;
+  }
+
+  /**
+   * @return true if the types of the module that are not exported but can be reached from its exported API must be reported.
+   * @see org.mule.tools.revapi.leak.ApiLeakCheck
+   */
+  boolean isDetectLeaks() {
+    return detectLeaks;
+  }
+}
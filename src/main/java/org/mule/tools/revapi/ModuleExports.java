@@ -0,0 +1,177 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Packages exported by a Mule module, as declared in its {@value #MODULE_PROPERTIES} descriptor.
+ * <p/>
+ * Keeps standard and privileged exports apart, so consumers can tell which kind of API a package belongs to, while
+ * {@link #isExported(String)} considers both of them as a single API.
+ *
+ * @since 1.10
+ */
+public final class ModuleExports {
+
+  /**
+   * Location of the Mule module descriptor inside a module jar.
+   */
+  public static final String MODULE_PROPERTIES = "META-INF/mule-module.properties";
+
+  /**
+   * Exports declared by an archive without a Mule module descriptor.
+   */
+  public static final ModuleExports NONE = new ModuleExports(emptySet(), emptySet());
+
+  private static final String EXPORTED_CLASS_PACKAGES_PROPERTY = "artifact.export.classPackages";
+  private static final String PRIVILEGED_EXPORTED_CLASS_PACKAGES_PROPERTY = "artifact.privileged.classPackages";
+
+  private final Set<String> standardPackages;
+  private final Set<String> privilegedPackages;
+
+  private ModuleExports(Set<String> standardPackages, Set<String> privilegedPackages) {
+    this.standardPackages = unmodifiableSet(standardPackages);
+    this.privilegedPackages = unmodifiableSet(privilegedPackages);
+  }
+
+  /**
+   * Creates a new instance from a set of standard and privileged packages.
+   *
+   * @param standardPackages   packages exported to any artifact
+   * @param privilegedPackages packages exported only to privileged artifacts
+   * @return the exports
+   */
+  public static ModuleExports of(Set<String> standardPackages, Set<String> privilegedPackages) {
+    return new ModuleExports(new HashSet<>(standardPackages), new HashSet<>(privilegedPackages));
+  }
+
+  /**
+   * Reads the exports from the content of a Mule module descriptor.
+   *
+   * @param descriptor content of a {@value #MODULE_PROPERTIES} file. Is not closed by this method.
+   * @return the exports declared in the descriptor
+   * @throws IOException if the descriptor cannot be read
+   */
+  public static ModuleExports read(InputStream descriptor) throws IOException {
+    Properties properties = new Properties();
+    properties.load(descriptor);
+
+    return new ModuleExports(getPackagesFromProperty(properties, EXPORTED_CLASS_PACKAGES_PROPERTY),
+                             getPackagesFromProperty(properties, PRIVILEGED_EXPORTED_CLASS_PACKAGES_PROPERTY));
+  }
+
+  /**
+   * @param other exports to merge with these ones
+   * @return exports containing the packages of both instances
+   */
+  public ModuleExports merge(ModuleExports other) {
+    if (other.isEmpty()) {
+      return this;
+    } else if (isEmpty()) {
+      return other;
+    }
+
+    Set<String> standard = new HashSet<>(standardPackages);
+    standard.addAll(other.standardPackages);
+    Set<String> privileged = new HashSet<>(privilegedPackages);
+    privileged.addAll(other.privilegedPackages);
+
+    return new ModuleExports(standard, privileged);
+  }
+
+  /**
+   * @return true if no package is exported, false otherwise
+   */
+  public boolean isEmpty() {
+    return standardPackages.isEmpty() && privilegedPackages.isEmpty();
+  }
+
+  /**
+   * @param packageName name of the package to check
+   * @return true if the package is exported either as standard or as privileged API, false otherwise
+   */
+  public boolean isExported(String packageName) {
+    return standardPackages.contains(packageName) || privilegedPackages.contains(packageName);
+  }
+
+  /**
+   * @param packageName name of the package to check
+   * @return true if the package is exported only as privileged API, false otherwise
+   */
+  public boolean isPrivilegedOnly(String packageName) {
+    return privilegedPackages.contains(packageName) && !standardPackages.contains(packageName);
+  }
+
+  /**
+   * @return packages exported as standard API
+   */
+  public Set<String> getStandardPackages() {
+    return standardPackages;
+  }
+
+  /**
+   * @return packages exported as privileged API
+   */
+  public Set<String> getPrivilegedPackages() {
+    return privilegedPackages;
+  }
+
+  /**
+   * @return all the exported packages, regardless of the kind of export
+   */
+  public Set<String> getPackages() {
+    Set<String> packages = new HashSet<>(standardPackages);
+    packages.addAll(privilegedPackages);
+    return packages;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ModuleExports)) {
+      return false;
+    }
+    ModuleExports that = (ModuleExports) o;
+    return standardPackages.equals(that.standardPackages) && privilegedPackages.equals(that.privilegedPackages);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * standardPackages.hashCode() + privilegedPackages.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "standard: " + standardPackages + "\nprivileged: " + privilegedPackages;
+  }
+
+  private static Set<String> getPackagesFromProperty(Properties properties, String propertyName) {
+    Set<String> result = new HashSet<>();
+    String property = properties.getProperty(propertyName);
+    if (property != null) {
+      String[] packages = property.split(",");
+      for (String packageName : packages) {
+        String name = packageName.trim();
+        if (!"".equals(name)) {
+          result.add(name);
+        }
+      }
+    }
+
+    return result;
+  }
+}
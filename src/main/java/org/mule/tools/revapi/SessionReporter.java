@@ -0,0 +1,69 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import java.io.Reader;
+
+import org.revapi.AnalysisContext;
+import org.revapi.Element;
+import org.revapi.Report;
+import org.revapi.Reporter;
+import org.revapi.java.model.TypeElement;
+
+/**
+ * Forwards the final reports of an analysis to its {@link AnalysisSession}, so the other Mule extensions can tell which
+ * elements ended up with API changes.
+ *
+ * @since 1.10
+ */
+public final class SessionReporter implements Reporter {
+
+  private AnalysisSession session;
+
+  @Override
+  public String getExtensionId() {
+    return "mule.module.session";
+  }
+
+  @Override
+  public Reader getJSONSchema() {
+    return null;
+  }
+
+  @Override
+  public void initialize(AnalysisContext analysisContext) {
+    session = AnalysisSession.acquire(analysisContext);
+    session.startReporting();
+  }
+
+  @Override
+  public void report(Report report) {
+    session.report(report);
+  }
+
+  /**
+   * @param element element of a report. Can be null.
+   * @return canonical name of the top level type containing the element, or null if it is not part of a type
+   */
+  public static String getTopLevelTypeName(Element element) {
+    TypeElement topLevelType = null;
+    for (Element current = element; current != null; current = current.getParent()) {
+      if (current instanceof TypeElement) {
+        topLevelType = (TypeElement) current;
+      }
+    }
+    return topLevelType == null ? null : topLevelType.getCanonicalName();
+  }
+
+  @Override
+  public void close() {
+    if (session != null) {
+      session.release();
+      session = null;
+    }
+  }
+}
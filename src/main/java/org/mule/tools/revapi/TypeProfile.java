@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.SessionReporter.getTopLevelTypeName;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.revapi.Element;
+import org.revapi.Report;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Attributes the time spent by the Mule filter and transforms, and the differences found, to the top-level types of a single
+ * analysis, so the types that dominate the analysis time can be found.
+ * <p/>
+ * Only collected when the {@value #ENABLED_PROPERTY} system property is set to {@code true}, otherwise every method returns
+ * right away. When the analysis ends, the {@value #TOP_PROPERTY} types with the highest time are logged, 20 by default. The time
+ * spent by Revapi itself comparing the types is not included.
+ *
+ * @since 1.10
+ */
+public final class TypeProfile {
+
+  /**
+   * System property enabling the profile.
+   */
+  public static final String ENABLED_PROPERTY = "mule.revapi.profile";
+
+  /**
+   * System property with the number of types logged.
+   */
+  public static final String TOP_PROPERTY = "mule.revapi.profile.top";
+
+  private static final Logger LOG = LoggerFactory.getLogger(TypeProfile.class);
+
+  static final int FILTER_NANOS = 0;
+  static final int TRANSFORM_NANOS = 1;
+  static final int DIFFERENCES = 2;
+  static final int ACCEPTED = 3;
+
+  private static final int DEFAULT_TOP = 20;
+
+  private final boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+  private final String name;
+  private final Map<String, long[]> types = new HashMap<>();
+
+  /**
+   * @param name identifies the analysis in the output
+   */
+  TypeProfile(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return true if the profile is collected
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Attributes the time the filter spent on an element since the given instant to its top-level type.
+   *
+   * @param element    element the filter decided on
+   * @param startNanos value of {@link System#nanoTime()} when the filter started with the element
+   */
+  public void filtered(Element element, long startNanos) {
+    if (enabled) {
+      add(element, FILTER_NANOS, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * Attributes the time a transform spent on a difference since the given instant to the top-level type of its elements.
+   *
+   * @param oldElement old element of the difference. Can be null.
+   * @param newElement new element of the difference. Can be null.
+   * @param startNanos value of {@link System#nanoTime()} when the transform started with the difference
+   */
+  public void transformed(Element oldElement, Element newElement, long startNanos) {
+    if (enabled) {
+      add(newElement != null ? newElement : oldElement, TRANSFORM_NANOS, System.nanoTime() - startNanos);
+    }
+  }
+
+  /**
+   * @param report report that reached the reporters
+   */
+  void reported(Report report) {
+    add(report, DIFFERENCES);
+  }
+
+  /**
+   * @param report difference accepted by a Mule API annotation transform
+   */
+  void accepted(Report report) {
+    add(report, ACCEPTED);
+  }
+
+  private void add(Report report, int counter) {
+    if (enabled) {
+      add(report.getNewElement() != null ? report.getNewElement() : report.getOldElement(), counter,
+          report.getDifferences().size());
+    }
+  }
+
+  private void add(Element element, int counter, long value) {
+    add(getTopLevelTypeName(element), counter, value);
+  }
+
+  /**
+   * @param type    canonical name of a top-level type. Can be null.
+   * @param counter counter of the type to add to
+   * @param value   nanoseconds or number of differences to add
+   */
+  void add(String type, int counter, long value) {
+    if (type != null) {
+      types.computeIfAbsent(type, t -> new long[4])[counter] += value;
+    }
+  }
+
+  /**
+   * Logs the types with the highest time.
+   */
+  void report() {
+    if (enabled) {
+      LOG.info(String.join(System.lineSeparator(), getTable()));
+    }
+  }
+
+  /**
+   * @return lines of the table of the types with the highest time, sorted by time and then by name
+   */
+  List<String> getTable() {
+    List<Map.Entry<String, long[]>> top = new ArrayList<>(types.entrySet());
+    top.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> getTotalNanos(e.getValue())).reversed()
+        .thenComparing(Map.Entry::getKey));
+    top = top.subList(0, Math.min(Integer.getInteger(TOP_PROPERTY, DEFAULT_TOP), top.size()));
+
+    List<String> lines = new ArrayList<>();
+    lines.add("Most expensive types of " + name + ", out of " + types.size() + " profiled:");
+    lines.add(String.format("  %10s %10s %10s %8s %8s  %s", "total us", "filter us", "transf. us", "diffs", "accepted",
+                            "type"));
+    for (Map.Entry<String, long[]> entry : top) {
+      long[] counters = entry.getValue();
+      lines.add(String.format("  %10d %10d %10d %8d %8d  %s", getTotalNanos(counters) / 1000, counters[FILTER_NANOS] / 1000,
+                              counters[TRANSFORM_NANOS] / 1000, counters[DIFFERENCES], counters[ACCEPTED], entry.getKey()));
+    }
+    return lines;
+  }
+
+  private static long getTotalNanos(long[] counters) {
+    return counters[FILTER_NANOS] + counters[TRANSFORM_NANOS];
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.archive;
+
+import static org.mule.tools.revapi.ModuleExports.MODULE_PROPERTIES;
+
+import static java.io.OutputStream.nullOutputStream;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableSet;
+
+import org.mule.tools.revapi.ModuleExports;
+import org.mule.tools.revapi.classfile.ClassFile;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import org.revapi.Archive;
+
+/**
+ * CRC32 and size of every class entry of an archive, together with the packages the archive exports.
+ * <p/>
+ * The checksums are taken from the zip local file headers, skipping over the entry data. When the archive stream supports
+ * seeking, as file streams do, no entry data is read except for the Mule module descriptor. Archives that do not declare the
+ * checksums in the local headers are read entry by entry instead.
+ *
+ * @since 1.10
+ */
+public final class ArchiveEntries {
+
+  private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+  private static final int LOCAL_FILE_HEADER_LENGTH = 30;
+  private static final int DATA_DESCRIPTOR_FLAG = 0x08;
+  private static final int STORED = 0;
+  private static final int DEFLATED = 8;
+  private static final long ZIP64_MARKER = 0xFFFFFFFFL;
+
+  private final ModuleExports exports;
+  private final Map<String, Long> checksums;
+  private String fingerprint;
+
+  private ArchiveEntries(ModuleExports exports, Map<String, Long> checksums) {
+    this.exports = exports;
+    this.checksums = checksums;
+  }
+
+  /**
+   * Reads the entries of an archive.
+   *
+   * @param archive archive to read
+   * @return the entries of the archive
+   * @throws IOException if the archive cannot be read as a jar
+   */
+  public static ArchiveEntries read(Archive archive) throws IOException {
+    ArchiveEntries entries;
+    try (InputStream is = archive.openStream()) {
+      entries = readLocalHeaders(is);
+    }
+    if (entries == null) {
+      try (InputStream is = archive.openStream()) {
+        entries = readEntries(is);
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * @return packages exported by the archive
+   */
+  public ModuleExports getExports() {
+    return exports;
+  }
+
+  /**
+   * @return internal names of the classes in the archive
+   */
+  public Set<String> getClassNames() {
+    return unmodifiableSet(checksums.keySet());
+  }
+
+  /**
+   * @param internalName internal name of a class
+   * @return the CRC32 of the class entry in the upper 32 bits and its uncompressed size in the lower ones, or null if the
+   *         archive does not contain the class
+   */
+  public Long getChecksum(String internalName) {
+    return checksums.get(internalName);
+  }
+
+  /**
+   * @return SHA-256 of the exports and of the names and checksums of the class entries, as an hexadecimal string. Archives with
+   *         the same fingerprint have the same classes and exports, whatever their name.
+   */
+  public synchronized String getFingerprint() {
+    if (fingerprint == null) {
+      MessageDigest digest;
+      try {
+        digest = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+      StringBuilder content = new StringBuilder();
+      content.append(new TreeSet<>(exports.getStandardPackages())).append(';');
+      content.append(new TreeSet<>(exports.getPrivilegedPackages())).append(';');
+      new TreeMap<>(checksums).forEach((name, checksum) -> content.append(name).append('=').append(checksum).append(';'));
+      fingerprint = HexFormat.of().formatHex(digest.digest(content.toString().getBytes(UTF_8)));
+    }
+    return fingerprint;
+  }
+
+  /**
+   * @return checksums of the class entries of the archive, keyed by internal class name
+   */
+  Map<String, Long> getChecksums() {
+    return checksums;
+  }
+
+  /**
+   * @return the entries, or null if some entry does not declare its checksum in the local file header
+   */
+  private static ArchiveEntries readLocalHeaders(InputStream archiveStream) throws IOException {
+    InputStream is = new BufferedInputStream(archiveStream);
+    ModuleExports exports = ModuleExports.NONE;
+    Map<String, Long> checksums = new HashMap<>();
+    byte[] header = new byte[LOCAL_FILE_HEADER_LENGTH];
+
+    while (is.readNBytes(header, 0, LOCAL_FILE_HEADER_LENGTH) == LOCAL_FILE_HEADER_LENGTH
+        && readInt(header, 0) == LOCAL_FILE_HEADER_SIGNATURE) {
+      int flags = readShort(header, 6);
+      int method = readShort(header, 8);
+      long crc = readInt(header, 14) & 0xFFFFFFFFL;
+      long compressedSize = readInt(header, 18) & 0xFFFFFFFFL;
+      long size = readInt(header, 22) & 0xFFFFFFFFL;
+      String name = new String(is.readNBytes(readShort(header, 26)), UTF_8);
+      is.skipNBytes(readShort(header, 28));
+
+      if ((flags & DATA_DESCRIPTOR_FLAG) != 0 || compressedSize == ZIP64_MARKER || size == ZIP64_MARKER) {
+        return null;
+      }
+
+      if (name.equals(MODULE_PROPERTIES)) {
+        exports = ModuleExports.read(new ByteArrayInputStream(readData(is, method, (int) compressedSize, (int) size)));
+      } else {
+        is.skipNBytes(compressedSize);
+        String internalName = ClassFile.toInternalName(name);
+        if (internalName != null) {
+          checksums.putIfAbsent(internalName, crc << 32 | size);
+        }
+      }
+    }
+
+    return new ArchiveEntries(exports, checksums);
+  }
+
+  private static ArchiveEntries readEntries(InputStream archiveStream) throws IOException {
+    ModuleExports exports = ModuleExports.NONE;
+    Map<String, Long> checksums = new HashMap<>();
+
+    try (JarInputStream jarFile = new JarInputStream(archiveStream)) {
+      JarEntry entry;
+      while ((entry = jarFile.getNextJarEntry()) != null) {
+        String name = entry.getName();
+        if (name.equals(MODULE_PROPERTIES)) {
+          exports = ModuleExports.read(new ByteArrayInputStream(jarFile.readAllBytes()));
+        } else {
+          String internalName = ClassFile.toInternalName(name);
+          if (internalName != null) {
+            // Checksums are only known once the entry has been read
+            jarFile.transferTo(nullOutputStream());
+            checksums.putIfAbsent(internalName, entry.getCrc() << 32 | entry.getSize());
+          }
+        }
+      }
+    }
+
+    return new ArchiveEntries(exports, checksums);
+  }
+
+  private static byte[] readData(InputStream is, int method, int compressedSize, int size) throws IOException {
+    byte[] data = is.readNBytes(compressedSize);
+    if (method == STORED) {
+      return data;
+    } else if (method != DEFLATED) {
+      throw new ZipException("Unsupported compression method " + method);
+    }
+
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(data);
+      byte[] inflated = new byte[size];
+      int length = 0;
+      while (length < size && !inflater.finished()) {
+        int read = inflater.inflate(inflated, length, size - length);
+        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        length += read;
+      }
+      return inflated;
+    } catch (DataFormatException e) {
+      throw new ZipException(e.getMessage());
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static int readShort(byte[] bytes, int offset) {
+    return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8;
+  }
+
+  private static int readInt(byte[] bytes, int offset) {
+    return readShort(bytes, offset) | readShort(bytes, offset + 2) << 16;
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.archive;
+
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.Files.isRegularFile;
+import static java.nio.file.Files.readAllBytes;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.revapi.Archive;
+
+/**
+ * Archive whose content is held in memory, so it can be analyzed many times without reading it again.
+ * <p/>
+ * Directories, like the output directory of a compilation, are packed into a jar when the archive is created. Jar files remember
+ * the path and modification time they were loaded from, so caches can recognize them without reading their content.
+ *
+ * @since 1.10
+ */
+public final class InMemoryArchive implements Archive {
+
+  private final String name;
+  private final byte[] content;
+  private final Path source;
+  private final FileTime sourceLastModified;
+
+  private InMemoryArchive(String name, byte[] content, Path source, FileTime sourceLastModified) {
+    this.name = name;
+    this.content = content;
+    this.source = source;
+    this.sourceLastModified = sourceLastModified;
+  }
+
+  /**
+   * Loads a jar file or a directory.
+   *
+   * @param path jar file or directory to load
+   * @return the loaded archive
+   * @throws IOException if the path cannot be read
+   */
+  public static InMemoryArchive of(Path path) throws IOException {
+    if (isDirectory(path)) {
+      return new InMemoryArchive(path.toString(), pack(path), null, null);
+    }
+    // Read before the content, so a jar rewritten while it is loaded never gets the time of its new content
+    FileTime lastModified = Files.getLastModifiedTime(path);
+    return new InMemoryArchive(path.getFileName().toString(), readAllBytes(path), path.toAbsolutePath(), lastModified);
+  }
+
+  /**
+   * @return absolute path of the jar file the archive was loaded from, or null if it was packed from a directory
+   */
+  public Path getSource() {
+    return source;
+  }
+
+  /**
+   * @return modification time of the jar file when the archive was loaded from it, or null if it was packed from a directory
+   */
+  public FileTime getSourceLastModified() {
+    return sourceLastModified;
+  }
+
+  /**
+   * @return size of the content of the archive, in bytes
+   */
+  public long getSize() {
+    return content.length;
+  }
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public InputStream openStream() {
+    return new ByteArrayInputStream(content);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+
+  private static byte[] pack(Path directory) throws IOException {
+    List<Path> files;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      files = walk.filter(file -> isRegularFile(file)).sorted().collect(Collectors.toList());
+    }
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ZipOutputStream jar = new ZipOutputStream(bytes)) {
+      for (Path file : files) {
+        jar.putNextEntry(new ZipEntry(directory.relativize(file).toString().replace('\\', '/')));
+        jar.write(readAllBytes(file));
+        jar.closeEntry();
+      }
+    }
+    return bytes.toByteArray();
+  }
+}
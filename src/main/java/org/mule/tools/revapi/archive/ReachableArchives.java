@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.archive;
+
+import org.mule.tools.revapi.classfile.ApiReferences;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassFileReader;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.revapi.API;
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Selects the supplementary archives that contain types reachable from the exported API of a Mule module, so the rest can be
+ * left out of the analysis.
+ * <p/>
+ * Starting from the classes of the exported packages, the {@link ApiReferences API surface} of every type reached is followed,
+ * through the primary archives and the supplementary ones alike, so the supertypes and signatures of supplementary types are
+ * reached too. Supplementary archives are indexed by their entry names, and only the archives holding a type reached are read.
+ * When several archives contain a type, the first one is used, as the analysis does. Archives that cannot be indexed are kept.
+ *
+ * @since 1.10
+ */
+public final class ReachableArchives {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReachableArchives.class);
+
+  private final ClassPool pool;
+  private final List<Archive> supplementaryArchives;
+  private final Map<String, Integer> owners = new HashMap<>();
+  private final List<Map<String, byte[]>> classes = new ArrayList<>();
+  private final boolean[] reachable;
+
+  private ReachableArchives(Iterable<? extends Archive> archives, List<Archive> supplementaryArchives) {
+    this.pool = ClassPool.of(API.of(archives).build());
+    this.supplementaryArchives = supplementaryArchives;
+    this.reachable = new boolean[supplementaryArchives.size()];
+  }
+
+  /**
+   * @param archives              primary archives of a version of a Mule module
+   * @param supplementaryArchives dependencies of the module, in lookup order
+   * @return the supplementary archives that contain types reachable from the exported API of the module, in the same order
+   */
+  public static List<Archive> select(Iterable<? extends Archive> archives, List<Archive> supplementaryArchives) {
+    return new ReachableArchives(archives, supplementaryArchives).select();
+  }
+
+  private List<Archive> select() {
+    for (int i = 0; i < supplementaryArchives.size(); i++) {
+      classes.add(null);
+      try {
+        for (String name : ArchiveEntries.read(supplementaryArchives.get(i)).getClassNames()) {
+          owners.putIfAbsent(name, i);
+        }
+      } catch (IOException e) {
+        LOG.debug("Failed to index the archive " + supplementaryArchives.get(i) + ", keeping it", e);
+        reachable[i] = true;
+      }
+    }
+
+    Set<String> reached = new HashSet<>(pool.getExportedClassNames());
+    Deque<String> pending = new ArrayDeque<>(reached);
+    while (!pending.isEmpty()) {
+      ClassFile classFile = find(pending.poll());
+      if (classFile != null) {
+        ApiReferences.forEach(classFile, name -> {
+          if (reached.add(name)) {
+            pending.add(name);
+          }
+        });
+      }
+    }
+
+    List<Archive> selected = new ArrayList<>();
+    for (int i = 0; i < supplementaryArchives.size(); i++) {
+      if (reachable[i]) {
+        selected.add(supplementaryArchives.get(i));
+      }
+    }
+    return selected;
+  }
+
+  private ClassFile find(String internalName) {
+    if (pool.isPrimary(internalName)) {
+      return pool.find(internalName);
+    }
+
+    Integer owner = owners.get(internalName);
+    if (owner == null) {
+      // Part of the JDK, or missing
+      return null;
+    }
+    reachable[owner] = true;
+    if (classes.get(owner) == null) {
+      classes.set(owner, ClassPool.readClasses(supplementaryArchives.get(owner)));
+    }
+    byte[] bytes = classes.get(owner).get(internalName);
+    return bytes == null ? null : ClassFileReader.read(bytes);
+  }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.archive;
+
+import org.mule.tools.revapi.ModuleExports;
+import org.mule.tools.revapi.cache.ReactorCache;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.revapi.API;
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects that two versions of a module cannot have API changes because every class of their exported packages is
+ * byte-identical, comparing only the CRC32 and size of the archive entries.
+ * <p/>
+ * Identical class files are not enough on their own, as an exported class also exposes the members it inherits. When some
+ * non-exported class of the module changed, the supertypes of the exported classes are resolved from the new version and none
+ * of them can be one of the changed classes. Supertypes from other archives are trusted only when the supplementary archives
+ * of both versions have the same class entries, in the same order, so a rebuilt dependency that kept its name, such as a
+ * SNAPSHOT, is not trusted.
+ *
+ * @since 1.10
+ */
+public final class UnchangedExportsCheck {
+
+  private static final Logger LOG = LoggerFactory.getLogger(UnchangedExportsCheck.class);
+
+  private UnchangedExportsCheck() {}
+
+  /**
+   * @param oldApi       old version of the module
+   * @param newApi       new version of the module
+   * @param reactorCache cache remembering the fingerprints of the supplementary archives, or null to compute them
+   * @return true if the exported API of both versions is guaranteed to be the same, false if it may differ
+   */
+  public static boolean isUnchanged(API oldApi, API newApi, ReactorCache reactorCache) {
+    ModuleEntries oldEntries;
+    ModuleEntries newEntries;
+    try {
+      oldEntries = ModuleEntries.of(oldApi);
+      newEntries = ModuleEntries.of(newApi);
+    } catch (IOException e) {
+      LOG.debug("Failed to read the archive entries, the exported classes are considered changed.", e);
+      return false;
+    }
+
+    if (!oldEntries.exports.equals(newEntries.exports)) {
+      LOG.debug("Exported packages changed");
+      return false;
+    }
+
+    Set<String> changedInternalClasses = new HashSet<>();
+    Set<String> classNames = new HashSet<>(oldEntries.checksums.keySet());
+    classNames.addAll(newEntries.checksums.keySet());
+    for (String className : classNames) {
+      if (!Objects.equals(oldEntries.checksums.get(className), newEntries.checksums.get(className))) {
+        if (newEntries.exports.isExported(ClassFile.getPackageName(className))) {
+          LOG.debug("Exported class {} changed", className);
+          return false;
+        }
+        changedInternalClasses.add(className);
+      }
+    }
+
+    boolean sameSupplementaryArchives = haveSameClasses(oldApi.getSupplementaryArchives(), newApi.getSupplementaryArchives(),
+                                                        reactorCache);
+    if (changedInternalClasses.isEmpty() && sameSupplementaryArchives) {
+      return true;
+    }
+
+    return !extendsChangedClass(ClassPool.of(newApi), changedInternalClasses, sameSupplementaryArchives);
+  }
+
+  private static boolean extendsChangedClass(ClassPool pool, Set<String> changedInternalClasses,
+                                             boolean sameSupplementaryArchives) {
+    Deque<String> pending = new ArrayDeque<>(pool.getExportedClassNames());
+    Set<String> visited = new HashSet<>(pending);
+
+    while (!pending.isEmpty()) {
+      String className = pending.pop();
+      if (changedInternalClasses.contains(className)) {
+        LOG.debug("Exported classes inherit from the changed class {}", className);
+        return true;
+      }
+      if (!pool.isPrimary(className)) {
+        if (!sameSupplementaryArchives && !isPlatformClass(className)) {
+          LOG.debug("Exported classes inherit from {}, which may have changed along with the dependencies", className);
+          return true;
+        }
+        continue;
+      }
+
+      ClassFile classFile = pool.find(className);
+      if (classFile.getSuperName() != null && visited.add(classFile.getSuperName())) {
+        pending.push(classFile.getSuperName());
+      }
+      for (String interfaceName : classFile.getInterfaces()) {
+        if (visited.add(interfaceName)) {
+          pending.push(interfaceName);
+        }
+      }
+    }
+
+    return false;
+  }
+
+  private static boolean isPlatformClass(String internalName) {
+    return internalName.startsWith("java/") || internalName.startsWith("javax/");
+  }
+
+  private static boolean haveSameClasses(Iterable<? extends Archive> oldArchives, Iterable<? extends Archive> newArchives,
+                                         ReactorCache reactorCache) {
+    try {
+      return getFingerprints(oldArchives, reactorCache).equals(getFingerprints(newArchives, reactorCache));
+    } catch (IOException e) {
+      LOG.debug("Failed to read the supplementary archives, they are considered changed.", e);
+      return false;
+    }
+  }
+
+  private static List<String> getFingerprints(Iterable<? extends Archive> archives, ReactorCache reactorCache)
+      throws IOException {
+    List<String> fingerprints = new ArrayList<>();
+    if (archives != null) {
+      for (Archive archive : archives) {
+        fingerprints.add(reactorCache != null ? reactorCache.getFingerprint(archive)
+            : ArchiveEntries.read(archive).getFingerprint());
+      }
+    }
+    return fingerprints;
+  }
+
+  /**
+   * Merged entries of the primary archives of an API.
+   */
+  private static final class ModuleEntries {
+
+    private ModuleExports exports = ModuleExports.NONE;
+    private final Map<String, Long> checksums = new HashMap<>();
+
+    private static ModuleEntries of(API api) throws IOException {
+      ModuleEntries moduleEntries = new ModuleEntries();
+      for (Archive archive : api.getArchives()) {
+        ArchiveEntries entries = ArchiveEntries.read(archive);
+        moduleEntries.exports = moduleEntries.exports.merge(entries.getExports());
+        entries.getChecksums().forEach(moduleEntries.checksums::putIfAbsent);
+      }
+      return moduleEntries;
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index of archives shared by every process of a machine through a memory mapped, append-only file.
+ * <p/>
+ * Each record holds the entries of one archive, keyed by its fingerprint, sorted so a lookup is a binary search over the mapped
+ * file and nothing but the offset of the records is copied into the heap. Records are never modified once written, so readers
+ * do not take any lock: they only trust the records whose checksum matches, and map the file again when they need a record
+ * written after they last looked. Writers append under an exclusive file lock, which also serializes the processes sharing the
+ * file.
+ * <p/>
+ * The file starts with a magic number and a format version, followed by the records:
+ *
+ * <pre>
+ * record  := length:int crc32:int payload
+ * payload := fingerprintLength:short fingerprint count:int entryOffset:int[count] entry[count]
+ * entry   := keyLength:short key valueLength:int value
+ * </pre>
+ *
+ * Entry offsets are relative to the start of the payload, and entries are sorted by the unsigned bytes of their UTF-8 key.
+ *
+ * @since 1.10
+ */
+final class ArchiveIndex implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ArchiveIndex.class);
+
+  private static final int MAGIC = 0x4D525649;
+  private static final int VERSION = 1;
+  private static final int FILE_HEADER_LENGTH = 8;
+  private static final int RECORD_HEADER_LENGTH = 8;
+
+  private final Path file;
+  private final FileChannel channel;
+  private final Map<String, Integer> records = new ConcurrentHashMap<>();
+  private volatile ByteBuffer buffer;
+  private int validLength;
+
+  private ArchiveIndex(Path file, FileChannel channel) {
+    this.file = file;
+    this.channel = channel;
+  }
+
+  /**
+   * Opens an index, creating the file if it does not exist.
+   *
+   * @param file index file
+   * @return the index
+   * @throws IOException if the file cannot be opened or is not an index of this version
+   */
+  static ArchiveIndex open(Path file) throws IOException {
+    if (file.getParent() != null) {
+      Files.createDirectories(file.getParent());
+    }
+    FileChannel channel = FileChannel.open(file, CREATE, READ, WRITE);
+    ArchiveIndex index = new ArchiveIndex(file, channel);
+    try {
+      synchronized (index) {
+        try (FileLock lock = channel.lock()) {
+          if (channel.size() < FILE_HEADER_LENGTH) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_LENGTH).putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+          }
+          index.refresh();
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    return index;
+  }
+
+  /**
+   * @param fingerprint fingerprint of an archive
+   * @return true if the index has a record for the archive
+   */
+  boolean contains(String fingerprint) {
+    if (records.containsKey(fingerprint)) {
+      return true;
+    }
+    try {
+      // Another process may have added it since the file was mapped
+      synchronized (this) {
+        refresh();
+      }
+    } catch (IOException e) {
+      LOG.debug("Failed to read the archive index " + file, e);
+    }
+    return records.containsKey(fingerprint);
+  }
+
+  /**
+   * @param fingerprint fingerprint of an archive the index {@link #contains(String) contains}
+   * @param key         key of the entry
+   * @return the value of the entry, or null if the record of the archive has no such entry
+   */
+  byte[] get(String fingerprint, String key) {
+    Integer payload = records.get(fingerprint);
+    if (payload == null) {
+      return null;
+    }
+
+    ByteBuffer mapped = buffer;
+    byte[] searchedKey = key.getBytes(UTF_8);
+    int entryOffsets = payload + 2 + (mapped.getShort(payload) & 0xFFFF) + 4;
+    int low = 0;
+    int high = mapped.getInt(entryOffsets - 4) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int entry = payload + mapped.getInt(entryOffsets + middle * 4);
+      int comparison = compareKey(mapped, entry, searchedKey);
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        int value = entry + 2 + (mapped.getShort(entry) & 0xFFFF);
+        byte[] bytes = new byte[mapped.getInt(value)];
+        mapped.get(value + 4, bytes);
+        return bytes;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Adds the record of an archive, unless some process already did.
+   *
+   * @param fingerprint fingerprint of the archive
+   * @param entries     entries of the record
+   */
+  synchronized void add(String fingerprint, Map<String, byte[]> entries) {
+    ByteBuffer record = encode(fingerprint, entries);
+    try (FileLock lock = channel.lock()) {
+      refresh();
+      if (records.containsKey(fingerprint)) {
+        return;
+      }
+      if ((long) validLength + record.remaining() > Integer.MAX_VALUE) {
+        LOG.debug("Archive index " + file + " is full, not adding archive " + fingerprint);
+        return;
+      }
+
+      // Overwrites whatever a process that died while writing left after the last complete record. The file is never truncated,
+      // other processes may have that part mapped.
+      long position = validLength;
+      while (record.hasRemaining()) {
+        position += channel.write(record, position);
+      }
+      channel.force(false);
+      refresh();
+    } catch (IOException | OverlappingFileLockException e) {
+      LOG.debug("Failed to add archive " + fingerprint + " to the archive index " + file, e);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private void refresh() throws IOException {
+    long size = channel.size();
+    if (buffer != null && size == validLength) {
+      return;
+    }
+
+    ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+    if (validLength == 0) {
+      if (mapped.capacity() < FILE_HEADER_LENGTH || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+        throw new IOException(file + " is not an archive index of version " + VERSION);
+      }
+      validLength = FILE_HEADER_LENGTH;
+    }
+
+    Map<String, Integer> newRecords = new HashMap<>();
+    int position = validLength;
+    while (position + RECORD_HEADER_LENGTH <= mapped.capacity()) {
+      int length = mapped.getInt(position);
+      int payload = position + RECORD_HEADER_LENGTH;
+      if (length < 0 || payload + (long) length > mapped.capacity()
+          || checksum(mapped, payload, length) != mapped.getInt(position + 4)) {
+        // Either being written by another process or left incomplete, records after it are not valid yet
+        break;
+      }
+      byte[] fingerprint = new byte[mapped.getShort(payload) & 0xFFFF];
+      mapped.get(payload + 2, fingerprint);
+      newRecords.putIfAbsent(new String(fingerprint, UTF_8), payload);
+      position = payload + length;
+    }
+    validLength = position;
+    // Publishes the new mapping before the records that need it
+    buffer = mapped;
+    newRecords.forEach(records::putIfAbsent);
+  }
+
+  private static ByteBuffer encode(String fingerprint, Map<String, byte[]> entries) {
+    byte[] fingerprintBytes = fingerprint.getBytes(UTF_8);
+    byte[][] keys = new byte[entries.size()][];
+    byte[][] values = new byte[entries.size()][];
+    int i = 0;
+    for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+      keys[i] = entry.getKey().getBytes(UTF_8);
+      values[i] = entry.getValue();
+      i++;
+    }
+    Integer[] order = new Integer[keys.length];
+    Arrays.setAll(order, index -> index);
+    // Lookups compare the UTF-8 bytes, which do not sort like the strings outside of ASCII
+    Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys[a], keys[b]));
+
+    int headerLength = 2 + fingerprintBytes.length + 4 + keys.length * 4;
+    int payloadLength = headerLength;
+    for (i = 0; i < keys.length; i++) {
+      payloadLength += 2 + keys[i].length + 4 + values[i].length;
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + payloadLength);
+    record.putInt(payloadLength).putInt(0);
+    record.putShort((short) fingerprintBytes.length).put(fingerprintBytes).putInt(keys.length);
+    int entryOffset = headerLength;
+    for (int index : order) {
+      record.putInt(entryOffset);
+      entryOffset += 2 + keys[index].length + 4 + values[index].length;
+    }
+    for (int index : order) {
+      record.putShort((short) keys[index].length).put(keys[index]).putInt(values[index].length).put(values[index]);
+    }
+    record.putInt(4, checksum(record, RECORD_HEADER_LENGTH, payloadLength));
+    return record.flip();
+  }
+
+  private static int compareKey(ByteBuffer mapped, int entry, byte[] searchedKey) {
+    int length = mapped.getShort(entry) & 0xFFFF;
+    for (int i = 0; i < Math.min(length, searchedKey.length); i++) {
+      int comparison = Integer.compare(mapped.get(entry + 2 + i) & 0xFF, searchedKey[i] & 0xFF);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return Integer.compare(length, searchedKey.length);
+  }
+
+  private static int checksum(ByteBuffer buffer, int offset, int length) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.slice(offset, length));
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,323 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import static java.util.Collections.unmodifiableMap;
+
+import org.mule.tools.revapi.archive.ArchiveEntries;
+import org.mule.tools.revapi.archive.InMemoryArchive;
+import org.mule.tools.revapi.classfile.ClassDeclarations;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.revapi.Archive;
+import org.revapi.base.FileArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Classes of the supplementary archives, shared by every analysis of the same Maven build.
+ * <p/>
+ * Revapi creates new extension instances for each module of a reactor, but all of them are loaded by the classloader of the
+ * Revapi Maven plugin, which lives for the whole build. When the {@value #ENABLED_PROPERTY} system property is set to
+ * {@code true}, this cache keeps the dependencies of the modules in that classloader, so each of them is only read once per
+ * build instead of once per module. It holds:
+ * <ul>
+ * <li>the classes of each supplementary archive, keyed by the fingerprint of its class entries,</li>
+ * <li>the classes that none of the supplementary archives of an analysis contain, such as the JDK ones, so looking them up again
+ * does not read every archive,</li>
+ * <li>results computed only from supplementary classes, such as the Mule API annotations they inherit.</li>
+ * </ul>
+ * An archive is identified by the fingerprint of its content and not by its name, so a rebuilt archive is read again. The
+ * fingerprint of a jar file is only computed again when its path, size or modification time changed. The classes in memory are
+ * bounded by {@value #MAX_SIZE_PROPERTY} megabytes, evicting the least recently used archives first. {@link #invalidate()}
+ * drops everything.
+ * <p/>
+ * When the {@value #INDEX_FILE_PROPERTY} system property points to a file, the declarations of the classes of each archive are
+ * also stored in an {@link ArchiveIndex} shared with the other processes of the machine, such as the other builds of a CI agent.
+ * Lookups of classes an indexed archive does not contain never read it, and walking the hierarchy of a supplementary class only
+ * reads the index.
+ *
+ * @since 1.10
+ */
+public final class ReactorCache {
+
+  /**
+   * System property enabling the cache.
+   */
+  public static final String ENABLED_PROPERTY = "mule.revapi.reactorCache";
+
+  /**
+   * System property with the maximum size, in megabytes, of the classes kept by the cache.
+   */
+  public static final String MAX_SIZE_PROPERTY = "mule.revapi.reactorCache.maxSize";
+
+  /**
+   * System property with the path of the archive index file shared by the processes of the machine.
+   */
+  public static final String INDEX_FILE_PROPERTY = "mule.revapi.reactorCache.indexFile";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ReactorCache.class);
+
+  private static final long DEFAULT_MAX_SIZE_MB = 256;
+  private static final int MAX_SUPPLEMENTARY_SETS = 64;
+  private static final int MAX_FINGERPRINTS = 4096;
+
+  private static ReactorCache instance;
+  // Kept across invalidations, the records of an index never go stale and a file can only be locked once per process
+  private static final Map<Path, ArchiveIndex> indexes = new HashMap<>();
+
+  private final long maxSize;
+  private final ArchiveIndex index;
+  private final Map<String, Map<String, byte[]>> archiveClasses = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Long> archiveSizes = new LinkedHashMap<>();
+  private final Map<String, SupplementaryResults> supplementaryResults = new LinkedHashMap<>(16, 0.75f, true);
+  // Keyed by path, size and modification time of the jar files
+  private final Map<String, String> fingerprints = new LinkedHashMap<>(16, 0.75f, true) {
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > MAX_FINGERPRINTS;
+    }
+  };
+  private long size;
+  private int hits;
+  private int misses;
+
+  ReactorCache(long maxSize, ArchiveIndex index) {
+    this.maxSize = maxSize;
+    this.index = index;
+  }
+
+  /**
+   * @return the cache of the current build, or null if it is not enabled
+   */
+  public static synchronized ReactorCache getInstance() {
+    if (!Boolean.getBoolean(ENABLED_PROPERTY)) {
+      return null;
+    }
+    if (instance == null) {
+      instance = create();
+    }
+    return instance;
+  }
+
+  /**
+   * Creates a cache owned by the caller, independent of the one of the build and of the {@value #ENABLED_PROPERTY} system
+   * property. Used by processes that run many analyses, such as an {@link org.mule.tools.revapi.embedded.ApiChecker}, which
+   * hand it to their analyses through the {@link org.mule.tools.revapi.AnalysisSession}.
+   *
+   * @return the cache, bounded by {@value #MAX_SIZE_PROPERTY} and backed by the archive index of {@value #INDEX_FILE_PROPERTY}
+   */
+  public static synchronized ReactorCache create() {
+    return new ReactorCache(Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE_MB) * 1024 * 1024, openIndex());
+  }
+
+  /**
+   * Drops every cached archive and result. The next analysis starts with an empty cache.
+   */
+  public static synchronized void invalidate() {
+    if (instance != null) {
+      LOG.debug("Invalidating " + instance);
+      instance = null;
+    }
+  }
+
+  private static ArchiveIndex openIndex() {
+    String indexFile = System.getProperty(INDEX_FILE_PROPERTY);
+    if (indexFile == null) {
+      return null;
+    }
+
+    Path path = Paths.get(indexFile).toAbsolutePath();
+    ArchiveIndex index = indexes.get(path);
+    if (index == null) {
+      try {
+        index = ArchiveIndex.open(path);
+        indexes.put(path, index);
+      } catch (IOException e) {
+        LOG.warn("Cannot use the archive index " + path + ", running without it: " + e.getMessage());
+      }
+    }
+    return index;
+  }
+
+  /**
+   * @return the index shared with other processes, or null if there is none
+   */
+  ArchiveIndex getIndex() {
+    return index;
+  }
+
+  /**
+   * @param archives supplementary archives of an API, in lookup order
+   * @return the classes of the archives, backed by this cache
+   */
+  public SupplementaryClasses getSupplementaryClasses(List<Archive> archives) {
+    return new SupplementaryClasses(this, archives);
+  }
+
+  /**
+   * @param archive a supplementary archive
+   * @return fingerprint of the class entries of the archive, only read from its content the first time the archive is seen with
+   *         its current size and modification time
+   * @throws IOException if the archive cannot be read as a jar
+   */
+  public String getFingerprint(Archive archive) throws IOException {
+    String stamp = getStamp(archive);
+    if (stamp != null) {
+      synchronized (this) {
+        String fingerprint = fingerprints.get(stamp);
+        if (fingerprint != null) {
+          return fingerprint;
+        }
+      }
+    }
+
+    String fingerprint = ArchiveEntries.read(archive).getFingerprint();
+    if (stamp != null) {
+      synchronized (this) {
+        fingerprints.put(stamp, fingerprint);
+      }
+    }
+    return fingerprint;
+  }
+
+  /**
+   * @return path, size and modification time of the jar file of the archive, or null if it does not come from one
+   */
+  private static String getStamp(Archive archive) throws IOException {
+    if (archive instanceof InMemoryArchive) {
+      InMemoryArchive inMemoryArchive = (InMemoryArchive) archive;
+      if (inMemoryArchive.getSource() == null) {
+        return null;
+      }
+      return inMemoryArchive.getSource() + ":" + inMemoryArchive.getSize() + ":"
+          + inMemoryArchive.getSourceLastModified().toMillis();
+    }
+    if (archive instanceof FileArchive) {
+      Path path = ((FileArchive) archive).getFile().toPath().toAbsolutePath();
+      if (!Files.isRegularFile(path)) {
+        return null;
+      }
+      BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      return path + ":" + attributes.size() + ":" + attributes.lastModifiedTime().toMillis();
+    }
+    return null;
+  }
+
+  /**
+   * @param fingerprint fingerprint of the archive
+   * @param archive     archive to read if it is not cached
+   * @return the classes of the archive, keyed by internal name
+   */
+  Map<String, byte[]> getClasses(String fingerprint, Archive archive) {
+    synchronized (this) {
+      Map<String, byte[]> classes = archiveClasses.get(fingerprint);
+      if (classes != null) {
+        hits++;
+        return classes;
+      }
+      misses++;
+    }
+
+    // Read outside of the lock, so parallel builds do not wait for each other
+    Map<String, byte[]> classes = unmodifiableMap(ClassPool.readClasses(archive));
+    long classesSize = classes.values().stream().mapToLong(bytes -> bytes.length).sum();
+    if (index != null && !index.contains(fingerprint)) {
+      index.add(fingerprint, ClassDeclarations.of(classes));
+    }
+
+    synchronized (this) {
+      if (!archiveClasses.containsKey(fingerprint)) {
+        archiveClasses.put(fingerprint, classes);
+        archiveSizes.put(fingerprint, classesSize);
+        size += classesSize;
+        evict(fingerprint);
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * @param key identifies a list of supplementary archives by their fingerprints
+   * @return the results shared by the analyses of those archives
+   */
+  synchronized SupplementaryResults getResults(String key) {
+    SupplementaryResults results = supplementaryResults.get(key);
+    if (results == null) {
+      results = new SupplementaryResults();
+      supplementaryResults.put(key, results);
+      if (supplementaryResults.size() > MAX_SUPPLEMENTARY_SETS) {
+        Iterator<String> eldest = supplementaryResults.keySet().iterator();
+        eldest.next();
+        eldest.remove();
+      }
+    }
+    return results;
+  }
+
+  private void evict(String keptFingerprint) {
+    Iterator<String> fingerprints = archiveClasses.keySet().iterator();
+    while (size > maxSize && fingerprints.hasNext()) {
+      String fingerprint = fingerprints.next();
+      if (!fingerprint.equals(keptFingerprint)) {
+        fingerprints.remove();
+        size -= archiveSizes.remove(fingerprint);
+        LOG.debug("Evicted the classes of archive " + fingerprint + " from the reactor cache");
+      }
+    }
+  }
+
+  /**
+   * Drops every archive and result held by this cache.
+   */
+  public synchronized void clear() {
+    archiveClasses.clear();
+    archiveSizes.clear();
+    supplementaryResults.clear();
+    fingerprints.clear();
+    size = 0;
+  }
+
+  /**
+   * @return number of lookups of the classes of an archive that found them in the cache
+   */
+  synchronized int getHits() {
+    return hits;
+  }
+
+  /**
+   * @return number of lookups of the classes of an archive that had to read it
+   */
+  synchronized int getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return approximate footprint of the cached classes, in bytes
+   */
+  public synchronized long getFootprint() {
+    return size;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "ReactorCache{archives=" + archiveClasses.size() + ", size=" + size / 1024 + " KB of " + maxSize / 1024
+        + " KB, hits=" + hits + ", misses=" + misses + "}";
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import org.mule.tools.revapi.classfile.ClassDeclarations;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Classes of the supplementary archives of an API, read through the {@link ReactorCache}.
+ * <p/>
+ * Only the entry headers of the archives are read when this is created, to compute their fingerprints, and not even those for
+ * the jar files the {@link ReactorCache} already fingerprinted with their current size and modification time. The classes of an
+ * archive are read the first time a lookup reaches it, unless another analysis of the build already did. Archives in the
+ * {@link ArchiveIndex} are only read when they contain the class being looked up.
+ *
+ * @since 1.10
+ */
+public final class SupplementaryClasses {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SupplementaryClasses.class);
+
+  private final ReactorCache cache;
+  private final List<Archive> archives = new ArrayList<>();
+  private final List<String> fingerprints = new ArrayList<>();
+  private final SupplementaryResults results;
+  private final ArchiveIndex index;
+
+  SupplementaryClasses(ReactorCache cache, List<Archive> archives) {
+    this.cache = cache;
+    this.index = cache.getIndex();
+    for (Archive archive : archives) {
+      try {
+        fingerprints.add(cache.getFingerprint(archive));
+        this.archives.add(archive);
+      } catch (IOException e) {
+        LOG.debug("Failed to open the archive " + archive + " as a jar.", e);
+      }
+    }
+    this.results = cache.getResults(String.join(",", fingerprints));
+  }
+
+  /**
+   * @param internalName internal name of a class
+   * @return the content of the class file from the first archive that contains it, or null if none does
+   */
+  public byte[] find(String internalName) {
+    if (results.isMissing(internalName)) {
+      return null;
+    }
+    for (int i = 0; i < archives.size(); i++) {
+      String fingerprint = fingerprints.get(i);
+      if (index != null && index.contains(fingerprint) && index.get(fingerprint, internalName) == null) {
+        continue;
+      }
+      byte[] bytes = cache.getClasses(fingerprint, archives.get(i)).get(internalName);
+      if (bytes != null) {
+        return bytes;
+      }
+    }
+    results.missing(internalName);
+    return null;
+  }
+
+  /**
+   * Finds the declaration of a class in the {@link ArchiveIndex}.
+   *
+   * @param internalName internal name of a class
+   * @return the declaration of the class, as encoded by {@link ClassDeclarations}, from the first archive that contains it. Null
+   *         if none does, or if an archive before it is not indexed yet.
+   */
+  public byte[] findDeclaration(String internalName) {
+    if (index == null || results.isMissing(internalName)) {
+      return null;
+    }
+    for (String fingerprint : fingerprints) {
+      if (!index.contains(fingerprint)) {
+        return null;
+      }
+      byte[] declaration = index.get(fingerprint, internalName);
+      if (declaration != null) {
+        return declaration;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Results computed only from these classes, shared with every analysis with the same supplementary archives.
+   *
+   * @param name name of the results
+   * @return the results, keyed by internal class name
+   */
+  public Map<String, Boolean> getResults(String name) {
+    return results.get(name);
+  }
+}
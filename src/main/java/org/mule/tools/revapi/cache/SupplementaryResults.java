@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What the analyses of the same list of supplementary archives learned about their classes.
+ *
+ * @since 1.10
+ */
+final class SupplementaryResults {
+
+  private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
+  private final Map<String, Map<String, Boolean>> results = new ConcurrentHashMap<>();
+
+  /**
+   * @param internalName internal name of a class
+   * @return true if a previous lookup found that none of the archives contain the class
+   */
+  boolean isMissing(String internalName) {
+    return missingClasses.contains(internalName);
+  }
+
+  /**
+   * @param internalName internal name of a class none of the archives contain
+   */
+  void missing(String internalName) {
+    missingClasses.add(internalName);
+  }
+
+  /**
+   * @param name name of the results
+   * @return the results, keyed by internal class name
+   */
+  Map<String, Boolean> get(String name) {
+    return results.computeIfAbsent(name, n -> new ConcurrentHashMap<>());
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import java.util.Arrays;
+
+/**
+ * Canonical type and package names of a single analysis, mapped to dense int ids.
+ * <p/>
+ * The old and new versions of the API hold their own copies of the names of their types, so a name gets the same id in both of
+ * them, and only its first copy is kept. Extensions key their caches by those ids, in arrays such as {@link Verdicts}, instead
+ * of keeping more copies of the names. The package of a type is resolved once per type, without allocating its name unless it
+ * was never seen.
+ * <p/>
+ * Not thread safe, a table is only used by the thread running the analysis.
+ *
+ * @since 1.10
+ */
+public final class SymbolTable {
+
+  private static final int INITIAL_CAPACITY = 256;
+
+  private String[] names = new String[INITIAL_CAPACITY];
+  private int[] hashes = new int[INITIAL_CAPACITY];
+  // Id of the package of each name plus one, 0 until resolved
+  private int[] packages = new int[INITIAL_CAPACITY];
+  // Open addressing table of ids plus one, 0 for empty slots
+  private int[] slots = new int[INITIAL_CAPACITY * 2];
+  private int size;
+  private long footprint;
+
+  /**
+   * @param name a canonical type or package name
+   * @return id of the name, added to the table if it was not there
+   */
+  public int intern(String name) {
+    return intern(name, name.length());
+  }
+
+  /**
+   * @param id id of a canonical type name
+   * @return id of the package of the type, the empty name for the default package
+   */
+  public int getPackage(int id) {
+    if (packages[id] == 0) {
+      // Interning may grow the arrays, so the id is stored afterwards
+      int packageId = intern(names[id], Math.max(0, names[id].lastIndexOf('.')));
+      packages[id] = packageId + 1;
+    }
+    return packages[id] - 1;
+  }
+
+  /**
+   * @param id id of a name
+   * @return the name
+   */
+  public String getName(int id) {
+    return names[id];
+  }
+
+  /**
+   * @return number of names in the table, all ids are lower than it
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return approximate footprint of the table, in bytes
+   */
+  public long getFootprint() {
+    return footprint + 16L * names.length;
+  }
+
+  /**
+   * Drops every name. Ids handed out before must not be used afterwards.
+   */
+  public void clear() {
+    names = new String[INITIAL_CAPACITY];
+    hashes = new int[INITIAL_CAPACITY];
+    packages = new int[INITIAL_CAPACITY];
+    slots = new int[INITIAL_CAPACITY * 2];
+    size = 0;
+    footprint = 0;
+  }
+
+  private int intern(String source, int length) {
+    int hash = hash(source, length);
+    int mask = slots.length - 1;
+    for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+      int entry = slots[slot];
+      if (entry == 0) {
+        return add(length == source.length() ? source : source.substring(0, length), hash, slot);
+      }
+      String name = names[entry - 1];
+      if (hashes[entry - 1] == hash && name.length() == length && source.startsWith(name)) {
+        return entry - 1;
+      }
+    }
+  }
+
+  private int add(String name, int hash, int slot) {
+    if (size == names.length) {
+      names = Arrays.copyOf(names, size * 2);
+      hashes = Arrays.copyOf(hashes, size * 2);
+      packages = Arrays.copyOf(packages, size * 2);
+    }
+    int id = size++;
+    names[id] = name;
+    hashes[id] = hash;
+    slots[slot] = id + 1;
+    // Object headers of the string and its array, plus one byte per character of compact strings
+    footprint += 40 + name.length();
+    if (size * 2 > slots.length) {
+      rehash();
+    }
+    return id;
+  }
+
+  private void rehash() {
+    slots = new int[slots.length * 2];
+    int mask = slots.length - 1;
+    for (int id = 0; id < size; id++) {
+      int slot = hashes[id] & mask;
+      while (slots[slot] != 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = id + 1;
+    }
+  }
+
+  private static int hash(String source, int length) {
+    // Same as the hash code of the name, which strings cache, so only the names of packages are hashed here
+    int hash = 0;
+    if (length == source.length()) {
+      hash = source.hashCode();
+    } else {
+      for (int i = 0; i < length; i++) {
+        hash = 31 * hash + source.charAt(i);
+      }
+    }
+    return hash ^ (hash >>> 16);
+  }
+
+  @Override
+  public String toString() {
+    return "SymbolTable{symbols=" + size + ", size=" + getFootprint() / 1024 + " KB}";
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import java.util.Arrays;
+
+/**
+ * Cache of a yes or no verdict per name of a {@link SymbolTable}, taking a byte per id up to the highest one cached.
+ * <p/>
+ * Not thread safe, a cache is only used by the thread running the analysis.
+ *
+ * @since 1.10
+ */
+public final class Verdicts {
+
+  private static final byte UNKNOWN = 0;
+  private static final byte NO = 1;
+  private static final byte YES = 2;
+
+  private final String name;
+  private byte[] verdicts = new byte[64];
+  private int size;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param name identifies the cache in its description
+   */
+  public Verdicts(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param id id of a name
+   * @return the cached verdict, or null if it is not cached
+   */
+  public Boolean get(int id) {
+    byte verdict = id < verdicts.length ? verdicts[id] : UNKNOWN;
+    if (verdict == UNKNOWN) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return verdict == YES;
+  }
+
+  /**
+   * @param id      id of a name
+   * @param verdict verdict to cache
+   */
+  public void put(int id, boolean verdict) {
+    if (id >= verdicts.length) {
+      verdicts = Arrays.copyOf(verdicts, Math.max(id + 1, verdicts.length * 2));
+    }
+    if (verdicts[id] == UNKNOWN) {
+      size++;
+    }
+    verdicts[id] = verdict ? YES : NO;
+  }
+
+  /**
+   * @return number of cached verdicts
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Drops every cached verdict.
+   */
+  public void clear() {
+    verdicts = new byte[64];
+    size = 0;
+  }
+
+  @Override
+  public String toString() {
+    return name + "{verdicts=" + size + ", size=" + verdicts.length / 1024 + " KB, hits=" + hits + ", misses=" + misses + "}";
+  }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_PRIVATE;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_STRICT;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_SYNCHRONIZED;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableSet;
+import static java.util.Comparator.comparing;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Normalized ABI fingerprints of the classes of a {@link ClassPool}.
+ * <p/>
+ * The fingerprint of a class only covers what can be part of its API: modifiers, signatures, supertypes, annotations, thrown
+ * exceptions and constant values of the class and its non private members. Method bodies, debug information, private members
+ * and compiler generated members do not change it.
+ * <p/>
+ * As the API of a type also includes the members it inherits and its nested types, the fingerprint of a type is computed over
+ * the type itself plus every supertype and nested type reachable from it. Two versions of a type with the same fingerprint
+ * expose the same API.
+ *
+ * @since 1.10
+ */
+public final class AbiFingerprints {
+
+  // ACC_SUPER on classes shares its value with ACC_SYNCHRONIZED, and neither has any effect on the API
+  private static final int IGNORED_MODIFIERS = ACC_SYNCHRONIZED | ACC_STRICT;
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final String MISSING_CLASS = "missing";
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final ClassPool pool;
+  private final Set<String> topLevelTypes = new TreeSet<>();
+  private final Map<String, List<String>> nestedTypes = new HashMap<>();
+  private final Map<String, byte[]> classFingerprints = new HashMap<>();
+  private final Map<String, String> typeFingerprints = new HashMap<>();
+
+  private AbiFingerprints() {
+    this.pool = null;
+  }
+
+  private AbiFingerprints(ClassPool pool) {
+    this.pool = pool;
+    for (String className : pool.getExportedClassNames()) {
+      ClassFile classFile = pool.find(className);
+      if (classFile.isNested()) {
+        nestedTypes.computeIfAbsent(classFile.getOuterName(), outer -> new ArrayList<>()).add(className);
+      } else {
+        topLevelTypes.add(className);
+      }
+    }
+  }
+
+  /**
+   * @param pool classes to fingerprint
+   * @return the fingerprints of the classes in the pool
+   */
+  public static AbiFingerprints of(ClassPool pool) {
+    return new AbiFingerprints(pool);
+  }
+
+  /**
+   * @param fingerprints fingerprints of the top level exported types computed before, such as the ones of an API index, keyed
+   *                     by internal name
+   * @return the fingerprints, only available for those types
+   */
+  public static AbiFingerprints of(Map<String, String> fingerprints) {
+    AbiFingerprints abiFingerprints = new AbiFingerprints();
+    abiFingerprints.topLevelTypes.addAll(fingerprints.keySet());
+    abiFingerprints.typeFingerprints.putAll(fingerprints);
+    return abiFingerprints;
+  }
+
+  /**
+   * Finds the top level exported types whose API is the same in both versions.
+   *
+   * @param oldFingerprints fingerprints of the old version
+   * @param newFingerprints fingerprints of the new version
+   * @return internal names of the top level exported types with the same fingerprint in both versions
+   */
+  public static Set<String> findUnchangedTypes(AbiFingerprints oldFingerprints, AbiFingerprints newFingerprints) {
+    Set<String> oldTypes = oldFingerprints.getTopLevelTypes();
+
+    Set<String> unchangedTypes = new HashSet<>();
+    for (String className : newFingerprints.getTopLevelTypes()) {
+      if (oldTypes.contains(className) && newFingerprints.get(className).equals(oldFingerprints.get(className))) {
+        unchangedTypes.add(className);
+      }
+    }
+    return unchangedTypes;
+  }
+
+  /**
+   * @return internal names of the top level types of the exported packages
+   */
+  public Set<String> getTopLevelTypes() {
+    return unmodifiableSet(topLevelTypes);
+  }
+
+  /**
+   * @param internalName internal name of a type
+   * @return hexadecimal fingerprint of the API of the type, including its supertypes and nested types
+   */
+  public String get(String internalName) {
+    return pool == null ? typeFingerprints.get(internalName)
+        : typeFingerprints.computeIfAbsent(internalName, this::computeTypeFingerprint);
+  }
+
+  private String computeTypeFingerprint(String internalName) {
+    MessageDigest digest = newDigest();
+    for (String className : getReachableTypes(internalName)) {
+      update(digest, className);
+      digest.update(classFingerprints.computeIfAbsent(className, this::computeClassFingerprint));
+    }
+    return toHex(digest.digest());
+  }
+
+  private Set<String> getReachableTypes(String internalName) {
+    Set<String> reachable = new TreeSet<>();
+    Deque<String> pending = new ArrayDeque<>();
+    reachable.add(internalName);
+    pending.push(internalName);
+
+    while (!pending.isEmpty()) {
+      String className = pending.pop();
+      ClassFile classFile = pool.find(className);
+      if (classFile == null) {
+        continue;
+      }
+
+      List<String> related = new ArrayList<>(classFile.getInterfaces());
+      if (classFile.getSuperName() != null) {
+        related.add(classFile.getSuperName());
+      }
+      related.addAll(nestedTypes.getOrDefault(className, emptyList()));
+      for (String relatedName : related) {
+        if (reachable.add(relatedName)) {
+          pending.push(relatedName);
+        }
+      }
+    }
+    return reachable;
+  }
+
+  private byte[] computeClassFingerprint(String internalName) {
+    MessageDigest digest = newDigest();
+    ClassFile classFile = pool.find(internalName);
+    if (classFile == null) {
+      update(digest, MISSING_CLASS);
+      return digest.digest();
+    }
+
+    update(digest, Integer.toString(classFile.getAccess() & ~IGNORED_MODIFIERS));
+    update(digest, classFile.getSuperName());
+    update(digest, classFile.getSignature());
+    update(digest, new TreeSet<>(classFile.getInterfaces()));
+    update(digest, new TreeSet<>(classFile.getAnnotations()));
+    updateMembers(digest, classFile.getFields());
+    updateMembers(digest, classFile.getMethods());
+    return digest.digest();
+  }
+
+  private static void updateMembers(MessageDigest digest, List<ClassMember> members) {
+    List<ClassMember> apiMembers = new ArrayList<>();
+    for (ClassMember member : members) {
+      if ((member.getAccess() & ACC_PRIVATE) == 0 && !member.isCompilerGenerated()) {
+        apiMembers.add(member);
+      }
+    }
+    apiMembers.sort(comparing(ClassMember::getName).thenComparing(ClassMember::getDescriptor));
+
+    update(digest, Integer.toString(apiMembers.size()));
+    for (ClassMember member : apiMembers) {
+      update(digest, Integer.toString(member.getAccess() & ~IGNORED_MODIFIERS));
+      update(digest, member.getName());
+      update(digest, member.getDescriptor());
+      update(digest, member.getSignature());
+      update(digest, new TreeSet<>(member.getExceptions()));
+      update(digest, new TreeSet<>(member.getAnnotations()));
+      for (List<String> parameterAnnotations : member.getParameterAnnotations()) {
+        update(digest, new TreeSet<>(parameterAnnotations));
+      }
+      update(digest, member.getDefaultValue());
+    }
+  }
+
+  private static void update(MessageDigest digest, Set<String> values) {
+    update(digest, Integer.toString(values.size()));
+    values.forEach(value -> update(digest, value));
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    if (value != null) {
+      digest.update(value.getBytes(UTF_8));
+    }
+    // Separates consecutive values, so different splits of the same characters do not collide
+    digest.update((byte) (value == null ? 1 : 0));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static String toHex(byte[] bytes) {
+    char[] hex = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+      hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+    }
+    return new String(hex);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+/**
+ * Access flags defined by the class file format, as found in classes, nested classes, fields and methods.
+ *
+ * @since 1.10
+ */
+public final class AccessFlags {
+
+  public static final int ACC_PUBLIC = 0x0001;
+  public static final int ACC_PRIVATE = 0x0002;
+  public static final int ACC_PROTECTED = 0x0004;
+  public static final int ACC_STATIC = 0x0008;
+  public static final int ACC_FINAL = 0x0010;
+  public static final int ACC_SYNCHRONIZED = 0x0020;
+  public static final int ACC_BRIDGE = 0x0040;
+  public static final int ACC_VOLATILE = 0x0040;
+  public static final int ACC_VARARGS = 0x0080;
+  public static final int ACC_TRANSIENT = 0x0080;
+  public static final int ACC_NATIVE = 0x0100;
+  public static final int ACC_INTERFACE = 0x0200;
+  public static final int ACC_ABSTRACT = 0x0400;
+  public static final int ACC_STRICT = 0x0800;
+  public static final int ACC_SYNTHETIC = 0x1000;
+  public static final int ACC_ANNOTATION = 0x2000;
+  public static final int ACC_ENUM = 0x4000;
+
+  private AccessFlags() {}
+
+  /**
+   * @param access access flags of a class or member
+   * @return true if the class or member can be reached from outside its package, false otherwise
+   */
+  public static boolean isAccessible(int access) {
+    return (access & (ACC_PUBLIC | ACC_PROTECTED)) != 0;
+  }
+
+  /**
+   * @param access access flags of a class or member
+   * @return true if the flags are set on elements generated by the compiler, false otherwise
+   */
+  public static boolean isSynthetic(int access) {
+    return (access & ACC_SYNTHETIC) != 0;
+  }
+
+  /**
+   * @param access access flags of a class or member
+   * @param flag   flag to check
+   * @return true if the flag is set, false otherwise
+   */
+  public static boolean is(int access, int flag) {
+    return (access & flag) != 0;
+  }
+}
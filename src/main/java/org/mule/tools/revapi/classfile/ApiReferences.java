@@ -0,0 +1,66 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Types the API surface of a class refers to: its supertypes, generic signature and annotations, and the descriptors, generic
+ * signatures, thrown exceptions and annotations of its public and protected members that were not generated by the compiler.
+ * Method bodies are not read.
+ *
+ * @since 1.10
+ */
+public final class ApiReferences {
+
+  private ApiReferences() {}
+
+  /**
+   * @param classFile a class
+   * @param consumer  receives the internal name of every type the class refers to, possibly more than once
+   */
+  public static void forEach(ClassFile classFile, Consumer<String> consumer) {
+    if (classFile.getSuperName() != null) {
+      consumer.accept(classFile.getSuperName());
+    }
+    classFile.getInterfaces().forEach(consumer);
+    addSignature(classFile.getSignature(), consumer);
+    addAnnotations(classFile.getAnnotations(), consumer);
+    addMembers(classFile.getFields(), consumer);
+    addMembers(classFile.getMethods(), consumer);
+  }
+
+  private static void addMembers(List<ClassMember> members, Consumer<String> consumer) {
+    for (ClassMember member : members) {
+      if (!member.isAccessible() || member.isCompilerGenerated()) {
+        continue;
+      }
+      addSignature(member.getDescriptor(), consumer);
+      addSignature(member.getSignature(), consumer);
+      member.getExceptions().forEach(consumer);
+      addAnnotations(member.getAnnotations(), consumer);
+      member.getParameterAnnotations().forEach(annotations -> addAnnotations(annotations, consumer));
+    }
+  }
+
+  private static void addSignature(String signature, Consumer<String> consumer) {
+    if (signature != null && !signature.isEmpty()) {
+      SignatureTypes.forEach(signature, consumer);
+    }
+  }
+
+  private static void addAnnotations(List<String> annotations, Consumer<String> consumer) {
+    for (String annotation : annotations) {
+      // Annotations are written as @<type descriptor>(<values>)
+      int end = annotation.indexOf(';');
+      if (end > 0) {
+        addSignature(annotation.substring(1, end + 1), consumer);
+      }
+    }
+  }
+}
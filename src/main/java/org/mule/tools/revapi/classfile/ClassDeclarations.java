@@ -0,0 +1,138 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compact binary form of the declaration of a class: its modifiers, supertypes, enclosing class and annotations, without its
+ * members.
+ * <p/>
+ * Declarations are enough to walk the type hierarchy and to evaluate the Mule API annotations, and are small enough to be stored
+ * for every class of an archive.
+ *
+ * @since 1.10
+ */
+public final class ClassDeclarations {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClassDeclarations.class);
+
+  private ClassDeclarations() {}
+
+  /**
+   * Encodes the declarations of a set of class files.
+   *
+   * @param classFiles content of the class files, keyed by internal name
+   * @return the encoded declarations, keyed by internal name. Invalid class files are left out.
+   */
+  public static SortedMap<String, byte[]> of(Map<String, byte[]> classFiles) {
+    SortedMap<String, byte[]> declarations = new TreeMap<>();
+    classFiles.forEach((name, bytes) -> {
+      try {
+        declarations.put(name, encode(ClassFileReader.read(bytes)));
+      } catch (IllegalArgumentException e) {
+        LOG.debug("Ignoring invalid class file " + name, e);
+      }
+    });
+    return declarations;
+  }
+
+  /**
+   * @param classFile class to encode
+   * @return the encoded declaration of the class
+   */
+  public static byte[] encode(ClassFile classFile) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(classFile.getHeaderAccess());
+      out.writeInt(classFile.getNestedAccess());
+      writeNullable(out, classFile.getSuperName());
+      writeNullable(out, classFile.getOuterName());
+      writeList(out, classFile.getInterfaces());
+      writeList(out, classFile.getAnnotations());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @param internalName internal name of the class
+   * @param declaration  encoded declaration, as returned by {@link #encode(ClassFile)}
+   * @return the class, without fields, methods or generic signature
+   */
+  public static ClassFile decode(String internalName, byte[] declaration) {
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(declaration))) {
+      int access = in.readInt();
+      int nestedAccess = in.readInt();
+      String superName = readNullable(in);
+      String outerName = readNullable(in);
+      List<String> interfaces = readList(in);
+      List<String> annotations = readList(in);
+      return new ClassFile(access, internalName, superName, interfaces, null, annotations, emptyList(), emptyList(), outerName,
+                           nestedAccess);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Invalid declaration of class " + internalName, e);
+    }
+  }
+
+  private static void writeNullable(DataOutputStream out, String value) throws IOException {
+    out.writeBoolean(value != null);
+    if (value != null) {
+      writeString(out, value);
+    }
+  }
+
+  private static String readNullable(DataInputStream in) throws IOException {
+    return in.readBoolean() ? readString(in) : null;
+  }
+
+  private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+    out.writeInt(values.size());
+    for (String value : values) {
+      writeString(out, value);
+    }
+  }
+
+  private static List<String> readList(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    List<String> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(readString(in));
+    }
+    return values;
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    // writeUTF is limited to 64 KB, which long annotation values can exceed
+    byte[] bytes = value.getBytes(UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    byte[] bytes = new byte[in.readInt()];
+    in.readFully(bytes);
+    return new String(bytes, UTF_8);
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_ANNOTATION;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_ENUM;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_INTERFACE;
+
+import java.util.List;
+
+/**
+ * API relevant content of a class file.
+ *
+ * @since 1.10
+ */
+public final class ClassFile {
+
+  /**
+   * Suffix of the archive entries containing class files.
+   */
+  public static final String CLASS_FILE_SUFFIX = ".class";
+
+  private final int access;
+  private final String name;
+  private final String superName;
+  private final List<String> interfaces;
+  private final String signature;
+  private final List<String> annotations;
+  private final List<ClassMember> fields;
+  private final List<ClassMember> methods;
+  private final String outerName;
+  private final int nestedAccess;
+
+  ClassFile(int access, String name, String superName, List<String> interfaces, String signature, List<String> annotations,
+            List<ClassMember> fields, List<ClassMember> methods, String outerName, int nestedAccess) {
+    this.access = access;
+    this.name = name;
+    this.superName = superName;
+    this.interfaces = interfaces;
+    this.signature = signature;
+    this.annotations = annotations;
+    this.fields = fields;
+    this.methods = methods;
+    this.outerName = outerName;
+    this.nestedAccess = nestedAccess;
+  }
+
+  /**
+   * Returns the access flags of the class as declared in the source code.
+   * <p/>
+   * For nested classes this comes from the {@code InnerClasses} attribute, as the flags in the class file header cannot express
+   * private, protected or static nested classes.
+   *
+   * @return class access flags. See {@link AccessFlags}
+   */
+  public int getAccess() {
+    return isNested() ? nestedAccess : access;
+  }
+
+  /**
+   * @return access flags from the class file header
+   */
+  int getHeaderAccess() {
+    return access;
+  }
+
+  /**
+   * @return access flags from the {@code InnerClasses} attribute, only meaningful for nested classes
+   */
+  int getNestedAccess() {
+    return nestedAccess;
+  }
+
+  /**
+   * @return internal name of the class, like {@code org/foo/A$B}
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return internal name of the superclass, null for {@code java.lang.Object} and module descriptors
+   */
+  public String getSuperName() {
+    return superName;
+  }
+
+  /**
+   * @return internal names of the directly implemented interfaces
+   */
+  public List<String> getInterfaces() {
+    return interfaces;
+  }
+
+  /**
+   * @return generic signature of the class, null if it does not use generics
+   */
+  public String getSignature() {
+    return signature;
+  }
+
+  /**
+   * @return canonical representation of the annotations of the class, including their values
+   */
+  public List<String> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * @param annotationDescriptor descriptor of the annotation type, like {@code Lorg/mule/api/annotation/NoExtend;}
+   * @return true if the class is directly annotated with the given annotation, false otherwise
+   */
+  public boolean hasAnnotation(String annotationDescriptor) {
+    for (String annotation : annotations) {
+      if (annotation.startsWith(annotationDescriptor, 1)
+          && annotation.length() > annotationDescriptor.length() + 1
+          && annotation.charAt(annotationDescriptor.length() + 1) == '(') {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return declared fields, in class file order
+   */
+  public List<ClassMember> getFields() {
+    return fields;
+  }
+
+  /**
+   * @return declared methods and constructors, in class file order
+   */
+  public List<ClassMember> getMethods() {
+    return methods;
+  }
+
+  /**
+   * @return internal name of the enclosing class for member classes, null otherwise
+   */
+  public String getOuterName() {
+    return outerName;
+  }
+
+  /**
+   * @return true if the class is declared inside another class, false otherwise
+   */
+  public boolean isNested() {
+    return outerName != null;
+  }
+
+  /**
+   * @return true if the class is an interface or an annotation, false otherwise
+   */
+  public boolean isInterface() {
+    return (access & ACC_INTERFACE) != 0;
+  }
+
+  /**
+   * @return true if the class is an annotation, false otherwise
+   */
+  public boolean isAnnotation() {
+    return (access & ACC_ANNOTATION) != 0;
+  }
+
+  /**
+   * @return true if the class is an enum, false otherwise
+   */
+  public boolean isEnum() {
+    return (access & ACC_ENUM) != 0;
+  }
+
+  /**
+   * @return name of the package that contains the class, empty for the default package
+   */
+  public String getPackageName() {
+    return getPackageName(name);
+  }
+
+  /**
+   * @return canonical name of the class, like {@code org.foo.A.B}
+   */
+  public String getCanonicalName() {
+    return toCanonicalName(name);
+  }
+
+  /**
+   * @param internalName internal name of a class, like {@code org/foo/A$B}
+   * @return name of the package containing the class, using dots as separator
+   */
+  public static String getPackageName(String internalName) {
+    int index = internalName.lastIndexOf('/');
+    return index < 0 ? "" : internalName.substring(0, index).replace('/', '.');
+  }
+
+  /**
+   * Converts an internal class name into a canonical one. Nested class separators are assumed to be the ones generated by
+   * javac.
+   *
+   * @param internalName internal name of a class, like {@code org/foo/A$B}
+   * @return the canonical name, like {@code org.foo.A.B}
+   */
+  public static String toCanonicalName(String internalName) {
+    return internalName.replace('/', '.').replace('$', '.');
+  }
+
+  /**
+   * @param entryName name of an archive entry
+   * @return internal name of the class stored in the entry, or null if the entry is not a class file
+   */
+  public static String toInternalName(String entryName) {
+    if (!entryName.endsWith(CLASS_FILE_SUFFIX) || entryName.endsWith("module-info.class")
+        || entryName.endsWith("package-info.class") || entryName.startsWith("META-INF/")) {
+      return null;
+    }
+    return entryName.substring(0, entryName.length() - CLASS_FILE_SUFFIX.length());
+  }
+
+  @Override
+  public String toString() {
+    return getCanonicalName();
+  }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the API relevant content of a class file, as defined in chapter 4 of the JVM specification.
+ * <p/>
+ * Method bodies, debug information and any other attribute that does not contribute to the API are skipped without being
+ * decoded. Constant pool references are resolved, so the resulting {@link ClassFile} does not depend on how the compiler laid out
+ * the constant pool.
+ *
+ * @since 1.10
+ */
+public final class ClassFileReader {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  private static final String SIGNATURE = "Signature";
+  private static final String EXCEPTIONS = "Exceptions";
+  private static final String INNER_CLASSES = "InnerClasses";
+  private static final String CONSTANT_VALUE = "ConstantValue";
+  private static final String ANNOTATION_DEFAULT = "AnnotationDefault";
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+  private static final String RUNTIME_INVISIBLE_ANNOTATIONS = "RuntimeInvisibleAnnotations";
+  private static final String RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS = "RuntimeVisibleParameterAnnotations";
+  private static final String RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS = "RuntimeInvisibleParameterAnnotations";
+
+  private final byte[] bytes;
+  private final int[] constantOffsets;
+  private final String[] strings;
+  private int position;
+
+  private ClassFileReader(byte[] bytes) {
+    this.bytes = bytes;
+    if (readInt(0) != MAGIC) {
+      throw new IllegalArgumentException("Not a class file");
+    }
+
+    int constantCount = readUnsignedShort(8);
+    constantOffsets = new int[constantCount];
+    strings = new String[constantCount];
+    int offset = 10;
+    for (int i = 1; i < constantCount; i++) {
+      constantOffsets[i] = offset + 1;
+      int tag = bytes[offset];
+      switch (tag) {
+        case CONSTANT_UTF8:
+          offset += 3 + readUnsignedShort(offset + 1);
+          break;
+        case CONSTANT_INTEGER:
+        case CONSTANT_FLOAT:
+        case CONSTANT_FIELDREF:
+        case CONSTANT_METHODREF:
+        case CONSTANT_INTERFACE_METHODREF:
+        case CONSTANT_NAME_AND_TYPE:
+        case CONSTANT_DYNAMIC:
+        case CONSTANT_INVOKE_DYNAMIC:
+          offset += 5;
+          break;
+        case CONSTANT_LONG:
+        case CONSTANT_DOUBLE:
+          offset += 9;
+          i++;
+          break;
+        case CONSTANT_METHOD_HANDLE:
+          offset += 4;
+          break;
+        case CONSTANT_CLASS:
+        case CONSTANT_STRING:
+        case CONSTANT_METHOD_TYPE:
+        case CONSTANT_MODULE:
+        case CONSTANT_PACKAGE:
+          offset += 3;
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown constant pool tag " + tag + " at offset " + offset);
+      }
+    }
+    position = offset;
+  }
+
+  /**
+   * Reads a class file.
+   *
+   * @param bytes content of the class file
+   * @return the API relevant content of the class
+   * @throws IllegalArgumentException if the content is not a valid class file
+   */
+  public static ClassFile read(byte[] bytes) {
+    try {
+      return new ClassFileReader(bytes).readClass();
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Truncated class file", e);
+    }
+  }
+
+  private ClassFile readClass() {
+    int access = readUnsignedShort(position);
+    String name = readClassName(position + 2);
+    String superName = readClassName(position + 4);
+    int interfaceCount = readUnsignedShort(position + 6);
+    position += 8;
+    List<String> interfaces = new ArrayList<>(interfaceCount);
+    for (int i = 0; i < interfaceCount; i++) {
+      interfaces.add(readClassName(position));
+      position += 2;
+    }
+
+    List<ClassMember> fields = readMembers();
+    List<ClassMember> methods = readMembers();
+
+    String signature = null;
+    List<String> annotations = emptyList();
+    String outerName = null;
+    int nestedAccess = access;
+
+    int attributeCount = readUnsignedShort(position);
+    position += 2;
+    for (int i = 0; i < attributeCount; i++) {
+      String attributeName = readUtf8(readUnsignedShort(position));
+      int length = readInt(position + 2);
+      int start = position + 6;
+      switch (attributeName) {
+        case SIGNATURE:
+          signature = readUtf8(readUnsignedShort(start));
+          break;
+        case RUNTIME_VISIBLE_ANNOTATIONS:
+        case RUNTIME_INVISIBLE_ANNOTATIONS:
+          annotations = addAnnotations(annotations, start);
+          break;
+        case INNER_CLASSES:
+          int classCount = readUnsignedShort(start);
+          for (int j = 0; j < classCount; j++) {
+            int entry = start + 2 + j * 8;
+            if (name.equals(readClassName(entry))) {
+              int outerIndex = readUnsignedShort(entry + 2);
+              // Local and anonymous classes have no outer class, they are never part of an API
+              outerName = outerIndex == 0 ? name : readClassName(entry + 2);
+              nestedAccess = readUnsignedShort(entry + 6);
+            }
+          }
+          break;
+        default:
+          // Not part of the API
+      }
+      position = start + length;
+    }
+
+    return new ClassFile(access, name, superName, unmodifiableList(interfaces), signature, annotations, fields, methods,
+                         outerName, nestedAccess);
+  }
+
+  private List<ClassMember> readMembers() {
+    int memberCount = readUnsignedShort(position);
+    position += 2;
+    List<ClassMember> members = new ArrayList<>(memberCount);
+    for (int i = 0; i < memberCount; i++) {
+      int access = readUnsignedShort(position);
+      String name = readUtf8(readUnsignedShort(position + 2));
+      String descriptor = readUtf8(readUnsignedShort(position + 4));
+      int attributeCount = readUnsignedShort(position + 6);
+      position += 8;
+
+      String signature = null;
+      List<String> exceptions = emptyList();
+      List<String> annotations = emptyList();
+      List<List<String>> parameterAnnotations = emptyList();
+      String defaultValue = null;
+      for (int j = 0; j < attributeCount; j++) {
+        String attributeName = readUtf8(readUnsignedShort(position));
+        int length = readInt(position + 2);
+        int start = position + 6;
+        switch (attributeName) {
+          case SIGNATURE:
+            signature = readUtf8(readUnsignedShort(start));
+            break;
+          case EXCEPTIONS:
+            int exceptionCount = readUnsignedShort(start);
+            exceptions = new ArrayList<>(exceptionCount);
+            for (int k = 0; k < exceptionCount; k++) {
+              exceptions.add(readClassName(start + 2 + k * 2));
+            }
+            break;
+          case CONSTANT_VALUE:
+            defaultValue = readConstant(readUnsignedShort(start));
+            break;
+          case ANNOTATION_DEFAULT:
+            StringBuilder value = new StringBuilder();
+            position = start;
+            readElementValue(value);
+            defaultValue = value.toString();
+            break;
+          case RUNTIME_VISIBLE_ANNOTATIONS:
+          case RUNTIME_INVISIBLE_ANNOTATIONS:
+            annotations = addAnnotations(annotations, start);
+            break;
+          case RUNTIME_VISIBLE_PARAMETER_ANNOTATIONS:
+          case RUNTIME_INVISIBLE_PARAMETER_ANNOTATIONS:
+            parameterAnnotations = addParameterAnnotations(parameterAnnotations, start);
+            break;
+          default:
+            // Code, debug information and other attributes are not part of the API
+        }
+        position = start + length;
+      }
+
+      members.add(new ClassMember(access, name, descriptor, signature, exceptions, annotations, parameterAnnotations,
+                                  defaultValue));
+    }
+    return unmodifiableList(members);
+  }
+
+  private List<String> addAnnotations(List<String> annotations, int start) {
+    List<String> result = new ArrayList<>(annotations);
+    int annotationCount = readUnsignedShort(start);
+    position = start + 2;
+    for (int i = 0; i < annotationCount; i++) {
+      StringBuilder annotation = new StringBuilder();
+      readAnnotation(annotation);
+      result.add(annotation.toString());
+    }
+    return result;
+  }
+
+  private List<List<String>> addParameterAnnotations(List<List<String>> parameterAnnotations, int start) {
+    int parameterCount = bytes[start] & 0xFF;
+    List<List<String>> result = new ArrayList<>(parameterCount);
+    position = start + 1;
+    for (int i = 0; i < parameterCount; i++) {
+      List<String> annotations = new ArrayList<>(i < parameterAnnotations.size() ? parameterAnnotations.get(i) : emptyList());
+      int annotationCount = readUnsignedShort(position);
+      position += 2;
+      for (int j = 0; j < annotationCount; j++) {
+        StringBuilder annotation = new StringBuilder();
+        readAnnotation(annotation);
+        annotations.add(annotation.toString());
+      }
+      result.add(annotations);
+    }
+    return result;
+  }
+
+  private void readAnnotation(StringBuilder builder) {
+    builder.append('@').append(readUtf8(readUnsignedShort(position))).append('(');
+    int pairCount = readUnsignedShort(position + 2);
+    position += 4;
+    for (int i = 0; i < pairCount; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append(readUtf8(readUnsignedShort(position))).append('=');
+      position += 2;
+      readElementValue(builder);
+    }
+    builder.append(')');
+  }
+
+  private void readElementValue(StringBuilder builder) {
+    char tag = (char) bytes[position];
+    position++;
+    switch (tag) {
+      case 'e':
+        builder.append(readUtf8(readUnsignedShort(position))).append('.').append(readUtf8(readUnsignedShort(position + 2)));
+        position += 4;
+        break;
+      case 'c':
+        builder.append(readUtf8(readUnsignedShort(position))).append(".class");
+        position += 2;
+        break;
+      case '@':
+        readAnnotation(builder);
+        break;
+      case '[':
+        int valueCount = readUnsignedShort(position);
+        position += 2;
+        builder.append('{');
+        for (int i = 0; i < valueCount; i++) {
+          if (i > 0) {
+            builder.append(',');
+          }
+          readElementValue(builder);
+        }
+        builder.append('}');
+        break;
+      default:
+        builder.append(tag).append(readConstant(readUnsignedShort(position)));
+        position += 2;
+    }
+  }
+
+  private String readConstant(int index) {
+    int offset = constantOffsets[index];
+    switch (bytes[offset - 1]) {
+      case CONSTANT_INTEGER:
+        return Integer.toString(readInt(offset));
+      case CONSTANT_FLOAT:
+        return Float.toString(Float.intBitsToFloat(readInt(offset)));
+      case CONSTANT_LONG:
+        return Long.toString(readLong(offset));
+      case CONSTANT_DOUBLE:
+        return Double.toString(Double.longBitsToDouble(readLong(offset)));
+      case CONSTANT_STRING:
+        return '"' + readUtf8(readUnsignedShort(offset)) + '"';
+      case CONSTANT_UTF8:
+        return '"' + readUtf8(index) + '"';
+      default:
+        throw new IllegalArgumentException("Constant pool entry " + index + " is not a constant value");
+    }
+  }
+
+  private String readClassName(int offset) {
+    int index = readUnsignedShort(offset);
+    return index == 0 ? null : readUtf8(readUnsignedShort(constantOffsets[index]));
+  }
+
+  private String readUtf8(int index) {
+    String value = strings[index];
+    if (value == null) {
+      int offset = constantOffsets[index];
+      int length = readUnsignedShort(offset);
+      value = decodeUtf8(offset + 2, length);
+      strings[index] = value;
+    }
+    return value;
+  }
+
+  private String decodeUtf8(int offset, int length) {
+    // Most class file strings are plain ASCII, which can be decoded without going through the modified UTF-8 decoder
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      byte b = bytes[offset + i];
+      if (b <= 0) {
+        return decodeModifiedUtf8(offset, length);
+      }
+      chars[i] = (char) b;
+    }
+    return new String(chars);
+  }
+
+  private String decodeModifiedUtf8(int offset, int length) {
+    byte[] data = new byte[length + 2];
+    data[0] = (byte) (length >>> 8);
+    data[1] = (byte) length;
+    System.arraycopy(bytes, offset, data, 2, length);
+    try {
+      return new DataInputStream(new ByteArrayInputStream(data)).readUTF();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private int readUnsignedShort(int offset) {
+    return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+  }
+
+  private int readInt(int offset) {
+    return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16) | ((bytes[offset + 2] & 0xFF) << 8)
+        | (bytes[offset + 3] & 0xFF);
+  }
+
+  private long readLong(int offset) {
+    return ((long) readInt(offset) << 32) | (readInt(offset + 4) & 0xFFFFFFFFL);
+  }
+}
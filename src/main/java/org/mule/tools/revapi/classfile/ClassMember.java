@@ -0,0 +1,167 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_BRIDGE;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_PROTECTED;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_PUBLIC;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_STATIC;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_SYNTHETIC;
+
+import java.util.List;
+
+/**
+ * Field or method declared in a {@link ClassFile}.
+ * <p/>
+ * Only the parts of the member that are relevant to its API are kept: method bodies and debug information are discarded when
+ * the class file is read.
+ *
+ * @since 1.10
+ */
+public final class ClassMember {
+
+  public static final String CONSTRUCTOR_NAME = "<init>";
+  public static final String STATIC_INITIALIZER_NAME = "<clinit>";
+
+  private final int access;
+  private final String name;
+  private final String descriptor;
+  private final String signature;
+  private final List<String> exceptions;
+  private final List<String> annotations;
+  private final List<List<String>> parameterAnnotations;
+  private final String defaultValue;
+
+  ClassMember(int access, String name, String descriptor, String signature, List<String> exceptions,
+              List<String> annotations, List<List<String>> parameterAnnotations, String defaultValue) {
+    this.access = access;
+    this.name = name;
+    this.descriptor = descriptor;
+    this.signature = signature;
+    this.exceptions = exceptions;
+    this.annotations = annotations;
+    this.parameterAnnotations = parameterAnnotations;
+    this.defaultValue = defaultValue;
+  }
+
+  /**
+   * @return member access flags. See {@link AccessFlags}
+   */
+  public int getAccess() {
+    return access;
+  }
+
+  /**
+   * @return simple name of the member
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return erased type descriptor of the member
+   */
+  public String getDescriptor() {
+    return descriptor;
+  }
+
+  /**
+   * @return generic signature of the member, null if it does not use generics
+   */
+  public String getSignature() {
+    return signature;
+  }
+
+  /**
+   * @return internal names of the exceptions declared by a method. Empty for fields.
+   */
+  public List<String> getExceptions() {
+    return exceptions;
+  }
+
+  /**
+   * @return canonical representation of the annotations of the member, including their values
+   */
+  public List<String> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * @return canonical representation of the annotations of each method parameter. Empty for fields.
+   */
+  public List<List<String>> getParameterAnnotations() {
+    return parameterAnnotations;
+  }
+
+  /**
+   * @return constant value of a field, or default value of an annotation method. Null if there is none.
+   */
+  public String getDefaultValue() {
+    return defaultValue;
+  }
+
+  /**
+   * @return true if the member can be reached by code outside its package, false otherwise
+   */
+  public boolean isAccessible() {
+    return (access & (ACC_PUBLIC | ACC_PROTECTED)) != 0;
+  }
+
+  /**
+   * @return true if the member is public, false otherwise
+   */
+  public boolean isPublic() {
+    return (access & ACC_PUBLIC) != 0;
+  }
+
+  /**
+   * @return true if the member is protected, false otherwise
+   */
+  public boolean isProtected() {
+    return (access & ACC_PROTECTED) != 0;
+  }
+
+  /**
+   * @return true if the member is static, false otherwise
+   */
+  public boolean isStatic() {
+    return (access & ACC_STATIC) != 0;
+  }
+
+  /**
+   * @return true if the member is a constructor, false otherwise
+   */
+  public boolean isConstructor() {
+    return CONSTRUCTOR_NAME.equals(name);
+  }
+
+  /**
+   * Indicates whether the member was generated by the compiler, like bridge methods, lambda bodies or synthetic accessors. Those
+   * members are never part of the API written by the developer. They are told apart by their flags, a member declared with a
+   * name that looks generated, like {@code access$run}, is not.
+   *
+   * @return true if the member was generated by the compiler, false otherwise
+   */
+  public boolean isCompilerGenerated() {
+    // ACC_BRIDGE shares its value with ACC_VOLATILE, so it only means "bridge" on methods
+    return (access & ACC_SYNTHETIC) != 0
+        || isMethod() && (access & ACC_BRIDGE) != 0
+        || STATIC_INITIALIZER_NAME.equals(name);
+  }
+
+  /**
+   * @return true if the member is a method or constructor, false if it is a field
+   */
+  public boolean isMethod() {
+    return descriptor.charAt(0) == '(';
+  }
+
+  @Override
+  public String toString() {
+    return name + (isMethod() ? descriptor : ":" + descriptor);
+  }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static org.mule.tools.revapi.ModuleExports.MODULE_PROPERTIES;
+
+import static java.util.Collections.unmodifiableSet;
+
+import org.mule.tools.revapi.ModuleExports;
+import org.mule.tools.revapi.archive.ArchiveEntries;
+import org.mule.tools.revapi.cache.ReactorCache;
+import org.mule.tools.revapi.cache.SupplementaryClasses;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarInputStream;
+
+import org.revapi.API;
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Classes of an {@link API}, read straight from the class files of its archives.
+ * <p/>
+ * Primary archives are read when the pool is created. Supplementary archives are only read the first time a class that is not
+ * part of the primary ones is requested, as most lookups never leave the module being analyzed. Their entry names are indexed
+ * then, so only the archive that contains the requested class is read. Classes of the JDK are never looked up in them. When the
+ * {@link ReactorCache} is enabled, they are read through it, so the other modules of the build reuse them.
+ *
+ * @since 1.10
+ */
+public final class ClassPool {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClassPool.class);
+
+  private final Map<String, byte[]> primaryClasses = new HashMap<>();
+  private final Map<String, byte[]> supplementaryClasses = new HashMap<>();
+  private final Map<String, ClassFile> classes = new HashMap<>();
+  private final Map<String, ClassFile> declarations = new HashMap<>();
+  private final List<Archive> pendingSupplementaryArchives = new ArrayList<>();
+  private Map<String, Integer> supplementaryOwners;
+  private boolean[] readSupplementaryArchives;
+  private final Map<String, Map<String, Boolean>> supplementaryResults = new HashMap<>();
+  private final ReactorCache reactorCache;
+  private SupplementaryClasses cachedSupplementaryClasses;
+  private ModuleExports exports = ModuleExports.NONE;
+
+  private ClassPool(ReactorCache reactorCache) {
+    this.reactorCache = reactorCache;
+  }
+
+  /**
+   * Creates a pool with the classes of an API, reading its supplementary archives through the {@link ReactorCache} of the build
+   * when it is enabled.
+   *
+   * @param api API to read
+   * @return the pool
+   */
+  public static ClassPool of(API api) {
+    return of(api, ReactorCache.getInstance());
+  }
+
+  /**
+   * Creates a pool with the classes of an API.
+   *
+   * @param api          API to read
+   * @param reactorCache cache to read the supplementary archives through, or null to read them directly
+   * @return the pool
+   */
+  public static ClassPool of(API api, ReactorCache reactorCache) {
+    ClassPool pool = new ClassPool(reactorCache);
+    for (Archive archive : api.getArchives()) {
+      pool.exports = pool.exports.merge(readArchive(archive, pool.primaryClasses));
+    }
+    if (api.getSupplementaryArchives() != null) {
+      api.getSupplementaryArchives().forEach(pool.pendingSupplementaryArchives::add);
+    }
+    return pool;
+  }
+
+  /**
+   * @return packages exported by the primary archives of the API
+   */
+  public ModuleExports getExports() {
+    return exports;
+  }
+
+  /**
+   * @return sorted internal names of the classes in the primary archives
+   */
+  public Set<String> getPrimaryClassNames() {
+    return unmodifiableSet(new TreeSet<>(primaryClasses.keySet()));
+  }
+
+  /**
+   * @return sorted internal names of the classes in the primary archives that belong to an exported package
+   */
+  public Set<String> getExportedClassNames() {
+    Set<String> names = new TreeSet<>();
+    for (String name : primaryClasses.keySet()) {
+      if (exports.isExported(ClassFile.getPackageName(name))) {
+        names.add(name);
+      }
+    }
+    return unmodifiableSet(names);
+  }
+
+  /**
+   * @param internalName internal name of a class
+   * @return true if the class belongs to one of the primary archives of the API, false otherwise
+   */
+  public boolean isPrimary(String internalName) {
+    return primaryClasses.containsKey(internalName);
+  }
+
+  /**
+   * Finds a class of the API, looking into the supplementary archives when it is not part of the primary ones.
+   *
+   * @param internalName internal name of the class
+   * @return the class, or null if it is not part of the API archives
+   */
+  public ClassFile find(String internalName) {
+    ClassFile classFile = classes.get(internalName);
+    if (classFile == null) {
+      byte[] bytes = primaryClasses.get(internalName);
+      if (bytes == null) {
+        bytes = findSupplementary(internalName);
+      }
+      if (bytes != null) {
+        classFile = ClassFileReader.read(bytes);
+        classes.put(internalName, classFile);
+      }
+    }
+    return classFile;
+  }
+
+  /**
+   * Results of a computation that only depends on the classes of the supplementary archives. They are shared with the pools of
+   * the other analyses with the same supplementary archives when the {@link ReactorCache} is enabled.
+   *
+   * @param name name of the results
+   * @return the results, keyed by internal class name
+   */
+  public Map<String, Boolean> getSupplementaryResults(String name) {
+    if (reactorCache != null) {
+      return getCachedSupplementaryClasses().getResults(name);
+    }
+    return supplementaryResults.computeIfAbsent(name, n -> new HashMap<>());
+  }
+
+  /**
+   * Reads the classes of an archive.
+   *
+   * @param archive archive to read
+   * @return the content of the class files of the archive, keyed by internal name
+   */
+  public static Map<String, byte[]> readClasses(Archive archive) {
+    Map<String, byte[]> classes = new HashMap<>();
+    readArchive(archive, classes);
+    return classes;
+  }
+
+  private SupplementaryClasses getCachedSupplementaryClasses() {
+    if (cachedSupplementaryClasses == null) {
+      cachedSupplementaryClasses = reactorCache.getSupplementaryClasses(pendingSupplementaryArchives);
+    }
+    return cachedSupplementaryClasses;
+  }
+
+  /**
+   * Finds the declaration of a class of the API: its modifiers, supertypes, enclosing class and annotations. Unlike
+   * {@link #find(String)}, the returned class may have no fields or methods, as the declarations of supplementary classes are
+   * read from the archive index of the {@link ReactorCache} when there is one.
+   *
+   * @param internalName internal name of the class
+   * @return the class, or null if it is not part of the API archives
+   */
+  public ClassFile findDeclaration(String internalName) {
+    ClassFile classFile = classes.get(internalName);
+    if (classFile == null && reactorCache != null && !primaryClasses.containsKey(internalName)) {
+      classFile = declarations.get(internalName);
+      if (classFile == null) {
+        byte[] declaration = getCachedSupplementaryClasses().findDeclaration(internalName);
+        if (declaration != null) {
+          classFile = ClassDeclarations.decode(internalName, declaration);
+          declarations.put(internalName, classFile);
+        }
+      }
+    }
+    return classFile != null ? classFile : find(internalName);
+  }
+
+  private byte[] findSupplementary(String internalName) {
+    if (isPlatformClass(internalName)) {
+      return null;
+    }
+    if (reactorCache != null) {
+      return getCachedSupplementaryClasses().find(internalName);
+    }
+
+    byte[] bytes = supplementaryClasses.get(internalName);
+    if (bytes == null) {
+      Integer owner = getSupplementaryOwners().get(internalName);
+      if (owner != null && !readSupplementaryArchives[owner]) {
+        readSupplementaryArchive(owner);
+        bytes = supplementaryClasses.get(internalName);
+      }
+    }
+    return bytes;
+  }
+
+  private static boolean isPlatformClass(String internalName) {
+    return internalName.startsWith("java/") || internalName.startsWith("javax/");
+  }
+
+  private Map<String, Integer> getSupplementaryOwners() {
+    if (supplementaryOwners == null) {
+      supplementaryOwners = new HashMap<>();
+      readSupplementaryArchives = new boolean[pendingSupplementaryArchives.size()];
+      for (int i = 0; i < pendingSupplementaryArchives.size(); i++) {
+        try {
+          for (String name : ArchiveEntries.read(pendingSupplementaryArchives.get(i)).getClassNames()) {
+            supplementaryOwners.putIfAbsent(name, i);
+          }
+        } catch (IOException e) {
+          LOG.debug("Failed to index the archive " + pendingSupplementaryArchives.get(i) + ", reading it", e);
+          readSupplementaryArchive(i);
+        }
+      }
+    }
+    return supplementaryOwners;
+  }
+
+  private void readSupplementaryArchive(int index) {
+    readSupplementaryArchives[index] = true;
+    Map<String, byte[]> archiveClasses = new HashMap<>();
+    readArchive(pendingSupplementaryArchives.get(index), archiveClasses);
+    archiveClasses.forEach((name, bytes) -> {
+      // A class in several archives is always taken from the first one, whatever the order they are read in
+      Integer owner = supplementaryOwners.get(name);
+      if (owner == null || owner == index) {
+        supplementaryClasses.putIfAbsent(name, bytes);
+      }
+    });
+  }
+
+  private static ModuleExports readArchive(Archive archive, Map<String, byte[]> classes) {
+    ModuleExports exports = ModuleExports.NONE;
+    try (JarInputStream jarFile = new JarInputStream(archive.openStream())) {
+      JarEntry entry;
+      while ((entry = jarFile.getNextJarEntry()) != null) {
+        String name = entry.getName();
+        if (name.equals(MODULE_PROPERTIES)) {
+          exports = ModuleExports.read(new ByteArrayInputStream(jarFile.readAllBytes()));
+        } else {
+          String internalName = ClassFile.toInternalName(name);
+          if (internalName != null) {
+            classes.putIfAbsent(internalName, jarFile.readAllBytes());
+          }
+        }
+      }
+    } catch (IOException e) {
+      LOG.debug("Failed to open the archive " + archive + " as a jar.", e);
+    }
+    return exports;
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import java.util.function.Consumer;
+
+/**
+ * Extracts the classes named by type descriptors and generic signatures of class files, as defined in JVMS 4.3 and 4.7.9.1.
+ *
+ * @since 1.10
+ */
+final class SignatureTypes {
+
+  private SignatureTypes() {}
+
+  /**
+   * @param signature descriptor or generic signature of a class, field or method
+   * @param consumer  receives the internal name of every class named by the signature, including type arguments and bounds
+   */
+  static void forEach(String signature, Consumer<String> consumer) {
+    int i = 0;
+    if (signature.charAt(0) == '<') {
+      i = parseTypeParameters(signature, 1, consumer);
+    }
+    while (i < signature.length()) {
+      char c = signature.charAt(i);
+      // Parameters and thrown types of a method signature
+      if (c == '(' || c == ')' || c == '^') {
+        i++;
+      } else {
+        i = parseType(signature, i, consumer);
+      }
+    }
+  }
+
+  private static int parseTypeParameters(String signature, int i, Consumer<String> consumer) {
+    while (signature.charAt(i) != '>') {
+      i = signature.indexOf(':', i);
+      // The class bound is empty when the parameter is only bound by interfaces
+      while (signature.charAt(i) == ':') {
+        i++;
+        if (signature.charAt(i) != ':') {
+          i = parseType(signature, i, consumer);
+        }
+      }
+    }
+    return i + 1;
+  }
+
+  private static int parseType(String signature, int i, Consumer<String> consumer) {
+    switch (signature.charAt(i)) {
+      case '[':
+        return parseType(signature, i + 1, consumer);
+      case 'T':
+        return signature.indexOf(';', i) + 1;
+      case 'L':
+        return parseClassType(signature, i + 1, consumer);
+      default:
+        // Primitive types and void
+        return i + 1;
+    }
+  }
+
+  private static int parseClassType(String signature, int i, Consumer<String> consumer) {
+    StringBuilder name = new StringBuilder();
+    while (true) {
+      int start = i;
+      char c = signature.charAt(i);
+      while (c != ';' && c != '<' && c != '.') {
+        c = signature.charAt(++i);
+      }
+      name.append(signature, start, i);
+      if (c == '<') {
+        i = parseTypeArguments(signature, i + 1, consumer);
+        c = signature.charAt(i);
+      }
+      if (c == ';') {
+        consumer.accept(name.toString());
+        return i + 1;
+      }
+      // Inner class of a parameterized outer class
+      name.append('$');
+      i++;
+    }
+  }
+
+  private static int parseTypeArguments(String signature, int i, Consumer<String> consumer) {
+    while (signature.charAt(i) != '>') {
+      char c = signature.charAt(i);
+      if (c == '*') {
+        i++;
+      } else {
+        i = parseType(signature, c == '+' || c == '-' ? i + 1 : i, consumer);
+      }
+    }
+    return i + 1;
+  }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.embedded;
+
+/**
+ * Thrown when an {@link ApiChecker} cannot complete an analysis.
+ *
+ * @since 1.10
+ */
+public final class ApiCheckException extends Exception {
+
+  private static final long serialVersionUID = 1L;
+
+  ApiCheckException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
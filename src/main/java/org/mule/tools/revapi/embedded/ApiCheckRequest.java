@@ -0,0 +1,238 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.embedded;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+
+import org.mule.tools.revapi.archive.InMemoryArchive;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.revapi.Archive;
+
+/**
+ * Archives and options of an analysis run by an {@link ApiChecker}.
+ * <p/>
+ * Requests are immutable, so the same request can be checked any number of times, from any thread.
+ *
+ * @since 1.10
+ */
+public final class ApiCheckRequest {
+
+  private final List<Archive> oldArchives;
+  private final List<Archive> newArchives;
+  private final List<Archive> supplementaryArchives;
+  private final boolean pruneSupplementaryArchives;
+  private final String configuration;
+  private final Map<String, Object> filterOptions;
+
+  private ApiCheckRequest(Builder builder) {
+    this.oldArchives = unmodifiableList(new ArrayList<>(builder.oldArchives));
+    this.newArchives = unmodifiableList(new ArrayList<>(builder.newArchives));
+    this.supplementaryArchives = unmodifiableList(new ArrayList<>(builder.supplementaryArchives));
+    this.pruneSupplementaryArchives = builder.pruneSupplementaryArchives;
+    this.configuration = builder.configuration;
+    this.filterOptions = unmodifiableMap(new LinkedHashMap<>(builder.filterOptions));
+  }
+
+  /**
+   * @return a builder of requests
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return archives of the old version of the API
+   */
+  public List<Archive> getOldArchives() {
+    return oldArchives;
+  }
+
+  /**
+   * @return archives of the new version of the API
+   */
+  public List<Archive> getNewArchives() {
+    return newArchives;
+  }
+
+  /**
+   * @return dependencies of both versions of the API
+   */
+  public List<Archive> getSupplementaryArchives() {
+    return supplementaryArchives;
+  }
+
+  /**
+   * @return true if only the supplementary archives with types reachable from the exported API of each version are analyzed
+   * @see org.mule.tools.revapi.archive.ReachableArchives
+   */
+  public boolean isPruneSupplementaryArchives() {
+    return pruneSupplementaryArchives;
+  }
+
+  /**
+   * @return the Revapi JSON configuration of the analysis
+   */
+  public String getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * @return options of the {@code mule.module.filter} extension that override the ones in the configuration
+   */
+  public Map<String, Object> getFilterOptions() {
+    return filterOptions;
+  }
+
+  /**
+   * Builds {@link ApiCheckRequest}s. Only the old and new archives are required.
+   */
+  public static final class Builder {
+
+    private final List<Archive> oldArchives = new ArrayList<>();
+    private final List<Archive> newArchives = new ArrayList<>();
+    private final List<Archive> supplementaryArchives = new ArrayList<>();
+    private boolean pruneSupplementaryArchives;
+    private String configuration = "{}";
+    private final Map<String, Object> filterOptions = new LinkedHashMap<>();
+
+    private Builder() {}
+
+    /**
+     * @param archives archives of the old version of the API
+     * @return this builder
+     */
+    public Builder withOldArchives(Collection<? extends Archive> archives) {
+      oldArchives.addAll(archives);
+      return this;
+    }
+
+    /**
+     * Loads the archives of the old version of the API into memory.
+     *
+     * @param paths jar files or class directories
+     * @return this builder
+     * @throws IOException if a path cannot be read
+     */
+    public Builder withOldArchivePaths(Collection<Path> paths) throws IOException {
+      return withOldArchives(load(paths));
+    }
+
+    /**
+     * @param archives archives of the new version of the API
+     * @return this builder
+     */
+    public Builder withNewArchives(Collection<? extends Archive> archives) {
+      newArchives.addAll(archives);
+      return this;
+    }
+
+    /**
+     * Loads the archives of the new version of the API into memory.
+     *
+     * @param paths jar files or class directories
+     * @return this builder
+     * @throws IOException if a path cannot be read
+     */
+    public Builder withNewArchivePaths(Collection<Path> paths) throws IOException {
+      return withNewArchives(load(paths));
+    }
+
+    /**
+     * @param archives dependencies of both versions of the API
+     * @return this builder
+     */
+    public Builder withSupplementaryArchives(Collection<? extends Archive> archives) {
+      supplementaryArchives.addAll(archives);
+      return this;
+    }
+
+    /**
+     * Loads the dependencies of both versions of the API into memory.
+     *
+     * @param paths jar files or class directories
+     * @return this builder
+     * @throws IOException if a path cannot be read
+     */
+    public Builder withSupplementaryArchivePaths(Collection<Path> paths) throws IOException {
+      return withSupplementaryArchives(load(paths));
+    }
+
+    /**
+     * @param pruneSupplementaryArchives true to analyze each version only with the supplementary archives that contain types
+     *                                   reachable from its exported API. Defaults to false.
+     * @return this builder
+     */
+    public Builder withPrunedSupplementaryArchives(boolean pruneSupplementaryArchives) {
+      this.pruneSupplementaryArchives = pruneSupplementaryArchives;
+      return this;
+    }
+
+    /**
+     * @param configuration Revapi JSON configuration, in any of the formats Revapi accepts. Defaults to an empty configuration.
+     * @return this builder
+     */
+    public Builder withConfiguration(String configuration) {
+      this.configuration = configuration;
+      return this;
+    }
+
+    /**
+     * @param liteMode value of the {@code liteMode} option of the filter
+     * @return this builder
+     */
+    public Builder withLiteMode(boolean liteMode) {
+      filterOptions.put("liteMode", liteMode);
+      return this;
+    }
+
+    /**
+     * @param failFast value of the {@code failFast} option of the filter
+     * @return this builder
+     */
+    public Builder withFailFast(boolean failFast) {
+      filterOptions.put("failFast", failFast);
+      return this;
+    }
+
+    /**
+     * @param scope value of the {@code scope} option of the filter
+     * @return this builder
+     */
+    public Builder withScope(Collection<String> scope) {
+      filterOptions.put("scope", new ArrayList<>(scope));
+      return this;
+    }
+
+    /**
+     * @return the request
+     * @throws IllegalStateException if the old or the new archives are missing
+     */
+    public ApiCheckRequest build() {
+      if (oldArchives.isEmpty() || newArchives.isEmpty()) {
+        throw new IllegalStateException("Both the old and the new archives must be set");
+      }
+      return new ApiCheckRequest(this);
+    }
+
+    private static List<Archive> load(Collection<Path> paths) throws IOException {
+      List<Archive> archives = new ArrayList<>();
+      for (Path path : paths) {
+        archives.add(InMemoryArchive.of(path));
+      }
+      return archives;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.embedded;
+
+import static java.util.Collections.unmodifiableList;
+
+import java.util.List;
+
+/**
+ * Differences found by an {@link ApiChecker}.
+ *
+ * @since 1.10
+ */
+public final class ApiCheckResult {
+
+  private final List<ApiDifference> differences;
+  private final List<ApiDifference> acceptedDifferences;
+  private final boolean complete;
+
+  ApiCheckResult(List<ApiDifference> differences, List<ApiDifference> acceptedDifferences, boolean complete) {
+    this.differences = unmodifiableList(differences);
+    this.acceptedDifferences = unmodifiableList(acceptedDifferences);
+    this.complete = complete;
+  }
+
+  /**
+   * @return the differences that reached the reporters, in the order they were found
+   */
+  public List<ApiDifference> getDifferences() {
+    return differences;
+  }
+
+  /**
+   * @return the differences accepted by the Mule API annotations, which are not part of {@link #getDifferences()}
+   */
+  public List<ApiDifference> getAcceptedDifferences() {
+    return acceptedDifferences;
+  }
+
+  /**
+   * @return true if any difference breaks the API
+   */
+  public boolean isBroken() {
+    return differences.stream().anyMatch(ApiDifference::isBreaking);
+  }
+
+  /**
+   * @return false if the analysis stopped early, as it does with the {@code failFast} option, so not every difference was found
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  @Override
+  public String toString() {
+    return "ApiCheckResult{differences=" + differences.size() + ", accepted=" + acceptedDifferences.size() + ", broken="
+        + isBroken() + ", complete=" + complete + "}";
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.embedded;
+
+import org.mule.tools.revapi.AnalysisSession;
+import org.mule.tools.revapi.archive.ReachableArchives;
+import org.mule.tools.revapi.cache.ReactorCache;
+import org.mule.tools.revapi.incremental.IncrementalKey;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.AnalysisResult;
+import org.revapi.Archive;
+import org.revapi.Difference;
+import org.revapi.Report;
+import org.revapi.Revapi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the API check of Mule modules in-process, with the same filter and transforms used by the Maven build.
+ * <p/>
+ * The checker keeps a pool of analyzers, each of them a Revapi instance holding the extension types found in the classpath, so
+ * they are only looked up once. Revapi creates new instances of the extensions for every analysis, so nothing an extension
+ * instance computes survives a check. What repeated checks reuse is a {@link ReactorCache} owned by the checker and handed to
+ * each analysis through its {@link AnalysisSession}: the classes of the supplementary archives, the classes none of them contain
+ * and the results computed from them stay in memory from one check to the next, as they do across the modules of a Maven build.
+ * Other analyses of the process are not affected, and closing the checker releases the cache along with the analyzers.
+ * <p/>
+ * A Revapi instance runs one analysis at a time, so each check borrows an analyzer from the pool and gives it back when it is
+ * done, waiting for one to be free if every analyzer is busy. The first analyzer is created with the checker, the others only
+ * when concurrent checks need them, so a checker used by a single thread starts as fast as possible.
+ * <p/>
+ * Checkers are thread safe: any number of threads can check requests concurrently, up to the size of the pool in parallel.
+ *
+ * @since 1.10
+ */
+public final class ApiChecker implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ApiChecker.class);
+
+  private static final String FILTER_EXTENSION_ID = "mule.module.filter";
+  private static final String CONFIGURATION_KEY = "configurationKey";
+
+  private final int maxAnalyzers;
+  private final BlockingQueue<Revapi> analyzers;
+  private final AtomicInteger createdAnalyzers = new AtomicInteger();
+  private final ReactorCache reactorCache = ReactorCache.create();
+  private ObjectMapper objectMapper;
+  private volatile boolean closed;
+
+  private ApiChecker(int maxAnalyzers) {
+    this.maxAnalyzers = maxAnalyzers;
+    this.analyzers = new ArrayBlockingQueue<>(maxAnalyzers);
+    createdAnalyzers.incrementAndGet();
+    analyzers.add(createAnalyzer());
+  }
+
+  /**
+   * @return a checker with one analyzer per available processor
+   */
+  public static ApiChecker create() {
+    return create(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param analyzers number of analyzers in the pool, which is the number of checks that can run in parallel
+   * @return the checker
+   */
+  public static ApiChecker create(int analyzers) {
+    if (analyzers < 1) {
+      throw new IllegalArgumentException("At least one analyzer is required, got " + analyzers);
+    }
+    return new ApiChecker(analyzers);
+  }
+
+  /**
+   * Checks the compatibility of the new archives of a request with the old ones.
+   *
+   * @param request archives and options of the analysis
+   * @return the differences found
+   * @throws ApiCheckException    if the analysis fails
+   * @throws InterruptedException if the thread is interrupted while waiting for a free analyzer
+   */
+  public ApiCheckResult check(ApiCheckRequest request) throws ApiCheckException, InterruptedException {
+    if (closed) {
+      throw new IllegalStateException("API checker is closed");
+    }
+
+    AnalysisContext analysisContext;
+    try {
+      analysisContext = AnalysisContext.builder()
+          .withOldAPI(getApi(request.getOldArchives(), request))
+          .withNewAPI(getApi(request.getNewArchives(), request))
+          .withConfigurationFromJSON(getConfiguration(request))
+          .build();
+    } catch (IOException | RuntimeException e) {
+      throw new ApiCheckException("Invalid configuration of the API check", e);
+    }
+
+    List<ApiDifference> differences = new ArrayList<>();
+    List<ApiDifference> acceptedDifferences = new ArrayList<>();
+    boolean complete;
+    Revapi revapi = borrowAnalyzer();
+    AnalysisSession session = AnalysisSession.acquire(analysisContext);
+    session.setReactorCache(reactorCache);
+    try {
+      session.addReportListener(report -> add(report, differences));
+      session.addAcceptListener(report -> add(report, acceptedDifferences));
+      try (AnalysisResult result = revapi.analyze(analysisContext)) {
+        result.throwIfFailed();
+      }
+      complete = !session.isAborted();
+    } catch (Exception e) {
+      throw new ApiCheckException("API check failed", e);
+    } finally {
+      session.release();
+      analyzers.add(revapi);
+      if (closed) {
+        analyzers.clear();
+      }
+    }
+    return new ApiCheckResult(differences, acceptedDifferences, complete);
+  }
+
+  private static API getApi(List<Archive> archives, ApiCheckRequest request) {
+    List<Archive> supplementaryArchives = request.getSupplementaryArchives();
+    if (request.isPruneSupplementaryArchives() && !supplementaryArchives.isEmpty()) {
+      long start = System.nanoTime();
+      supplementaryArchives = ReachableArchives.select(archives, supplementaryArchives);
+      LOG.info("Analyzing " + archives + " with the " + supplementaryArchives.size() + " of "
+          + request.getSupplementaryArchives().size() + " supplementary archives reachable from its exported API, selected in "
+          + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+    return API.of(archives).supportedBy(supplementaryArchives).build();
+  }
+
+  private Revapi borrowAnalyzer() throws InterruptedException {
+    Revapi revapi = analyzers.poll();
+    if (revapi != null) {
+      return revapi;
+    }
+    int created = createdAnalyzers.get();
+    while (created < maxAnalyzers) {
+      if (createdAnalyzers.compareAndSet(created, created + 1)) {
+        return createAnalyzer();
+      }
+      created = createdAnalyzers.get();
+    }
+    return analyzers.take();
+  }
+
+  private static Revapi createAnalyzer() {
+    return Revapi.builder().withAllExtensionsFrom(ApiChecker.class.getClassLoader()).build();
+  }
+
+  private static void add(Report report, List<ApiDifference> differences) {
+    for (Difference difference : report.getDifferences()) {
+      differences.add(ApiDifference.of(report, difference));
+    }
+  }
+
+  /**
+   * @return the configuration of the request, with its filter options set in the {@value #FILTER_EXTENSION_ID} extension, along
+   *         with a hash of the whole configuration identifying it to the incremental analysis
+   */
+  private String getConfiguration(ApiCheckRequest request) throws IOException {
+    ObjectMapper objectMapper = getObjectMapper();
+    JsonNode root = objectMapper.readTree(request.getConfiguration());
+    String configurationKey = IncrementalKey.hash(root.toString());
+    ObjectNode filterConfiguration;
+    if (root instanceof ArrayNode) {
+      filterConfiguration = null;
+      for (JsonNode extension : root) {
+        if (FILTER_EXTENSION_ID.equals(extension.path("extension").asText(null)) && extension instanceof ObjectNode) {
+          filterConfiguration = getOrCreateObject((ObjectNode) extension, "configuration");
+        }
+      }
+      if (filterConfiguration == null) {
+        ObjectNode extension = ((ArrayNode) root).addObject();
+        extension.put("extension", FILTER_EXTENSION_ID);
+        filterConfiguration = extension.putObject("configuration");
+      }
+    } else {
+      if (!(root instanceof ObjectNode)) {
+        root = objectMapper.createObjectNode();
+      }
+      filterConfiguration = (ObjectNode) root;
+      for (String segment : FILTER_EXTENSION_ID.split("\\.")) {
+        filterConfiguration = getOrCreateObject(filterConfiguration, segment);
+      }
+    }
+
+    filterConfiguration.put(CONFIGURATION_KEY, configurationKey);
+    for (Map.Entry<String, Object> option : request.getFilterOptions().entrySet()) {
+      filterConfiguration.set(option.getKey(), objectMapper.valueToTree(option.getValue()));
+    }
+    return objectMapper.writeValueAsString(root);
+  }
+
+  private synchronized ObjectMapper getObjectMapper() {
+    if (objectMapper == null) {
+      objectMapper = new ObjectMapper();
+    }
+    return objectMapper;
+  }
+
+  private static ObjectNode getOrCreateObject(ObjectNode parent, String field) {
+    JsonNode child = parent.get(field);
+    return child instanceof ObjectNode ? (ObjectNode) child : parent.putObject(field);
+  }
+
+  /**
+   * Stops accepting checks and releases the analyzers and the cache of the checker. Checks already running complete normally.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    analyzers.clear();
+    reactorCache.clear();
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.embedded;
+
+import static org.mule.tools.revapi.SessionReporter.getTopLevelTypeName;
+
+import org.revapi.Difference;
+import org.revapi.DifferenceSeverity;
+import org.revapi.Element;
+import org.revapi.Report;
+
+/**
+ * An API difference found by an {@link ApiChecker}, detached from the Revapi model of the analysis.
+ *
+ * @since 1.10
+ */
+public final class ApiDifference {
+
+  private final String code;
+  private final String description;
+  private final String element;
+  private final String type;
+  private final DifferenceSeverity severity;
+
+  private ApiDifference(String code, String description, String element, String type, DifferenceSeverity severity) {
+    this.code = code;
+    this.description = description;
+    this.element = element;
+    this.type = type;
+    this.severity = severity;
+  }
+
+  /**
+   * @param report     report of the difference
+   * @param difference one of the differences of the report
+   * @return the detached difference
+   */
+  static ApiDifference of(Report report, Difference difference) {
+    Element element = report.getNewElement() != null ? report.getNewElement() : report.getOldElement();
+    String type = getTopLevelTypeName(element);
+    return new ApiDifference(difference.code, difference.description, element.getFullHumanReadableString(),
+                             type == null ? "" : type, getSeverity(difference));
+  }
+
+  /**
+   * @return Revapi code of the difference
+   */
+  public String getCode() {
+    return code;
+  }
+
+  /**
+   * @return human readable description of the difference. Can be null.
+   */
+  public String getDescription() {
+    return description;
+  }
+
+  /**
+   * @return signature of the element with the difference
+   */
+  public String getElement() {
+    return element;
+  }
+
+  /**
+   * @return canonical name of the top level type containing the element, empty if it is not part of a type
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * @return highest severity of the difference
+   */
+  public DifferenceSeverity getSeverity() {
+    return severity;
+  }
+
+  /**
+   * @return true if the difference breaks the API
+   */
+  public boolean isBreaking() {
+    return severity == DifferenceSeverity.BREAKING;
+  }
+
+  private static DifferenceSeverity getSeverity(Difference difference) {
+    DifferenceSeverity severity = DifferenceSeverity.EQUIVALENT;
+    for (DifferenceSeverity classification : difference.classification.values()) {
+      if (classification.compareTo(severity) > 0) {
+        severity = classification;
+      }
+    }
+    return severity;
+  }
+
+  @Override
+  public String toString() {
+    return "[" + severity + "] " + code + ": " + element;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers questions about the evolution of the APIs recorded in a {@link HistoryStore}, from the command line.
+ *
+ * @since 1.10
+ */
+public final class HistoryQuery {
+
+  static final String USAGE = "Usage: HistoryQuery <directory> <command>\n"
+      + "Commands:\n"
+      + "  modules                                   lists the recorded modules\n"
+      + "  releases <module>                         lists the analyses of a module with their totals\n"
+      + "  breaks <module> <element>                 lists the differences of the elements containing the given text\n"
+      + "  churn <module> [NoExtend|NoImplement|NoInstantiate] [limit]\n"
+      + "                                            lists the types with the most differences, optionally only the ones\n"
+      + "                                            with an annotation";
+
+  private static final int SUCCESS = 0;
+  private static final int ERROR = 2;
+  private static final int DEFAULT_LIMIT = 20;
+
+  private final HistoryStore store;
+  private final PrintStream out;
+
+  private HistoryQuery(HistoryStore store, PrintStream out) {
+    this.store = store;
+    this.out = out;
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out));
+  }
+
+  /**
+   * Runs a query.
+   *
+   * @param args command line arguments. See {@link #USAGE}
+   * @param out  where to print the results
+   * @return the exit code: 0 if the query ran, 2 otherwise
+   */
+  static int run(String[] args, PrintStream out) {
+    if (args.length < 2) {
+      out.println(USAGE);
+      return ERROR;
+    }
+
+    HistoryQuery query = new HistoryQuery(HistoryStore.open(Paths.get(args[0])), out);
+    try {
+      switch (args[1]) {
+        case "modules":
+          query.modules();
+          return SUCCESS;
+        case "releases":
+          if (args.length == 3) {
+            query.releases(args[2]);
+            return SUCCESS;
+          }
+          break;
+        case "breaks":
+          if (args.length == 4) {
+            query.breaks(args[2], args[3]);
+            return SUCCESS;
+          }
+          break;
+        case "churn":
+          if (args.length >= 3 && args.length <= 5) {
+            query.churn(args[2], args.length > 3 ? args[3] : null, args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_LIMIT);
+            return SUCCESS;
+          }
+          break;
+        default:
+          break;
+      }
+    } catch (IllegalArgumentException e) {
+      out.println(e.getMessage());
+    } catch (IOException e) {
+      out.println("History query failed: " + e);
+      return ERROR;
+    }
+    out.println(USAGE);
+    return ERROR;
+  }
+
+  private void modules() throws IOException {
+    store.getModules().forEach(out::println);
+  }
+
+  private void releases(String module) throws IOException {
+    for (HistoryStore.Entry entry : store.getEntries(module)) {
+      out.println(entry.getOldVersion() + " -> " + entry.getNewVersion() + ": " + entry.getDifferences() + " differences, "
+          + entry.getBreakingDifferences() + " breaking, " + entry.getAcceptedDifferences() + " accepted (recorded "
+          + Instant.ofEpochMilli(entry.getTimestamp()) + ")");
+    }
+  }
+
+  private void breaks(String module, String element) throws IOException {
+    for (HistoryStore.Entry entry : store.getEntries(module)) {
+      // The catalog tells which segments have nothing to report, without reading them
+      if (entry.getBreakingDifferences() + entry.getAcceptedDifferences() == 0) {
+        continue;
+      }
+      List<HistoryRecord> records = store.readSegment(entry).findByElement(signature -> signature.contains(element));
+      for (HistoryRecord record : records) {
+        if (record.isBreaking() || record.hasFlag(HistoryRecord.ACCEPTED)) {
+          out.println(entry.getOldVersion() + " -> " + entry.getNewVersion() + " " + record);
+        }
+      }
+    }
+  }
+
+  private void churn(String module, String annotation, int limit) throws IOException {
+    int flag = getAnnotationFlag(annotation);
+    Map<String, Integer> counts = new HashMap<>();
+    for (HistoryStore.Entry entry : store.getEntries(module)) {
+      store.readSegment(entry).countByType(flag).forEach((type, count) -> counts.merge(type, count, Integer::sum));
+    }
+    counts.entrySet().stream()
+        .filter(count -> !count.getKey().isEmpty())
+        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+        .limit(limit)
+        .forEach(count -> out.println(count.getValue() + "\t" + count.getKey()));
+  }
+
+  private static int getAnnotationFlag(String annotation) {
+    if (annotation == null) {
+      return 0;
+    }
+    switch (annotation) {
+      case "NoExtend":
+        return HistoryRecord.NO_EXTEND;
+      case "NoImplement":
+        return HistoryRecord.NO_IMPLEMENT;
+      case "NoInstantiate":
+        return HistoryRecord.NO_INSTANTIATE;
+      default:
+        throw new IllegalArgumentException("Unknown annotation " + annotation);
+    }
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import org.revapi.DifferenceSeverity;
+
+/**
+ * A difference found by an analysis, as kept in the {@link HistoryStore}.
+ *
+ * @since 1.10
+ */
+public final class HistoryRecord {
+
+  /**
+   * Flag of the differences accepted by a Mule API annotation, which never reached the reporters.
+   */
+  public static final int ACCEPTED = 1;
+
+  /**
+   * Flag of the differences on a type annotated with {@code NoExtend}.
+   */
+  public static final int NO_EXTEND = 1 << 1;
+
+  /**
+   * Flag of the differences on a type annotated with {@code NoImplement}.
+   */
+  public static final int NO_IMPLEMENT = 1 << 2;
+
+  /**
+   * Flag of the differences on a type annotated with {@code NoInstantiate}.
+   */
+  public static final int NO_INSTANTIATE = 1 << 3;
+
+  private final String code;
+  private final String element;
+  private final String type;
+  private final DifferenceSeverity severity;
+  private final int flags;
+
+  /**
+   * @param code     Revapi code of the difference
+   * @param element  signature of the element with the difference
+   * @param type     canonical name of the type declaring the element, empty if there is none
+   * @param severity highest severity of the difference
+   * @param flags    combination of {@link #ACCEPTED}, {@link #NO_EXTEND}, {@link #NO_IMPLEMENT} and {@link #NO_INSTANTIATE}
+   */
+  public HistoryRecord(String code, String element, String type, DifferenceSeverity severity, int flags) {
+    this.code = code;
+    this.element = element;
+    this.type = type;
+    this.severity = severity;
+    this.flags = flags;
+  }
+
+  /**
+   * @return Revapi code of the difference
+   */
+  public String getCode() {
+    return code;
+  }
+
+  /**
+   * @return signature of the element with the difference
+   */
+  public String getElement() {
+    return element;
+  }
+
+  /**
+   * @return canonical name of the type declaring the element, empty if there is none
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * @return highest severity of the difference
+   */
+  public DifferenceSeverity getSeverity() {
+    return severity;
+  }
+
+  /**
+   * @return flags of the difference
+   */
+  public int getFlags() {
+    return flags;
+  }
+
+  /**
+   * @param flag one of the flags of this class
+   * @return true if the difference has the flag
+   */
+  public boolean hasFlag(int flag) {
+    return (flags & flag) != 0;
+  }
+
+  /**
+   * @return true if the difference is breaking and was not accepted by a Mule API annotation
+   */
+  public boolean isBreaking() {
+    return severity == DifferenceSeverity.BREAKING && !hasFlag(ACCEPTED);
+  }
+
+  @Override
+  public String toString() {
+    return "[" + severity + (hasFlag(ACCEPTED) ? ", accepted" : "") + "] " + code + ": " + element;
+  }
+}
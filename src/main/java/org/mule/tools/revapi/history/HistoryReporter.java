@@ -0,0 +1,195 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.mule.api.annotation.NoExtend;
+import org.mule.api.annotation.NoImplement;
+import org.mule.api.annotation.NoInstantiate;
+import org.mule.tools.revapi.AnalysisSession;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.Archive;
+import org.revapi.Difference;
+import org.revapi.DifferenceSeverity;
+import org.revapi.Element;
+import org.revapi.Report;
+import org.revapi.Reporter;
+import org.revapi.java.model.TypeElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Records the differences found by the analysis in a {@link HistoryStore}, including the ones the Mule API annotations accepted.
+ * <p/>
+ * Disabled unless the {@code directory} of the store is configured in the {@code mule.module.history} extension configuration.
+ * Nothing is recorded when the analysis is aborted, as its results are incomplete.
+ *
+ * @since 1.10
+ */
+public final class HistoryReporter implements Reporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(HistoryReporter.class);
+
+  private static final String SCHEMA = "/META-INF/mule-module-history-config-schema.json";
+  private static final String DIRECTORY = "directory";
+  private static final String MODULE = "module";
+
+  private final List<HistoryRecord> records = new ArrayList<>();
+  private AnalysisSession session;
+  private Path directory;
+  private String module;
+  private String oldVersion;
+  private String newVersion;
+
+  @Override
+  public String getExtensionId() {
+    return "mule.module.history";
+  }
+
+  @Override
+  public Reader getJSONSchema() {
+    return new InputStreamReader(getClass().getResourceAsStream(SCHEMA), UTF_8);
+  }
+
+  @Override
+  public void initialize(AnalysisContext analysisContext) {
+    JsonNode configuration = analysisContext.getConfigurationNode();
+    String configuredDirectory = configuration == null ? null : configuration.path(DIRECTORY).asText(null);
+    if (configuredDirectory == null || configuredDirectory.isEmpty()) {
+      return;
+    }
+
+    String configuredModule = configuration.path(MODULE).asText(null);
+    module = configuredModule == null || configuredModule.isEmpty() ? getModuleName(analysisContext.getNewApi())
+        : configuredModule;
+    if (module == null) {
+      LOG.warn("The analyzed archives are not Maven artifacts, set the module to record their API differences");
+      return;
+    }
+    directory = Paths.get(configuredDirectory);
+    oldVersion = getVersion(analysisContext.getOldApi());
+    newVersion = getVersion(analysisContext.getNewApi());
+
+    session = AnalysisSession.acquire(analysisContext);
+    session.addAcceptListener(report -> add(report, HistoryRecord.ACCEPTED));
+  }
+
+  @Override
+  public void report(Report report) {
+    if (session != null) {
+      add(report, 0);
+    }
+  }
+
+  private synchronized void add(Report report, int flags) {
+    Element element = report.getNewElement() != null ? report.getNewElement() : report.getOldElement();
+    TypeElement type = getEnclosingType(element);
+    int recordFlags = flags | getAnnotationFlags(type);
+    String typeName = type == null ? "" : type.getCanonicalName();
+    for (Difference difference : report.getDifferences()) {
+      records.add(new HistoryRecord(difference.code, element.getFullHumanReadableString(), typeName, getSeverity(difference),
+                                    recordFlags));
+    }
+  }
+
+  private static TypeElement getEnclosingType(Element element) {
+    for (Element current = element; current != null; current = current.getParent()) {
+      if (current instanceof TypeElement) {
+        return (TypeElement) current;
+      }
+    }
+    return null;
+  }
+
+  private static int getAnnotationFlags(TypeElement type) {
+    if (type == null) {
+      return 0;
+    }
+    javax.lang.model.element.TypeElement declaration = type.getDeclaringElement();
+    int flags = 0;
+    if (declaration.getAnnotation(NoExtend.class) != null) {
+      flags |= HistoryRecord.NO_EXTEND;
+    }
+    if (declaration.getAnnotation(NoImplement.class) != null) {
+      flags |= HistoryRecord.NO_IMPLEMENT;
+    }
+    if (declaration.getAnnotation(NoInstantiate.class) != null) {
+      flags |= HistoryRecord.NO_INSTANTIATE;
+    }
+    return flags;
+  }
+
+  private static DifferenceSeverity getSeverity(Difference difference) {
+    DifferenceSeverity severity = DifferenceSeverity.EQUIVALENT;
+    for (DifferenceSeverity classification : difference.classification.values()) {
+      if (classification.compareTo(severity) > 0) {
+        severity = classification;
+      }
+    }
+    return severity;
+  }
+
+  /**
+   * @return groupId:artifactId of the first archive, so every version of the module is recorded under the same name, or null if
+   *         its name is not a Maven coordinate
+   */
+  static String getModuleName(API api) {
+    for (Archive archive : api.getArchives()) {
+      // groupId:artifactId[:extension[:classifier]]:version
+      String[] coordinates = archive.getName().split(":");
+      return coordinates.length < 3 ? null : coordinates[0] + ":" + coordinates[1];
+    }
+    return null;
+  }
+
+  private static String getVersion(API api) {
+    StringJoiner version = new StringJoiner(",");
+    for (Archive archive : api.getArchives()) {
+      version.add(archive instanceof Archive.Versioned ? ((Archive.Versioned) archive).getVersion() : archive.getName());
+    }
+    return version.toString();
+  }
+
+  @Override
+  public void close() {
+    if (session == null) {
+      return;
+    }
+
+    try {
+      if (session.isAborted()) {
+        LOG.info("Analysis was aborted, its API differences are not recorded");
+      } else {
+        HistoryStore.Entry entry;
+        synchronized (this) {
+          entry = HistoryStore.open(directory).append(module, oldVersion, newVersion, records);
+        }
+        LOG.info("Recorded " + entry.getDifferences() + " API differences (" + entry.getAcceptedDifferences() + " accepted) of "
+            + module + " " + oldVersion + " -> " + newVersion + " in " + directory);
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to record the API differences in " + directory, e);
+    } finally {
+      session.release();
+      session = null;
+    }
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.revapi.DifferenceSeverity;
+
+/**
+ * Differences found by one analysis, stored by column.
+ * <p/>
+ * Every string is kept once in a sorted dictionary, and the columns hold indexes into it, so a query matches the dictionary
+ * first and then only scans the columns it needs:
+ *
+ * <pre>
+ * segment    := magic:int version:int rows:int dictionary code:int[rows] element:int[rows] type:int[rows]
+ *               severity:byte[rows] flags:byte[rows]
+ * dictionary := count:int (length:int utf8:byte[length])[count]
+ * </pre>
+ *
+ * @since 1.10
+ */
+final class HistorySegment {
+
+  private static final int MAGIC = 0x4D524853;
+  private static final int VERSION = 1;
+  private static final DifferenceSeverity[] SEVERITIES = DifferenceSeverity.values();
+
+  private final String[] dictionary;
+  private final int[] codes;
+  private final int[] elements;
+  private final int[] types;
+  private final byte[] severities;
+  private final byte[] flags;
+
+  private HistorySegment(String[] dictionary, int[] codes, int[] elements, int[] types, byte[] severities, byte[] flags) {
+    this.dictionary = dictionary;
+    this.codes = codes;
+    this.elements = elements;
+    this.types = types;
+    this.severities = severities;
+    this.flags = flags;
+  }
+
+  /**
+   * Writes the records of an analysis.
+   *
+   * @param file    file to write
+   * @param records records to write
+   * @throws IOException if the file cannot be written
+   */
+  static void write(Path file, List<HistoryRecord> records) throws IOException {
+    TreeSet<String> strings = new TreeSet<>();
+    for (HistoryRecord record : records) {
+      strings.add(record.getCode());
+      strings.add(record.getElement());
+      strings.add(record.getType());
+    }
+    String[] dictionary = strings.toArray(new String[0]);
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(records.size());
+      out.writeInt(dictionary.length);
+      for (String string : dictionary) {
+        byte[] bytes = string.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+      for (HistoryRecord record : records) {
+        out.writeInt(Arrays.binarySearch(dictionary, record.getCode()));
+      }
+      for (HistoryRecord record : records) {
+        out.writeInt(Arrays.binarySearch(dictionary, record.getElement()));
+      }
+      for (HistoryRecord record : records) {
+        out.writeInt(Arrays.binarySearch(dictionary, record.getType()));
+      }
+      for (HistoryRecord record : records) {
+        out.writeByte(record.getSeverity().ordinal());
+      }
+      for (HistoryRecord record : records) {
+        out.writeByte(record.getFlags());
+      }
+    }
+  }
+
+  /**
+   * @param file file written by {@link #write(Path, List)}
+   * @return the segment
+   * @throws IOException if the file cannot be read or is not a segment of this version
+   */
+  static HistorySegment read(Path file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException(file + " is not a history segment of version " + VERSION);
+      }
+      int rows = in.readInt();
+      String[] dictionary = new String[in.readInt()];
+      for (int i = 0; i < dictionary.length; i++) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        dictionary[i] = new String(bytes, UTF_8);
+      }
+      int[] codes = readInts(in, rows);
+      int[] elements = readInts(in, rows);
+      int[] types = readInts(in, rows);
+      byte[] severities = new byte[rows];
+      in.readFully(severities);
+      byte[] flags = new byte[rows];
+      in.readFully(flags);
+      return new HistorySegment(dictionary, codes, elements, types, severities, flags);
+    }
+  }
+
+  /**
+   * @return number of records in the segment
+   */
+  int size() {
+    return codes.length;
+  }
+
+  /**
+   * @param row index of the record
+   * @return the record
+   */
+  HistoryRecord get(int row) {
+    return new HistoryRecord(dictionary[codes[row]], dictionary[elements[row]], dictionary[types[row]],
+                             SEVERITIES[severities[row]], flags[row]);
+  }
+
+  /**
+   * @param elementMatcher matches element signatures
+   * @return the records of the matching elements
+   */
+  List<HistoryRecord> findByElement(Predicate<String> elementMatcher) {
+    BitSet matchingStrings = new BitSet(dictionary.length);
+    for (int i = 0; i < dictionary.length; i++) {
+      if (elementMatcher.test(dictionary[i])) {
+        matchingStrings.set(i);
+      }
+    }
+
+    List<HistoryRecord> records = new ArrayList<>();
+    if (!matchingStrings.isEmpty()) {
+      for (int row = 0; row < elements.length; row++) {
+        if (matchingStrings.get(elements[row])) {
+          records.add(get(row));
+        }
+      }
+    }
+    return records;
+  }
+
+  /**
+   * @param flag flag of the records to count, or 0 to count every record
+   * @return number of records with the flag, per type
+   */
+  Map<String, Integer> countByType(int flag) {
+    Map<String, Integer> counts = new HashMap<>();
+    for (int row = 0; row < types.length; row++) {
+      if (flag == 0 || (flags[row] & flag) != 0) {
+        counts.merge(dictionary[types[row]], 1, Integer::sum);
+      }
+    }
+    return counts;
+  }
+
+  private static int[] readInts(DataInputStream in, int count) throws IOException {
+    int[] values = new int[count];
+    for (int i = 0; i < count; i++) {
+      values[i] = in.readInt();
+    }
+    return values;
+  }
+}
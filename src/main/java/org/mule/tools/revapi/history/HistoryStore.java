@@ -0,0 +1,229 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Local store of the differences found by the analyses of each module, so questions about the evolution of an API can be
+ * answered without running Revapi again.
+ * <p/>
+ * Each analysis is kept in its own {@link HistorySegment} file, and a catalog lists the segments with the module and versions
+ * they compare, along with their totals. The catalog is the index of the store: queries on totals only read it, and the other
+ * queries only read the segments of the module they are about. When the same versions of a module are analyzed again, the new
+ * segment replaces the old one.
+ * <p/>
+ * Appends are serialized with a file lock, so parallel builds can share a store.
+ *
+ * @since 1.10
+ */
+public final class HistoryStore {
+
+  /**
+   * Name of the catalog file in the store directory.
+   */
+  public static final String CATALOG_FILE = "catalog.tsv";
+
+  private static final String LOCK_FILE = ".lock";
+  private static final String SEGMENTS_DIRECTORY = "segments";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final String SEPARATOR = "\t";
+
+  private final Path directory;
+
+  private HistoryStore(Path directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * @param directory directory of the store. Created on the first append if it does not exist.
+   * @return the store
+   */
+  public static HistoryStore open(Path directory) {
+    return new HistoryStore(directory);
+  }
+
+  /**
+   * Adds the differences found by an analysis.
+   *
+   * @param module     name of the analyzed module
+   * @param oldVersion version the module was compared against
+   * @param newVersion analyzed version of the module
+   * @param records    differences found
+   * @return the catalog entry of the analysis
+   * @throws IOException if the store cannot be written
+   */
+  public Entry append(String module, String oldVersion, String newVersion, List<HistoryRecord> records) throws IOException {
+    Files.createDirectories(directory.resolve(SEGMENTS_DIRECTORY));
+    try (FileChannel lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), CREATE, WRITE);
+        FileLock lock = lockChannel.lock()) {
+      int sequence = readCatalog().size();
+      String segment = SEGMENTS_DIRECTORY + "/" + sequence + SEGMENT_SUFFIX;
+      HistorySegment.write(directory.resolve(segment), records);
+
+      Entry entry = new Entry(segment, module, oldVersion, newVersion, System.currentTimeMillis(), records.size(),
+                              (int) records.stream().filter(HistoryRecord::isBreaking).count(),
+                              (int) records.stream().filter(record -> record.hasFlag(HistoryRecord.ACCEPTED)).count());
+      // The catalog line is written last, so a failed append leaves no trace in the catalog
+      Files.write(directory.resolve(CATALOG_FILE), (entry.toLine() + "\n").getBytes(UTF_8), CREATE, WRITE, APPEND);
+      return entry;
+    }
+  }
+
+  /**
+   * @return names of the modules in the store, sorted
+   * @throws IOException if the catalog cannot be read
+   */
+  public List<String> getModules() throws IOException {
+    TreeSet<String> modules = new TreeSet<>();
+    readCatalog().forEach(entry -> modules.add(entry.getModule()));
+    return new ArrayList<>(modules);
+  }
+
+  /**
+   * @param module name of a module
+   * @return the latest analysis of each pair of versions of the module, in the order they were first analyzed
+   * @throws IOException if the catalog cannot be read
+   */
+  public List<Entry> getEntries(String module) throws IOException {
+    Map<String, Entry> entries = new LinkedHashMap<>();
+    for (Entry entry : readCatalog()) {
+      if (entry.getModule().equals(module)) {
+        entries.put(entry.getOldVersion() + SEPARATOR + entry.getNewVersion(), entry);
+      }
+    }
+    return new ArrayList<>(entries.values());
+  }
+
+  /**
+   * @param entry catalog entry
+   * @return the differences of the analysis
+   * @throws IOException if the segment cannot be read
+   */
+  HistorySegment readSegment(Entry entry) throws IOException {
+    return HistorySegment.read(directory.resolve(entry.getSegment()));
+  }
+
+  private List<Entry> readCatalog() throws IOException {
+    Path catalog = directory.resolve(CATALOG_FILE);
+    List<Entry> entries = new ArrayList<>();
+    if (Files.exists(catalog)) {
+      for (String line : Files.readAllLines(catalog, UTF_8)) {
+        String[] columns = line.split(SEPARATOR);
+        if (columns.length == 8) {
+          entries.add(new Entry(columns[0], columns[1], columns[2], columns[3], Long.parseLong(columns[4]),
+                                Integer.parseInt(columns[5]), Integer.parseInt(columns[6]), Integer.parseInt(columns[7])));
+        }
+      }
+    }
+    return entries;
+  }
+
+  /**
+   * An analysis listed in the catalog.
+   */
+  public static final class Entry {
+
+    private final String segment;
+    private final String module;
+    private final String oldVersion;
+    private final String newVersion;
+    private final long timestamp;
+    private final int differences;
+    private final int breakingDifferences;
+    private final int acceptedDifferences;
+
+    private Entry(String segment, String module, String oldVersion, String newVersion, long timestamp, int differences,
+                  int breakingDifferences, int acceptedDifferences) {
+      this.segment = segment;
+      this.module = clean(module);
+      this.oldVersion = clean(oldVersion);
+      this.newVersion = clean(newVersion);
+      this.timestamp = timestamp;
+      this.differences = differences;
+      this.breakingDifferences = breakingDifferences;
+      this.acceptedDifferences = acceptedDifferences;
+    }
+
+    String getSegment() {
+      return segment;
+    }
+
+    /**
+     * @return name of the analyzed module
+     */
+    public String getModule() {
+      return module;
+    }
+
+    /**
+     * @return version the module was compared against
+     */
+    public String getOldVersion() {
+      return oldVersion;
+    }
+
+    /**
+     * @return analyzed version of the module
+     */
+    public String getNewVersion() {
+      return newVersion;
+    }
+
+    /**
+     * @return when the analysis was stored, in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+      return timestamp;
+    }
+
+    /**
+     * @return number of differences found, including the accepted ones
+     */
+    public int getDifferences() {
+      return differences;
+    }
+
+    /**
+     * @return number of breaking differences that were not accepted
+     */
+    public int getBreakingDifferences() {
+      return breakingDifferences;
+    }
+
+    /**
+     * @return number of differences accepted by Mule API annotations
+     */
+    public int getAcceptedDifferences() {
+      return acceptedDifferences;
+    }
+
+    private String toLine() {
+      return String.join(SEPARATOR, segment, module, oldVersion, newVersion, Long.toString(timestamp),
+                         Integer.toString(differences), Integer.toString(breakingDifferences),
+                         Integer.toString(acceptedDifferences));
+    }
+
+    private static String clean(String value) {
+      return value.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.incremental;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Key of the {@link IncrementalResults}, identifying everything besides the compared types that decides the outcome of an
+ * analysis: the whole Revapi configuration, the code of this extension and the compared archives.
+ * <p/>
+ * The code of the extension is identified by the SHA-256 of the jar or class directory it is loaded from, so results are
+ * discarded after any rebuild of the extension, even one that keeps its version.
+ *
+ * @since 1.10
+ */
+public final class IncrementalKey {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+
+  private static String extensionHash;
+
+  private IncrementalKey() {}
+
+  /**
+   * @param configuration text identifying the whole Revapi configuration of the analysis
+   * @param oldArchives   names of the archives of the old version of the API
+   * @param newArchives   names of the archives of the new version of the API
+   * @return hexadecimal key of the analysis
+   * @throws IOException if the code of the extension cannot be read
+   */
+  public static String of(String configuration, List<String> oldArchives, List<String> newArchives) throws IOException {
+    MessageDigest digest = newDigest();
+    update(digest, "configuration=" + configuration);
+    update(digest, "extension=" + getExtensionHash());
+    update(digest, "old=" + oldArchives);
+    update(digest, "new=" + newArchives);
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * @param configuration Revapi configuration
+   * @return hexadecimal SHA-256 of the configuration
+   */
+  public static String hash(String configuration) {
+    return HexFormat.of().formatHex(newDigest().digest(configuration.getBytes(UTF_8)));
+  }
+
+  private static synchronized String getExtensionHash() throws IOException {
+    if (extensionHash == null) {
+      CodeSource codeSource = IncrementalKey.class.getProtectionDomain().getCodeSource();
+      if (codeSource == null || codeSource.getLocation() == null) {
+        throw new IOException("Unknown location of the code of the extension");
+      }
+
+      Path location;
+      try {
+        location = Paths.get(codeSource.getLocation().toURI());
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        throw new IOException("Unsupported location of the code of the extension: " + codeSource.getLocation(), e);
+      }
+
+      MessageDigest digest = newDigest();
+      if (Files.isDirectory(location)) {
+        // Classes of the build, hashed in a stable order along with their paths
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(location)) {
+          files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+          update(digest, location.relativize(file).toString().replace('\\', '/'));
+          update(digest, file);
+        }
+      } else {
+        update(digest, location);
+      }
+      extensionHash = HexFormat.of().formatHex(digest.digest());
+    }
+    return extensionHash;
+  }
+
+  private static void update(MessageDigest digest, String value) {
+    digest.update(value.getBytes(UTF_8));
+    digest.update((byte) 0);
+  }
+
+  private static void update(MessageDigest digest, Path file) throws IOException {
+    byte[] buffer = new byte[8192];
+    try (InputStream is = Files.newInputStream(file)) {
+      int read;
+      while ((read = is.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
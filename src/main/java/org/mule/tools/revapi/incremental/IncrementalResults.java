@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.incremental;
+
+import static java.nio.file.Files.createDirectories;
+import static java.nio.file.Files.exists;
+import static java.nio.file.Files.move;
+import static java.nio.file.Files.newInputStream;
+import static java.nio.file.Files.newOutputStream;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Results of previous analyses of a module, persisted in a build directory so unchanged work is not repeated on the next run.
+ * <p/>
+ * For every top level type analyzed without reported differences, the file keeps the fingerprints of its old and new versions.
+ * A later analysis with the same configuration can skip a type when both fingerprints are still the same, as it would end up
+ * without differences again. Types with differences are always analyzed again, so their differences are reported.
+ * <p/>
+ * Each run rewrites the file with the types it analyzed or reused, so entries for types that changed or disappeared are
+ * dropped. A change in the configuration key discards every entry.
+ *
+ * @since 1.10
+ */
+public final class IncrementalResults {
+
+  private static final Logger LOG = LoggerFactory.getLogger(IncrementalResults.class);
+
+  /**
+   * Name of the file holding the results in the configured directory.
+   */
+  public static final String RESULTS_FILE = "mule-revapi-incremental.properties";
+
+  private static final String CONFIGURATION_KEY = "#configuration";
+  private static final char FINGERPRINT_SEPARATOR = ':';
+
+  private final Path file;
+  private final String configurationKey;
+  private final Map<String, String> previousResults;
+  private final Map<String, String> currentResults = new HashMap<>();
+  private final Set<String> reportedTypes = new HashSet<>();
+
+  private IncrementalResults(Path file, String configurationKey, Map<String, String> previousResults) {
+    this.file = file;
+    this.configurationKey = configurationKey;
+    this.previousResults = previousResults;
+  }
+
+  /**
+   * Loads the results of the previous run.
+   *
+   * @param directory        directory holding the results
+   * @param configurationKey identifies the configuration and archives of the analysis. Results stored with a different key are
+   *                         discarded.
+   * @return the results of the previous run, or empty results if there is none
+   */
+  public static IncrementalResults load(Path directory, String configurationKey) {
+    Path file = directory.resolve(RESULTS_FILE);
+    Map<String, String> previousResults = new HashMap<>();
+
+    if (exists(file)) {
+      Properties properties = new Properties();
+      try (InputStream is = newInputStream(file)) {
+        properties.load(is);
+      } catch (IOException e) {
+        LOG.warn("Failed to read the incremental results from " + file + ", analyzing every type", e);
+      }
+
+      if (configurationKey.equals(properties.getProperty(CONFIGURATION_KEY))) {
+        properties.stringPropertyNames().stream()
+            .filter(type -> !type.equals(CONFIGURATION_KEY))
+            .forEach(type -> previousResults.put(type, properties.getProperty(type)));
+      } else if (!properties.isEmpty()) {
+        LOG.info("Analysis configuration changed, discarding the incremental results in " + file);
+      }
+    }
+
+    return new IncrementalResults(file, configurationKey, previousResults);
+  }
+
+  /**
+   * Checks whether a type can be skipped because a previous run analyzed the same versions of it without differences. A type
+   * that can be skipped is kept in the results of this run.
+   *
+   * @param type           canonical name of a top level type
+   * @param oldFingerprint fingerprint of the old version of the type
+   * @param newFingerprint fingerprint of the new version of the type
+   * @return true if the type was analyzed without differences before, false if it must be analyzed
+   */
+  public synchronized boolean reuse(String type, String oldFingerprint, String newFingerprint) {
+    String fingerprints = oldFingerprint + FINGERPRINT_SEPARATOR + newFingerprint;
+    if (fingerprints.equals(previousResults.get(type))) {
+      currentResults.put(type, fingerprints);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Records a type that goes through this analysis. It is stored unless differences are {@link #reported(String) reported}
+   * on it.
+   *
+   * @param type           canonical name of a top level type
+   * @param oldFingerprint fingerprint of the old version of the type
+   * @param newFingerprint fingerprint of the new version of the type
+   */
+  public synchronized void analyzed(String type, String oldFingerprint, String newFingerprint) {
+    currentResults.put(type, oldFingerprint + FINGERPRINT_SEPARATOR + newFingerprint);
+  }
+
+  /**
+   * @param type canonical name of the top level type of an element that has differences in this analysis
+   */
+  public synchronized void reported(String type) {
+    reportedTypes.add(type);
+  }
+
+  /**
+   * Stores the types of this analysis without differences, replacing the results of the previous run.
+   */
+  public synchronized void save() {
+    Properties properties = new Properties();
+    properties.setProperty(CONFIGURATION_KEY, configurationKey);
+    currentResults.forEach((type, fingerprints) -> {
+      if (!reportedTypes.contains(type)) {
+        properties.setProperty(type, fingerprints);
+      }
+    });
+
+    try {
+      createDirectories(file.getParent());
+      Path temporaryFile = file.resolveSibling(RESULTS_FILE + ".tmp");
+      try (OutputStream os = newOutputStream(temporaryFile)) {
+        properties.store(os, "Mule API check incremental results");
+      }
+      move(temporaryFile, file, REPLACE_EXISTING, ATOMIC_MOVE);
+    } catch (IOException e) {
+      LOG.warn("Failed to store the incremental results in " + file, e);
+    }
+  }
+}
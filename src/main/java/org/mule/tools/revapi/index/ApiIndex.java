@@ -0,0 +1,318 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.index;
+
+import static java.util.Collections.unmodifiableMap;
+
+import org.mule.api.annotation.NoExtend;
+import org.mule.api.annotation.NoImplement;
+import org.mule.api.annotation.NoInstantiate;
+import org.mule.tools.revapi.ModuleExports;
+import org.mule.tools.revapi.classfile.AbiFingerprints;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Index of the API of a Mule module, written into its jar when it is built so the analysis does not have to scan the jar to learn
+ * it.
+ * <p/>
+ * It holds the packages the module exports, the supertypes and Mule API annotations of each of its classes, and the
+ * {@link AbiFingerprints ABI fingerprints} of its exported top-level types. The index is stored in the {@value #INDEX_ENTRY}
+ * entry of the jar, right after the manifest, by the {@link ApiIndexWriter}. Names are stored once in a string table, and
+ * fingerprints as raw bytes.
+ *
+ * @since 1.10
+ */
+public final class ApiIndex {
+
+  /**
+   * Entry of the module jar that holds the index.
+   */
+  public static final String INDEX_ENTRY = "META-INF/mule-api-index.bin";
+
+  /**
+   * Flag of the classes annotated with {@link NoExtend}.
+   */
+  public static final int NO_EXTEND = 1;
+
+  /**
+   * Flag of the interfaces annotated with {@link NoImplement}.
+   */
+  public static final int NO_IMPLEMENT = 1 << 1;
+
+  /**
+   * Flag of the classes annotated with {@link NoInstantiate}.
+   */
+  public static final int NO_INSTANTIATE = 1 << 2;
+
+  // "MAPI"
+  private static final int MAGIC = 0x4D415049;
+  private static final int VERSION = 2;
+  private static final int FINGERPRINT_LENGTH = 32;
+
+  private static final String NO_EXTEND_DESCRIPTOR = descriptorOf(NoExtend.class);
+  private static final String NO_IMPLEMENT_DESCRIPTOR = descriptorOf(NoImplement.class);
+  private static final String NO_INSTANTIATE_DESCRIPTOR = descriptorOf(NoInstantiate.class);
+
+  private final ModuleExports exports;
+  private final Map<String, IndexedType> types;
+  private final Map<String, String> fingerprints;
+
+  private ApiIndex(ModuleExports exports, Map<String, IndexedType> types, Map<String, String> fingerprints) {
+    this.exports = exports;
+    this.types = types;
+    this.fingerprints = fingerprints;
+  }
+
+  /**
+   * Indexes the classes of the primary archives of a pool. The supplementary archives of the pool are only used to compute the
+   * fingerprints of the types that extend their classes.
+   *
+   * @param pool classes of a module
+   * @return the index of the module
+   */
+  public static ApiIndex of(ClassPool pool) {
+    Map<String, IndexedType> types = new TreeMap<>();
+    for (String name : pool.getPrimaryClassNames()) {
+      ClassFile classFile = pool.find(name);
+      List<String> supertypes = new ArrayList<>();
+      if (classFile.getSuperName() != null) {
+        supertypes.add(classFile.getSuperName());
+      }
+      supertypes.addAll(classFile.getInterfaces());
+      types.put(name, new IndexedType(getFlags(classFile), supertypes.toArray(new String[0])));
+    }
+
+    AbiFingerprints abiFingerprints = AbiFingerprints.of(pool);
+    Map<String, String> fingerprints = new TreeMap<>();
+    abiFingerprints.getTopLevelTypes().forEach(type -> fingerprints.put(type, abiFingerprints.get(type)));
+    return new ApiIndex(pool.getExports(), types, fingerprints);
+  }
+
+  private static int getFlags(ClassFile classFile) {
+    // Same rules as the difference transforms: class annotations only count on classes and enums, and NoImplement on interfaces
+    if (classFile.isAnnotation()) {
+      return 0;
+    }
+    if (classFile.isInterface()) {
+      return classFile.hasAnnotation(NO_IMPLEMENT_DESCRIPTOR) ? NO_IMPLEMENT : 0;
+    }
+    return (classFile.hasAnnotation(NO_EXTEND_DESCRIPTOR) ? NO_EXTEND : 0)
+        | (classFile.hasAnnotation(NO_INSTANTIATE_DESCRIPTOR) ? NO_INSTANTIATE : 0);
+  }
+
+  /**
+   * Merges the indexes of the archives of an API. Classes present in several of them are taken from the first one.
+   *
+   * @param indexes indexes to merge
+   * @return the merged index
+   */
+  public static ApiIndex merge(List<ApiIndex> indexes) {
+    ModuleExports exports = ModuleExports.NONE;
+    Map<String, IndexedType> types = new HashMap<>();
+    Map<String, String> fingerprints = new HashMap<>();
+    for (ApiIndex index : indexes) {
+      exports = exports.merge(index.exports);
+      index.types.forEach(types::putIfAbsent);
+      index.fingerprints.forEach(fingerprints::putIfAbsent);
+    }
+    return new ApiIndex(exports, types, fingerprints);
+  }
+
+  /**
+   * @return packages exported by the module
+   */
+  public ModuleExports getExports() {
+    return exports;
+  }
+
+  /**
+   * @return hexadecimal ABI fingerprints of the exported top-level types, keyed by internal name
+   */
+  public Map<String, String> getFingerprints() {
+    return unmodifiableMap(fingerprints);
+  }
+
+  /**
+   * @return number of classes in the index
+   */
+  public int size() {
+    return types.size();
+  }
+
+  /**
+   * Checks whether a type or one of its supertypes carries a Mule API annotation, using only the index. Platform types never
+   * carry them.
+   *
+   * @param internalName internal name of the type
+   * @param flag         flag of the annotation, {@link #NO_EXTEND}, {@link #NO_IMPLEMENT} or {@link #NO_INSTANTIATE}
+   * @return whether the type is annotated, or null if it or one of its supertypes is not part of the index
+   */
+  public Boolean hasAnnotation(String internalName, int flag) {
+    Set<String> visited = new HashSet<>();
+    Deque<String> pending = new ArrayDeque<>();
+    pending.push(internalName);
+    while (!pending.isEmpty()) {
+      String name = pending.pop();
+      if (!visited.add(name) || name.startsWith("java/") || name.startsWith("javax/")) {
+        continue;
+      }
+      IndexedType type = types.get(name);
+      if (type == null) {
+        return null;
+      }
+      if ((type.flags & flag) != 0) {
+        return true;
+      }
+      for (String supertype : type.supertypes) {
+        pending.push(supertype);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param os where to write the index. It is not closed.
+   * @throws IOException if the index cannot be written
+   */
+  public void write(OutputStream os) throws IOException {
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    exports.getStandardPackages().forEach(name -> strings.putIfAbsent(name, strings.size()));
+    exports.getPrivilegedPackages().forEach(name -> strings.putIfAbsent(name, strings.size()));
+    types.forEach((name, type) -> {
+      strings.putIfAbsent(name, strings.size());
+      for (String supertype : type.supertypes) {
+        strings.putIfAbsent(supertype, strings.size());
+      }
+    });
+
+    DataOutputStream out = new DataOutputStream(os);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(strings.size());
+    for (String string : strings.keySet()) {
+      out.writeUTF(string);
+    }
+    writeNames(out, exports.getStandardPackages(), strings);
+    writeNames(out, exports.getPrivilegedPackages(), strings);
+    out.writeInt(types.size());
+    for (Map.Entry<String, IndexedType> entry : types.entrySet()) {
+      IndexedType type = entry.getValue();
+      out.writeInt(strings.get(entry.getKey()));
+      out.writeByte(type.flags);
+      // A class can implement up to 65535 interfaces
+      out.writeShort(type.supertypes.length);
+      for (String supertype : type.supertypes) {
+        out.writeInt(strings.get(supertype));
+      }
+      String fingerprint = fingerprints.get(entry.getKey());
+      out.writeBoolean(fingerprint != null);
+      if (fingerprint != null) {
+        out.write(HexFormat.of().parseHex(fingerprint));
+      }
+    }
+    out.flush();
+  }
+
+  private static void writeNames(DataOutputStream out, Set<String> names, Map<String, Integer> strings) throws IOException {
+    out.writeInt(names.size());
+    for (String name : names) {
+      out.writeInt(strings.get(name));
+    }
+  }
+
+  /**
+   * @param is stream with an index written by {@link #write(OutputStream)}. It is not closed.
+   * @return the index
+   * @throws IOException if the stream does not contain an index of a supported version
+   */
+  public static ApiIndex read(InputStream is) throws IOException {
+    DataInputStream in = new DataInputStream(is);
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a Mule API index");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException("Unsupported Mule API index version " + version);
+    }
+
+    String[] strings = new String[in.readInt()];
+    for (int i = 0; i < strings.length; i++) {
+      strings[i] = in.readUTF();
+    }
+    Set<String> standardPackages = readNames(in, strings);
+    Set<String> privilegedPackages = readNames(in, strings);
+
+    int typeCount = in.readInt();
+    Map<String, IndexedType> types = new HashMap<>();
+    Map<String, String> fingerprints = new HashMap<>();
+    byte[] fingerprint = new byte[FINGERPRINT_LENGTH];
+    for (int i = 0; i < typeCount; i++) {
+      String name = strings[in.readInt()];
+      int flags = in.readUnsignedByte();
+      String[] supertypes = new String[in.readUnsignedShort()];
+      for (int j = 0; j < supertypes.length; j++) {
+        supertypes[j] = strings[in.readInt()];
+      }
+      types.put(name, new IndexedType(flags, supertypes));
+      if (in.readBoolean()) {
+        in.readFully(fingerprint);
+        fingerprints.put(name, HexFormat.of().formatHex(fingerprint));
+      }
+    }
+    return new ApiIndex(ModuleExports.of(standardPackages, privilegedPackages), types, fingerprints);
+  }
+
+  private static Set<String> readNames(DataInputStream in, String[] strings) throws IOException {
+    int count = in.readInt();
+    Set<String> names = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      names.add(strings[in.readInt()]);
+    }
+    return names;
+  }
+
+  private static String descriptorOf(Class<?> annotationClass) {
+    return "L" + annotationClass.getName().replace('.', '/') + ";";
+  }
+
+  @Override
+  public String toString() {
+    return "ApiIndex{types=" + types.size() + ", exportedTypes=" + fingerprints.size() + ", exports=" + exports + "}";
+  }
+
+  /**
+   * Mule API annotations and supertypes of a class.
+   */
+  private static final class IndexedType {
+
+    private final int flags;
+    private final String[] supertypes;
+
+    private IndexedType(int flags, String[] supertypes) {
+      this.flags = flags;
+      this.supertypes = supertypes;
+    }
+  }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.index;
+
+import static org.mule.tools.revapi.index.ApiIndex.INDEX_ENTRY;
+
+import static java.io.File.pathSeparator;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.jar.JarFile.MANIFEST_NAME;
+
+import org.mule.tools.revapi.archive.InMemoryArchive;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.revapi.API;
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes the {@link ApiIndex} of a Mule module into its jar, meant to run as the last step of packaging the module.
+ * <p/>
+ * The jar is rewritten with the index right after the manifest, so the analysis finds it before any class. Every entry declares
+ * its checksum and sizes in its local header, as the jars built by Maven do, so the archive can still be read without inflating
+ * its entries. The dependencies of the module are only needed to fingerprint the types that extend their classes.
+ *
+ * @since 1.10
+ */
+public final class ApiIndexWriter {
+
+  static final String USAGE = "Usage: ApiIndexWriter <jar> [--supplementary <jar>[" + pathSeparator + "<jar>...]]";
+
+  private static final Logger LOG = LoggerFactory.getLogger(ApiIndexWriter.class);
+
+  private ApiIndexWriter() {}
+
+  /**
+   * Writes the index of the given jar. Fails with an exception rather than exiting, so it can run inside the Maven process.
+   *
+   * @param args command line arguments. See {@link #USAGE}
+   * @throws IOException if the jar cannot be read or written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 0) {
+      throw new IllegalArgumentException(USAGE);
+    }
+    Path jar = Paths.get(args[0]);
+    List<Path> supplementaryArchives = new ArrayList<>();
+    for (int i = 1; i < args.length; i++) {
+      if (!args[i].equals("--supplementary") || i + 1 == args.length) {
+        throw new IllegalArgumentException("Unknown option " + args[i] + ". " + USAGE);
+      }
+      for (String path : args[++i].split(pathSeparator)) {
+        if (!path.isEmpty()) {
+          supplementaryArchives.add(Paths.get(path));
+        }
+      }
+    }
+    write(jar, supplementaryArchives);
+  }
+
+  /**
+   * Indexes a module jar and writes the index into it, replacing the previous one if there is any.
+   *
+   * @param jar                   jar of the module
+   * @param supplementaryArchives dependencies of the module
+   * @return the index written
+   * @throws IOException if the jar cannot be read or written
+   */
+  public static ApiIndex write(Path jar, List<Path> supplementaryArchives) throws IOException {
+    long start = System.nanoTime();
+    List<Archive> dependencies = new ArrayList<>();
+    for (Path path : supplementaryArchives) {
+      dependencies.add(InMemoryArchive.of(path));
+    }
+    API api = API.of(InMemoryArchive.of(jar)).supportedBy(dependencies).build();
+    ApiIndex index = ApiIndex.of(ClassPool.of(api));
+
+    ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+    index.write(indexBytes);
+    Path temporary = Files.createTempFile(jar.toAbsolutePath().getParent(), jar.getFileName().toString(), ".tmp");
+    try {
+      try (ZipFile zip = new ZipFile(jar.toFile());
+          ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(temporary))) {
+        List<? extends ZipEntry> entries = Collections.list(zip.entries());
+        // JarInputStream only finds the manifest among the first entries
+        for (ZipEntry entry : entries) {
+          if (isManifest(entry)) {
+            copy(zip, entry, out);
+          }
+        }
+        putEntry(out, INDEX_ENTRY, System.currentTimeMillis(), indexBytes.toByteArray());
+        for (ZipEntry entry : entries) {
+          if (!isManifest(entry) && !entry.getName().equals(INDEX_ENTRY)) {
+            copy(zip, entry, out);
+          }
+        }
+      }
+      Files.move(temporary, jar, REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+
+    LOG.info("Wrote the API index of " + jar + " in " + (System.nanoTime() - start) / 1_000_000 + " ms: " + index);
+    return index;
+  }
+
+  private static boolean isManifest(ZipEntry entry) {
+    return entry.getName().equals("META-INF/") || entry.getName().equals(MANIFEST_NAME);
+  }
+
+  private static void copy(ZipFile zip, ZipEntry entry, ZipOutputStream out) throws IOException {
+    try (InputStream is = zip.getInputStream(entry)) {
+      putEntry(out, entry.getName(), entry.getTime(), is.readAllBytes());
+    }
+  }
+
+  private static void putEntry(ZipOutputStream out, String name, long time, byte[] data) throws IOException {
+    ZipEntry entry = new ZipEntry(name);
+    entry.setTime(time);
+    // Known sizes and checksum keep them in the local header instead of a data descriptor after the data
+    CRC32 crc = new CRC32();
+    crc.update(data);
+    entry.setCrc(crc.getValue());
+    entry.setSize(data.length);
+    entry.setCompressedSize(getDeflatedSize(data));
+    out.putNextEntry(entry);
+    out.write(data);
+    out.closeEntry();
+  }
+
+  private static long getDeflatedSize(byte[] data) {
+    // Same settings as the deflater of ZipOutputStream, so the output has the same size
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      deflater.setInput(data);
+      deflater.finish();
+      byte[] buffer = new byte[8192];
+      while (!deflater.finished()) {
+        deflater.deflate(buffer);
+      }
+      return deflater.getBytesWritten();
+    } finally {
+      deflater.end();
+    }
+  }
+}
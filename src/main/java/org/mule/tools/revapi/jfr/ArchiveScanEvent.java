@@ -0,0 +1,43 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Scan of an archive looking for the packages exported by a Mule module.
+ *
+ * @since 1.10
+ */
+@Name("org.mule.revapi.ArchiveScan")
+@Label("Archive Scan")
+@Description("Scan of an archive looking for the packages exported by a Mule module")
+@Category({"Mule", "Revapi"})
+@Enabled(false)
+@StackTrace(false)
+public final class ArchiveScanEvent extends Event {
+
+  @Label("Archive")
+  public String archive;
+
+  @Label("Entries")
+  public int entries;
+
+  @Label("Bytes Read")
+  @DataAmount
+  public long bytesRead;
+
+  @Label("Exported Packages")
+  public int exportedPackages;
+}
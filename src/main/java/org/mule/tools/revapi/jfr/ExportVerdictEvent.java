@@ -0,0 +1,39 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Decision of whether a type belongs to the exported API of a Mule module. Only decisions that were not cached yet are
+ * recorded.
+ *
+ * @since 1.10
+ */
+@Name("org.mule.revapi.ExportVerdict")
+@Label("Export Verdict")
+@Description("Decision of whether a type belongs to the exported API of a Mule module")
+@Category({"Mule", "Revapi"})
+@Enabled(false)
+@StackTrace(false)
+public final class ExportVerdictEvent extends Event {
+
+  @Label("Element")
+  public String element;
+
+  @Label("Package")
+  public String packageName;
+
+  @Label("Exported")
+  public boolean exported;
+}
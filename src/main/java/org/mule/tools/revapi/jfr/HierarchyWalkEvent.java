@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Walk of the hierarchy of a type looking for a Mule API annotation.
+ *
+ * @since 1.10
+ */
+@Name("org.mule.revapi.HierarchyWalk")
+@Label("Hierarchy Walk")
+@Description("Walk of the hierarchy of a type looking for a Mule API annotation")
+@Category({"Mule", "Revapi"})
+@Enabled(false)
+@StackTrace(false)
+public final class HierarchyWalkEvent extends Event {
+
+  @Label("Type")
+  public String type;
+
+  @Label("Depth")
+  @Description("Deepest level of the hierarchy reached")
+  public int depth;
+
+  @Label("Types Visited")
+  public int typesVisited;
+
+  @Label("Annotated")
+  public boolean annotated;
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Decision of a Mule API annotation transform on a difference.
+ *
+ * @since 1.10
+ */
+@Name("org.mule.revapi.TransformDecision")
+@Label("Transform Decision")
+@Description("Decision of a Mule API annotation transform on a difference")
+@Category({"Mule", "Revapi"})
+@Enabled(false)
+@StackTrace(false)
+public final class TransformDecisionEvent extends Event {
+
+  @Label("Transform")
+  public String transform;
+
+  @Label("Code")
+  public String code;
+
+  @Label("Element")
+  public String element;
+
+  @Label("Accepted")
+  @Description("Whether the difference was accepted, so it never reaches the reporters")
+  public boolean accepted;
+}
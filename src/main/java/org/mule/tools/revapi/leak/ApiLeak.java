@@ -0,0 +1,51 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.leak;
+
+/**
+ * Type that is not part of the exported API of a Mule module, but can be reached from it. Found by the {@link ApiLeakCheck}.
+ *
+ * @since 1.10
+ */
+public final class ApiLeak {
+
+  private final String type;
+  private final String referencedBy;
+  private final int references;
+
+  ApiLeak(String type, String referencedBy, int references) {
+    this.type = type;
+    this.referencedBy = referencedBy;
+    this.references = references;
+  }
+
+  /**
+   * @return canonical name of the leaked type
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * @return canonical name of the first type found referring to the leaked type
+   */
+  public String getReferencedBy() {
+    return referencedBy;
+  }
+
+  /**
+   * @return number of types of the API surface referring to the leaked type
+   */
+  public int getReferences() {
+    return references;
+  }
+
+  @Override
+  public String toString() {
+    return type + " (referenced by " + referencedBy + (references > 1 ? " and " + (references - 1) + " more types" : "") + ")";
+  }
+}
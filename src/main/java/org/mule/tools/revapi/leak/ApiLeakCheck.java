@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.leak;
+
+import static org.mule.tools.revapi.classfile.AccessFlags.isAccessible;
+
+import static java.util.Arrays.fill;
+
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.revapi.API;
+
+/**
+ * Finds the types of a Mule module that are not exported, but can be reached from its exported API, which Revapi reports as
+ * {@code java.class.nonPublicPartOfAPI} on every use.
+ * <p/>
+ * The check works straight on the class files: it builds a {@link ReferenceGraph} of the types of the module and sweeps it once,
+ * starting from the accessible types of the exported packages. Every type reached that is not exported, or not accessible, is a
+ * leak, and is reported once no matter how many types refer to it. Leaked types are part of the API surface too, so the types
+ * they refer to are reached as well. References to types of other archives, like the dependencies of the module, are not
+ * followed.
+ *
+ * @since 1.10
+ */
+public final class ApiLeakCheck {
+
+  private static final int NOT_REACHED = -2;
+  private static final int ROOT = -1;
+
+  private ApiLeakCheck() {}
+
+  /**
+   * @param api a version of a Mule module
+   * @return the types leaked by the exported API of the module, sorted by name
+   */
+  public static List<ApiLeak> check(API api) {
+    return check(ClassPool.of(api));
+  }
+
+  /**
+   * @param pool classes of a version of a Mule module
+   * @return the types leaked by the exported API of the module, sorted by name
+   */
+  public static List<ApiLeak> check(ClassPool pool) {
+    ReferenceGraph graph = ReferenceGraph.of(pool);
+    int size = graph.size();
+    boolean[] apiTypes = new boolean[size];
+    // Type each type was first reached from, or ROOT for the exported API types
+    int[] reachedFrom = new int[size];
+    int[] referenceCounts = new int[size];
+    int[] queue = new int[size];
+    int head = 0;
+    int tail = 0;
+
+    fill(reachedFrom, NOT_REACHED);
+    for (int id = 0; id < size; id++) {
+      String name = graph.getName(id);
+      apiTypes[id] = pool.getExports().isExported(ClassFile.getPackageName(name)) && isApiType(pool, pool.find(name));
+      if (apiTypes[id]) {
+        reachedFrom[id] = ROOT;
+        queue[tail++] = id;
+      }
+    }
+
+    while (head < tail) {
+      int id = queue[head++];
+      for (int reference : graph.getReferences(id)) {
+        referenceCounts[reference]++;
+        if (reachedFrom[reference] == NOT_REACHED) {
+          reachedFrom[reference] = id;
+          queue[tail++] = reference;
+        }
+      }
+    }
+
+    // Ids follow the order of the names, so the leaks are sorted
+    List<ApiLeak> leaks = new ArrayList<>();
+    for (int id = 0; id < size; id++) {
+      if (!apiTypes[id] && reachedFrom[id] != NOT_REACHED) {
+        leaks.add(new ApiLeak(ClassFile.toCanonicalName(graph.getName(id)),
+                              ClassFile.toCanonicalName(graph.getName(reachedFrom[id])), referenceCounts[id]));
+      }
+    }
+    return leaks;
+  }
+
+  private static boolean isApiType(ClassPool pool, ClassFile classFile) {
+    while (classFile != null) {
+      if (!isAccessible(classFile.getAccess())) {
+        return false;
+      }
+      classFile = classFile.isNested() ? pool.find(classFile.getOuterName()) : null;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.leak;
+
+import org.mule.tools.revapi.classfile.ApiReferences;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Types of the primary archives of an API and the types their accessible surface refers to, indexed by dense int ids.
+ * <p/>
+ * The references of a type are the ones of its {@link ApiReferences API surface}. Only references to other types of the primary
+ * archives are kept, the export status of the rest is not known.
+ *
+ * @since 1.10
+ */
+final class ReferenceGraph {
+
+  private static final int[] NO_REFERENCES = new int[0];
+
+  private final String[] names;
+  private final Map<String, Integer> ids = new HashMap<>();
+  private final int[][] references;
+
+  private ReferenceGraph(Set<String> names) {
+    this.names = names.toArray(new String[0]);
+    for (int id = 0; id < this.names.length; id++) {
+      ids.put(this.names[id], id);
+    }
+    references = new int[this.names.length][];
+  }
+
+  /**
+   * @param pool classes of an API
+   * @return the graph of the types of the primary archives of the API
+   */
+  static ReferenceGraph of(ClassPool pool) {
+    ReferenceGraph graph = new ReferenceGraph(pool.getPrimaryClassNames());
+    Builder builder = graph.new Builder();
+    for (int id = 0; id < graph.names.length; id++) {
+      ClassFile classFile = pool.find(graph.names[id]);
+      graph.references[id] = classFile == null ? NO_REFERENCES : builder.build(id, classFile);
+    }
+    return graph;
+  }
+
+  /**
+   * @return number of types in the graph
+   */
+  int size() {
+    return names.length;
+  }
+
+  /**
+   * @param id id of a type
+   * @return internal name of the type
+   */
+  String getName(int id) {
+    return names[id];
+  }
+
+  /**
+   * @param id id of a type
+   * @return ids of the distinct types the surface of the type refers to, other than itself
+   */
+  int[] getReferences(int id) {
+    return references[id];
+  }
+
+  /**
+   * Collects the distinct references of one type at a time, marking the types already added with the id of the type being built.
+   */
+  private final class Builder {
+
+    private final int[] marks = new int[names.length];
+    private int[] collected = new int[16];
+    private int size;
+    private int current;
+
+    private Builder() {
+      Arrays.fill(marks, -1);
+    }
+
+    private int[] build(int id, ClassFile classFile) {
+      current = id;
+      size = 0;
+      marks[id] = id;
+      ApiReferences.forEach(classFile, this::add);
+      return size == 0 ? NO_REFERENCES : Arrays.copyOf(collected, size);
+    }
+
+    private void add(String internalName) {
+      Integer id = internalName == null ? null : ids.get(internalName);
+      if (id == null || marks[id] == current) {
+        return;
+      }
+      marks[id] = current;
+      if (size == collected.length) {
+        collected = Arrays.copyOf(collected, size * 2);
+      }
+      collected[size++] = id;
+    }
+  }
+}
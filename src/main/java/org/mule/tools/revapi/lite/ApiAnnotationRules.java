@@ -0,0 +1,122 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.lite;
+
+import org.mule.api.annotation.NoExtend;
+import org.mule.api.annotation.NoImplement;
+import org.mule.api.annotation.NoInstantiate;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evaluates the Mule API annotations on class files, following the same rules as the difference transforms: a class is
+ * considered annotated when the class itself, or any of its supertypes of the same kind, carries the annotation.
+ * <p/>
+ * Results for classes of the supplementary archives are shared through {@link ClassPool#getSupplementaryResults(String)} when
+ * they do not depend on any class of the primary archives, or on a class missing from the API that is not part of the platform.
+ *
+ * @since 1.10
+ */
+final class ApiAnnotationRules {
+
+  private static final String NO_EXTEND = descriptorOf(NoExtend.class);
+  private static final String NO_INSTANTIATE = descriptorOf(NoInstantiate.class);
+  private static final String NO_IMPLEMENT = descriptorOf(NoImplement.class);
+
+  private final ClassPool pool;
+  private final Map<String, Boolean> noExtend = new HashMap<>();
+  private final Map<String, Boolean> noInstantiate = new HashMap<>();
+  private final Map<String, Boolean> noImplement = new HashMap<>();
+  private final Set<String> dependOnPrimaryClasses = new HashSet<>();
+  private boolean visitedPrimaryClass;
+
+  ApiAnnotationRules(ClassPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * @param classFile class to check
+   * @return true if the class, or any superclass, is annotated with {@link NoExtend}
+   */
+  boolean isNoExtend(ClassFile classFile) {
+    return hasAnnotation(classFile, NO_EXTEND, false, noExtend);
+  }
+
+  /**
+   * @param classFile class to check
+   * @return true if the class, or any superclass, is annotated with {@link NoInstantiate}
+   */
+  boolean isNoInstantiate(ClassFile classFile) {
+    return hasAnnotation(classFile, NO_INSTANTIATE, false, noInstantiate);
+  }
+
+  /**
+   * @param classFile interface to check
+   * @return true if the interface, or any superinterface, is annotated with {@link NoImplement}
+   */
+  boolean isNoImplement(ClassFile classFile) {
+    return hasAnnotation(classFile, NO_IMPLEMENT, true, noImplement);
+  }
+
+  private boolean hasAnnotation(ClassFile classFile, String annotation, boolean onInterface, Map<String, Boolean> cache) {
+    String name = classFile.getName();
+    Boolean result = cache.get(name);
+    if (result != null) {
+      visitedPrimaryClass |= dependOnPrimaryClasses.contains(annotation + name);
+      return result;
+    }
+
+    boolean primary = pool.isPrimary(name);
+    result = primary ? null : pool.getSupplementaryResults(annotation).get(name);
+    if (result != null) {
+      cache.put(name, result);
+      return result;
+    }
+
+    boolean outerVisitedPrimaryClass = visitedPrimaryClass;
+    visitedPrimaryClass = primary;
+    result = classFile.isInterface() == onInterface && !classFile.isAnnotation() && classFile.hasAnnotation(annotation)
+        || hasAnnotation(classFile.getSuperName(), annotation, onInterface, cache);
+    for (int i = 0; !result && i < classFile.getInterfaces().size(); i++) {
+      result = hasAnnotation(classFile.getInterfaces().get(i), annotation, onInterface, cache);
+    }
+    cache.put(name, result);
+    if (visitedPrimaryClass) {
+      dependOnPrimaryClasses.add(annotation + name);
+    } else {
+      pool.getSupplementaryResults(annotation).put(name, result);
+    }
+    visitedPrimaryClass |= outerVisitedPrimaryClass;
+    return result;
+  }
+
+  private boolean hasAnnotation(String internalName, String annotation, boolean onInterface, Map<String, Boolean> cache) {
+    if (internalName == null) {
+      return false;
+    }
+    ClassFile classFile = pool.findDeclaration(internalName);
+    if (classFile == null) {
+      // Another analysis with the same supplementary archives could have it among its primary ones
+      visitedPrimaryClass |= !isPlatformClass(internalName);
+      return false;
+    }
+    return hasAnnotation(classFile, annotation, onInterface, cache);
+  }
+
+  private static boolean isPlatformClass(String internalName) {
+    return internalName.startsWith("java/") || internalName.startsWith("javax/");
+  }
+
+  private static String descriptorOf(Class<?> annotationClass) {
+    return "L" + annotationClass.getName().replace('.', '/') + ";";
+  }
+}
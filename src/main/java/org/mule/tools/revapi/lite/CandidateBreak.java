@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.lite;
+
+/**
+ * Change in the exported API found by the {@link LiteApiCheck}. It may or may not be reported by the full Revapi analysis, as
+ * the lite check does not know every rule that Revapi applies.
+ *
+ * @since 1.10
+ */
+public final class CandidateBreak {
+
+  /**
+   * Kind of change found on an API element.
+   */
+  public enum Kind {
+    ADDED, REMOVED, CHANGED
+  }
+
+  private final Kind kind;
+  private final String typeName;
+  private final String member;
+
+  CandidateBreak(Kind kind, String typeName, String member) {
+    this.kind = kind;
+    this.typeName = typeName;
+    this.member = member;
+  }
+
+  /**
+   * @return kind of change
+   */
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return canonical name of the type that contains the change
+   */
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * @return name and descriptor of the changed member, null when the change affects the type itself
+   */
+  public String getMember() {
+    return member;
+  }
+
+  @Override
+  public String toString() {
+    return kind + " " + (member == null ? typeName : typeName + "#" + member);
+  }
+}
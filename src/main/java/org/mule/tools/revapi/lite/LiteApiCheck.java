@@ -0,0 +1,406 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.lite;
+
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_ABSTRACT;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_ANNOTATION;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_ENUM;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_FINAL;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_INTERFACE;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_NATIVE;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_PRIVATE;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_PROTECTED;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_PUBLIC;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_STATIC;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_TRANSIENT;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_VARARGS;
+import static org.mule.tools.revapi.classfile.AccessFlags.ACC_VOLATILE;
+import static org.mule.tools.revapi.classfile.AccessFlags.isAccessible;
+import static org.mule.tools.revapi.lite.CandidateBreak.Kind.ADDED;
+import static org.mule.tools.revapi.lite.CandidateBreak.Kind.CHANGED;
+import static org.mule.tools.revapi.lite.CandidateBreak.Kind.REMOVED;
+
+import static java.util.Comparator.comparing;
+
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassMember;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.revapi.API;
+
+/**
+ * Quick API compatibility check that works straight on the class files of the exported packages, without building the javac
+ * model that the full Revapi analysis needs.
+ * <p/>
+ * Types and members of both versions are sorted by signature and merge-joined. Every difference is a candidate break, unless it
+ * is one of the changes that the Mule API annotation transforms accept ({@code NoExtend}, {@code NoInstantiate} and
+ * {@code NoImplement}). The check is conservative: it may report changes that Revapi would accept, but it does not miss changes
+ * in the signatures Revapi compares, including the members inherited from non exported supertypes.
+ *
+ * @since 1.10
+ */
+public final class LiteApiCheck {
+
+  private static final int TYPE_MODIFIERS =
+      ACC_PUBLIC | ACC_PROTECTED | ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_INTERFACE | ACC_ABSTRACT | ACC_ANNOTATION | ACC_ENUM;
+  private static final int FIELD_MODIFIERS =
+      ACC_PUBLIC | ACC_PROTECTED | ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_VOLATILE | ACC_TRANSIENT;
+  private static final int METHOD_MODIFIERS =
+      ACC_PUBLIC | ACC_PROTECTED | ACC_PRIVATE | ACC_STATIC | ACC_FINAL | ACC_ABSTRACT | ACC_NATIVE | ACC_VARARGS;
+
+  private static final Function<ClassMember, String> FIELD_SIGNATURE = ClassMember::getName;
+  private static final Function<ClassMember, String> METHOD_SIGNATURE = m -> m.getName() + m.getDescriptor();
+
+  private final ClassPool oldPool;
+  private final ClassPool newPool;
+  private final ApiAnnotationRules oldRules;
+  private final ApiAnnotationRules newRules;
+  private final List<CandidateBreak> candidates = new ArrayList<>();
+  // Supertypes compared so far, along with the rules of the API types they were compared for
+  private final Set<String> comparedSupertypes = new HashSet<>();
+  private final Set<String> candidateKeys = new HashSet<>();
+  private Set<String> newApiTypes;
+
+  private LiteApiCheck(ClassPool oldPool, ClassPool newPool) {
+    this.oldPool = oldPool;
+    this.newPool = newPool;
+    this.oldRules = new ApiAnnotationRules(oldPool);
+    this.newRules = new ApiAnnotationRules(newPool);
+  }
+
+  /**
+   * Compares the exported API of two versions of a Mule module.
+   *
+   * @param oldApi old version of the module
+   * @param newApi new version of the module
+   * @return the candidate breaks, sorted by type. Empty if the exported API did not change.
+   */
+  public static List<CandidateBreak> check(API oldApi, API newApi) {
+    return check(ClassPool.of(oldApi), ClassPool.of(newApi));
+  }
+
+  /**
+   * Compares the exported API of two versions of a Mule module.
+   *
+   * @param oldPool classes of the old version of the module
+   * @param newPool classes of the new version of the module
+   * @return the candidate breaks, sorted by type. Empty if the exported API did not change.
+   */
+  public static List<CandidateBreak> check(ClassPool oldPool, ClassPool newPool) {
+    return new LiteApiCheck(oldPool, newPool).run();
+  }
+
+  private List<CandidateBreak> run() {
+    List<String> oldApiTypes = getApiTypes(oldPool);
+    List<String> newTypes = getApiTypes(newPool);
+    newApiTypes = new HashSet<>(newTypes);
+
+    SignatureDiff.mergeJoin(oldApiTypes, newTypes, Function.identity(), new SignatureDiff.Listener<String>() {
+
+      @Override
+      public void removed(String oldType) {
+        addCandidate(REMOVED, oldType, null);
+      }
+
+      @Override
+      public void added(String newType) {
+        addCandidate(ADDED, newType, null);
+      }
+
+      @Override
+      public void matched(String oldType, String newType) {
+        compareTypes(oldPool.find(oldType), newPool.find(newType));
+      }
+    });
+
+    return candidates;
+  }
+
+  private List<String> getApiTypes(ClassPool pool) {
+    List<String> types = new ArrayList<>();
+    for (String name : pool.getExportedClassNames()) {
+      if (isApiType(pool, pool.find(name))) {
+        types.add(name);
+      }
+    }
+    return types;
+  }
+
+  private boolean isApiType(ClassPool pool, ClassFile classFile) {
+    while (classFile != null) {
+      if (!isAccessible(classFile.getAccess())) {
+        return false;
+      }
+      classFile = classFile.isNested() ? pool.find(classFile.getOuterName()) : null;
+    }
+    return true;
+  }
+
+  private void compareTypes(ClassFile oldType, ClassFile newType) {
+    if ((oldType.getAccess() & TYPE_MODIFIERS) != (newType.getAccess() & TYPE_MODIFIERS)
+        || !Objects.equals(oldType.getSignature(), newType.getSignature())
+        || !Objects.equals(oldType.getSuperName(), newType.getSuperName())
+        || !sorted(oldType.getInterfaces()).equals(sorted(newType.getInterfaces()))
+        || !sorted(oldType.getAnnotations()).equals(sorted(newType.getAnnotations()))) {
+      addCandidate(CHANGED, oldType.getName(), null);
+    }
+
+    MemberRules rules = new MemberRules(oldType, newType);
+    compareMembers(rules, oldType, newType);
+    compareSupertypes(rules, oldType.getSuperName());
+    for (String interfaceName : oldType.getInterfaces()) {
+      compareSupertypes(rules, interfaceName);
+    }
+  }
+
+  /**
+   * Members inherited from supertypes that are not part of the API themselves are still part of the API of their exported
+   * subtypes, so those supertypes are compared as well. A supertype shared by several API types is compared again for each
+   * different set of rules of those types, as a change accepted for one of them may break another one.
+   */
+  private void compareSupertypes(MemberRules rules, String supertypeName) {
+    if (supertypeName == null || newApiTypes.contains(supertypeName)
+        || !comparedSupertypes.add(supertypeName + "@" + rules.getKey())) {
+      return;
+    }
+
+    ClassFile oldSupertype = oldPool.find(supertypeName);
+    ClassFile newSupertype = newPool.find(supertypeName);
+    if (oldSupertype == null && newSupertype == null) {
+      // Platform types, or types missing in both versions, cannot change between the analyzed versions
+      return;
+    } else if (oldSupertype == null || newSupertype == null) {
+      addCandidate(CHANGED, supertypeName, null);
+      return;
+    }
+
+    compareMembers(rules, oldSupertype, newSupertype);
+    compareSupertypes(rules, oldSupertype.getSuperName());
+    for (String interfaceName : oldSupertype.getInterfaces()) {
+      compareSupertypes(rules, interfaceName);
+    }
+  }
+
+  private void compareMembers(MemberRules rules, ClassFile oldType, ClassFile newType) {
+    boolean inherited = oldType != rules.oldApiType;
+
+    SignatureDiff.mergeJoin(getApiMembers(oldType.getFields(), FIELD_SIGNATURE, rules.oldExtensible, inherited),
+                            getApiMembers(newType.getFields(), FIELD_SIGNATURE, rules.newExtensible, inherited),
+                            FIELD_SIGNATURE, new FieldComparison(oldType, newType, rules));
+
+    MethodComparison methodComparison = new MethodComparison(oldType, newType, rules);
+    SignatureDiff.mergeJoin(getApiMembers(oldType.getMethods(), METHOD_SIGNATURE, rules.oldExtensible, inherited),
+                            getApiMembers(newType.getMethods(), METHOD_SIGNATURE, rules.newExtensible, inherited),
+                            METHOD_SIGNATURE, methodComparison);
+    methodComparison.checkAddedMethods();
+  }
+
+  /**
+   * Protected members of final classes cannot be reached from outside their package, and constructors are not inherited, so
+   * neither of them are part of the API of the analyzed type.
+   */
+  private List<ClassMember> getApiMembers(List<ClassMember> members, Function<ClassMember, String> signature,
+                                          boolean extensible, boolean inherited) {
+    List<ClassMember> apiMembers = new ArrayList<>(members.size());
+    for (ClassMember member : members) {
+      if ((member.isPublic() || member.isProtected() && extensible) && !member.isCompilerGenerated()
+          && !(inherited && member.isConstructor())) {
+        apiMembers.add(member);
+      }
+    }
+    apiMembers.sort(comparing(signature));
+    return apiMembers;
+  }
+
+  private void addCandidate(CandidateBreak.Kind kind, String internalName, ClassMember member) {
+    CandidateBreak candidate =
+        new CandidateBreak(kind, ClassFile.toCanonicalName(internalName), member == null ? null : member.toString());
+    // A supertype compared for several API types may show the same change more than once
+    if (candidateKeys.add(candidate.toString())) {
+      candidates.add(candidate);
+    }
+  }
+
+  private static <T extends Comparable<T>> List<T> sorted(List<T> list) {
+    if (list.size() < 2) {
+      return list;
+    }
+    List<T> sorted = new ArrayList<>(list);
+    sorted.sort(null);
+    return sorted;
+  }
+
+  /**
+   * Mule API annotations and modifiers that apply to the members of a pair of API types.
+   */
+  private final class MemberRules {
+
+    private final ClassFile oldApiType;
+    private final boolean oldExtensible;
+    private final boolean newExtensible;
+    private final boolean oldNoExtend;
+    private final boolean oldNoInstantiate;
+    private final boolean newNoExtend;
+    private final boolean newNoInstantiate;
+    private final boolean newNoImplement;
+
+    private MemberRules(ClassFile oldApiType, ClassFile newApiType) {
+      this.oldApiType = oldApiType;
+      oldExtensible = (oldApiType.getAccess() & ACC_FINAL) == 0;
+      newExtensible = (newApiType.getAccess() & ACC_FINAL) == 0;
+      oldNoExtend = oldRules.isNoExtend(oldApiType);
+      oldNoInstantiate = oldRules.isNoInstantiate(oldApiType);
+      newNoExtend = newRules.isNoExtend(newApiType);
+      newNoInstantiate = newRules.isNoInstantiate(newApiType);
+      newNoImplement = newRules.isNoImplement(newApiType);
+    }
+
+    /**
+     * @return identifies the rules, equal for the API types whose members are compared the same way
+     */
+    private int getKey() {
+      return (oldExtensible ? 1 : 0) | (newExtensible ? 1 << 1 : 0) | (oldNoExtend ? 1 << 2 : 0) | (oldNoInstantiate ? 1 << 3 : 0)
+          | (newNoExtend ? 1 << 4 : 0) | (newNoInstantiate ? 1 << 5 : 0) | (newNoImplement ? 1 << 6 : 0);
+    }
+
+    private boolean isAcceptedFieldChange(ClassMember oldField) {
+      return oldField.isProtected() && (oldNoExtend || oldNoInstantiate);
+    }
+
+    private boolean isAcceptedMethodChange(ClassMember oldMethod) {
+      return oldMethod.isProtected() && (oldNoExtend || oldNoInstantiate)
+          || oldMethod.isConstructor() && oldMethod.isPublic() && oldNoInstantiate;
+    }
+
+    private boolean isAcceptedMethodAddition(ClassFile newType, ClassMember newMethod) {
+      if (newType.isInterface()) {
+        return newNoImplement && !newMethod.isStatic() && (newMethod.getAccess() & ACC_ABSTRACT) != 0;
+      }
+      return newMethod.isConstructor() && (newMethod.isProtected() && newNoExtend || newMethod.isAccessible() && newNoInstantiate);
+    }
+  }
+
+  private final class FieldComparison implements SignatureDiff.Listener<ClassMember> {
+
+    private final ClassFile oldType;
+    private final ClassFile newType;
+    private final MemberRules rules;
+
+    private FieldComparison(ClassFile oldType, ClassFile newType, MemberRules rules) {
+      this.oldType = oldType;
+      this.newType = newType;
+      this.rules = rules;
+    }
+
+    @Override
+    public void removed(ClassMember oldField) {
+      if (!rules.isAcceptedFieldChange(oldField)) {
+        addCandidate(REMOVED, oldType.getName(), oldField);
+      }
+    }
+
+    @Override
+    public void added(ClassMember newField) {
+      addCandidate(ADDED, newType.getName(), newField);
+    }
+
+    @Override
+    public void matched(ClassMember oldField, ClassMember newField) {
+      boolean typeChanged = !oldField.getDescriptor().equals(newField.getDescriptor())
+          || !Objects.equals(oldField.getSignature(), newField.getSignature());
+      if (typeChanged && !rules.isAcceptedFieldChange(oldField)
+          || (oldField.getAccess() & FIELD_MODIFIERS) != (newField.getAccess() & FIELD_MODIFIERS)
+          || !Objects.equals(oldField.getDefaultValue(), newField.getDefaultValue())
+          || !sorted(oldField.getAnnotations()).equals(sorted(newField.getAnnotations()))) {
+        addCandidate(CHANGED, oldType.getName(), oldField);
+      }
+    }
+  }
+
+  private final class MethodComparison implements SignatureDiff.Listener<ClassMember> {
+
+    private final ClassFile oldType;
+    private final ClassFile newType;
+    private final MemberRules rules;
+    // Number of accepted removals by name and parameter types
+    private final Map<String, Integer> acceptedRemovals = new HashMap<>();
+    private final List<ClassMember> addedMethods = new ArrayList<>();
+
+    private MethodComparison(ClassFile oldType, ClassFile newType, MemberRules rules) {
+      this.oldType = oldType;
+      this.newType = newType;
+      this.rules = rules;
+    }
+
+    @Override
+    public void removed(ClassMember oldMethod) {
+      if (rules.isAcceptedMethodChange(oldMethod)) {
+        acceptedRemovals.merge(getParameterSignature(oldMethod), 1, Integer::sum);
+      } else {
+        addCandidate(REMOVED, oldType.getName(), oldMethod);
+      }
+    }
+
+    @Override
+    public void added(ClassMember newMethod) {
+      // Additions are checked once all the removals are known
+      addedMethods.add(newMethod);
+    }
+
+    @Override
+    public void matched(ClassMember oldMethod, ClassMember newMethod) {
+      if ((oldMethod.getAccess() & METHOD_MODIFIERS) != (newMethod.getAccess() & METHOD_MODIFIERS)
+          || !Objects.equals(oldMethod.getSignature(), newMethod.getSignature())
+          || !sorted(oldMethod.getExceptions()).equals(sorted(newMethod.getExceptions()))
+          || !sorted(oldMethod.getAnnotations()).equals(sorted(newMethod.getAnnotations()))
+          || !oldMethod.getParameterAnnotations().equals(newMethod.getParameterAnnotations())
+          || !Objects.equals(oldMethod.getDefaultValue(), newMethod.getDefaultValue())) {
+        addCandidate(CHANGED, oldType.getName(), oldMethod);
+      }
+    }
+
+    /**
+     * Revapi reports a change in the return type of a method as a change of the method, while the merge-join sees it as a
+     * removal plus an addition with the same name and parameters. Each accepted removal accepts a single addition with the same
+     * erased parameters, so it does not hide the other overloads added. Changes in the parameters are left to Revapi.
+     */
+    private void checkAddedMethods() {
+      for (ClassMember newMethod : addedMethods) {
+        if (!acceptRemoval(getParameterSignature(newMethod)) && !rules.isAcceptedMethodAddition(newType, newMethod)) {
+          addCandidate(ADDED, newType.getName(), newMethod);
+        }
+      }
+    }
+
+    private boolean acceptRemoval(String parameterSignature) {
+      Integer count = acceptedRemovals.get(parameterSignature);
+      if (count == null) {
+        return false;
+      }
+      if (count == 1) {
+        acceptedRemovals.remove(parameterSignature);
+      } else {
+        acceptedRemovals.put(parameterSignature, count - 1);
+      }
+      return true;
+    }
+
+    private String getParameterSignature(ClassMember method) {
+      String descriptor = method.getDescriptor();
+      return method.getName() + descriptor.substring(0, descriptor.indexOf(')') + 1);
+    }
+  }
+}
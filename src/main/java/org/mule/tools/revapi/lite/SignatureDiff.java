@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.lite;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Merge-joins two lists of elements sorted by their signature, reporting which elements only exist in one of them and which
+ * ones exist in both.
+ *
+ * @since 1.10
+ */
+final class SignatureDiff {
+
+  /**
+   * Receives the result of a merge-join.
+   *
+   * @param <T> type of the joined elements
+   */
+  interface Listener<T> {
+
+    /**
+     * @param oldElement element that only exists in the old list
+     */
+    void removed(T oldElement);
+
+    /**
+     * @param newElement element that only exists in the new list
+     */
+    void added(T newElement);
+
+    /**
+     * @param oldElement element of the old list
+     * @param newElement element of the new list with the same signature
+     */
+    void matched(T oldElement, T newElement);
+  }
+
+  private SignatureDiff() {}
+
+  /**
+   * Joins two lists in a single pass.
+   *
+   * @param oldElements elements of the old API, sorted by signature
+   * @param newElements elements of the new API, sorted by signature
+   * @param signature   provides the signature of an element
+   * @param listener    receives the join result, in signature order
+   * @param <T>         type of the joined elements
+   */
+  static <T> void mergeJoin(List<T> oldElements, List<T> newElements, Function<T, String> signature, Listener<T> listener) {
+    int oldIndex = 0;
+    int newIndex = 0;
+
+    while (oldIndex < oldElements.size() && newIndex < newElements.size()) {
+      T oldElement = oldElements.get(oldIndex);
+      T newElement = newElements.get(newIndex);
+      int comparison = signature.apply(oldElement).compareTo(signature.apply(newElement));
+      if (comparison < 0) {
+        listener.removed(oldElement);
+        oldIndex++;
+      } else if (comparison > 0) {
+        listener.added(newElement);
+        newIndex++;
+      } else {
+        listener.matched(oldElement, newElement);
+        oldIndex++;
+        newIndex++;
+      }
+    }
+
+    while (oldIndex < oldElements.size()) {
+      listener.removed(oldElements.get(oldIndex++));
+    }
+    while (newIndex < newElements.size()) {
+      listener.added(newElements.get(newIndex++));
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.report;
+
+import static java.util.Locale.ROOT;
+
+import org.mule.tools.revapi.ModuleExports;
+import org.mule.tools.revapi.archive.ArchiveEntries;
+
+import java.io.IOException;
+
+import org.revapi.API;
+import org.revapi.Archive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * How a Mule module exports the package of an element with a difference.
+ *
+ * @since 1.10
+ */
+enum ExportKind {
+
+  STANDARD, PRIVILEGED, NONE;
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExportKind.class);
+
+  /**
+   * @param exports     exports of the module
+   * @param packageName name of a package
+   * @return how the module exports the package. Packages exported both ways are {@link #STANDARD}.
+   */
+  static ExportKind of(ModuleExports exports, String packageName) {
+    if (exports.getStandardPackages().contains(packageName)) {
+      return STANDARD;
+    }
+    return exports.getPrivilegedPackages().contains(packageName) ? PRIVILEGED : NONE;
+  }
+
+  /**
+   * @param api an API of the analysis
+   * @return the packages exported by the archives of the API
+   */
+  static ModuleExports getExports(API api) {
+    ModuleExports exports = ModuleExports.NONE;
+    for (Archive archive : api.getArchives()) {
+      try {
+        exports = exports.merge(ArchiveEntries.read(archive).getExports());
+      } catch (IOException e) {
+        LOG.debug("Failed to read the exports of archive " + archive, e);
+      }
+    }
+    return exports;
+  }
+
+  /**
+   * @param typeName canonical name of a top level type. Can be null.
+   * @return the package of the type, empty if it is in the default package or there is no type
+   */
+  static String getPackageName(String typeName) {
+    return typeName == null || typeName.lastIndexOf('.') < 0 ? "" : typeName.substring(0, typeName.lastIndexOf('.'));
+  }
+
+  @Override
+  public String toString() {
+    return name().toLowerCase(ROOT);
+  }
+}
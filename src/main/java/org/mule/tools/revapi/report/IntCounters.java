@@ -0,0 +1,37 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.report;
+
+import java.util.Arrays;
+
+/**
+ * Counters indexed by small, dense ids, kept in a primitive array that grows with the highest id.
+ *
+ * @since 1.10
+ */
+final class IntCounters {
+
+  private int[] counts = new int[16];
+
+  /**
+   * @param id id of the counter
+   */
+  void increment(int id) {
+    if (id >= counts.length) {
+      counts = Arrays.copyOf(counts, Math.max(id + 1, counts.length * 2));
+    }
+    counts[id]++;
+  }
+
+  /**
+   * @param id id of the counter
+   * @return value of the counter
+   */
+  int get(int id) {
+    return id < counts.length ? counts[id] : 0;
+  }
+}
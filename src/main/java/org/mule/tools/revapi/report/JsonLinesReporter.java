@@ -0,0 +1,172 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.report;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.mule.tools.revapi.SessionReporter.getTopLevelTypeName;
+
+import org.mule.tools.revapi.ModuleExports;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.revapi.AnalysisContext;
+import org.revapi.CompatibilityType;
+import org.revapi.Difference;
+import org.revapi.DifferenceSeverity;
+import org.revapi.Element;
+import org.revapi.Report;
+import org.revapi.Reporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Writes every difference that reaches the reporters as a line of JSON, as soon as it is reported.
+ * <p/>
+ * Nothing is kept in memory between reports, so analyses with any number of differences write them with constant memory, and
+ * the file can be processed line by line while the analysis runs. Each line holds a single difference:
+ *
+ * <pre>
+ * {"code":"java.method.removed","name":"method removed","severity":"BREAKING","classification":{"BINARY":"BREAKING",...},
+ *  "old":"method void org.foo.A::doStuff()","new":null,"type":"org.foo.A","package":"org.foo","export":"standard"}
+ * </pre>
+ *
+ * {@code export} is {@code standard} or {@code privileged} depending on how the module exports the package of the element, and
+ * {@code none} if it does not export it. Disabled unless the {@code file} is configured in the {@code mule.module.jsonl}
+ * extension configuration.
+ *
+ * @since 1.10
+ */
+public final class JsonLinesReporter implements Reporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(JsonLinesReporter.class);
+
+  private static final String SCHEMA = "/META-INF/mule-module-jsonl-config-schema.json";
+  private static final String FILE = "file";
+
+  private Path file;
+  private JsonGenerator generator;
+  private ModuleExports oldExports;
+  private ModuleExports newExports;
+  private long differences;
+
+  @Override
+  public String getExtensionId() {
+    return "mule.module.jsonl";
+  }
+
+  @Override
+  public Reader getJSONSchema() {
+    return new InputStreamReader(getClass().getResourceAsStream(SCHEMA), UTF_8);
+  }
+
+  @Override
+  public void initialize(AnalysisContext analysisContext) {
+    JsonNode configuration = analysisContext.getConfigurationNode();
+    String configuredFile = configuration == null ? null : configuration.path(FILE).asText(null);
+    if (configuredFile == null || configuredFile.isEmpty()) {
+      return;
+    }
+
+    file = Paths.get(configuredFile);
+    oldExports = ExportKind.getExports(analysisContext.getOldApi());
+    newExports = ExportKind.getExports(analysisContext.getNewApi());
+    differences = 0;
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      BufferedWriter writer = Files.newBufferedWriter(file, UTF_8);
+      // Lines are ended explicitly, instead of separating them with the default space
+      generator = new JsonFactory().setRootValueSeparator(null).createGenerator(writer);
+    } catch (IOException e) {
+      LOG.warn("Cannot write the API differences to " + file, e);
+    }
+  }
+
+  @Override
+  public void report(Report report) {
+    if (generator == null) {
+      return;
+    }
+
+    try {
+      for (Difference difference : report.getDifferences()) {
+        write(report, difference);
+        differences++;
+      }
+    } catch (IOException e) {
+      LOG.warn("Failed to write the API differences to " + file + ", the file is incomplete", e);
+      closeGenerator();
+    }
+  }
+
+  private void write(Report report, Difference difference) throws IOException {
+    Element element = report.getNewElement() != null ? report.getNewElement() : report.getOldElement();
+    String type = getTopLevelTypeName(element);
+    String packageName = ExportKind.getPackageName(type);
+
+    generator.writeStartObject();
+    generator.writeStringField("code", difference.code);
+    generator.writeStringField("name", difference.name);
+    generator.writeStringField("severity", getSeverity(difference).name());
+    generator.writeObjectFieldStart("classification");
+    for (Map.Entry<CompatibilityType, DifferenceSeverity> classification : difference.classification.entrySet()) {
+      generator.writeStringField(classification.getKey().name(), classification.getValue().name());
+    }
+    generator.writeEndObject();
+    generator.writeStringField("old", toString(report.getOldElement()));
+    generator.writeStringField("new", toString(report.getNewElement()));
+    generator.writeStringField("type", type);
+    generator.writeStringField("package", packageName);
+    ModuleExports exports = report.getNewElement() != null ? newExports : oldExports;
+    generator.writeStringField("export", ExportKind.of(exports, packageName).toString());
+    generator.writeEndObject();
+    generator.writeRaw('\n');
+  }
+
+  private static String toString(Element element) {
+    return element == null ? null : element.getFullHumanReadableString();
+  }
+
+  private static DifferenceSeverity getSeverity(Difference difference) {
+    DifferenceSeverity severity = DifferenceSeverity.EQUIVALENT;
+    for (DifferenceSeverity classification : difference.classification.values()) {
+      if (classification.compareTo(severity) > 0) {
+        severity = classification;
+      }
+    }
+    return severity;
+  }
+
+  private void closeGenerator() {
+    try {
+      generator.close();
+    } catch (IOException e) {
+      LOG.warn("Failed to close " + file, e);
+    }
+    generator = null;
+  }
+
+  @Override
+  public void close() {
+    if (generator != null) {
+      closeGenerator();
+      LOG.info("Wrote " + differences + " API differences to " + file);
+    }
+  }
+}
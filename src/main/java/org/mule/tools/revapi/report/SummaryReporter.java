@@ -0,0 +1,220 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.report;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.mule.tools.revapi.SessionReporter.getTopLevelTypeName;
+
+import org.mule.tools.revapi.ModuleExports;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.revapi.AnalysisContext;
+import org.revapi.Difference;
+import org.revapi.DifferenceSeverity;
+import org.revapi.Element;
+import org.revapi.Report;
+import org.revapi.Reporter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Summarizes the differences that reach the reporters, counting them per package and per difference code, separately for each
+ * {@link ExportKind}, along with the types with the most differences.
+ * <p/>
+ * Differences are aggregated as they are reported and then dropped, so the memory used only depends on the number of packages
+ * and codes, never on the number of differences. Package and code names are interned into dense ids that index primitive
+ * counters, and the most affected types are tracked by {@link TopTypes} in a bounded number of slots.
+ * <p/>
+ * Enabled by configuring the {@code mule.module.summary} extension. The summary is logged when the analysis ends, and also
+ * written to the configured {@code file}, if any.
+ *
+ * @since 1.10
+ */
+public final class SummaryReporter implements Reporter {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SummaryReporter.class);
+
+  private static final String SCHEMA = "/META-INF/mule-module-summary-config-schema.json";
+  private static final String FILE = "file";
+  private static final String TOP_TYPES = "topTypes";
+  private static final int DEFAULT_TOP_TYPES = 10;
+  private static final int SLOTS_PER_TOP_TYPE = 10;
+  private static final ExportKind[] EXPORT_KINDS = ExportKind.values();
+
+  private boolean enabled;
+  private Path file;
+  private int topTypesLimit;
+  private ModuleExports oldExports;
+  private ModuleExports newExports;
+
+  private final Map<String, Integer> packageIds = new HashMap<>();
+  private final List<String> packageNames = new ArrayList<>();
+  private final Map<String, Integer> codeIds = new HashMap<>();
+  private final List<String> codeNames = new ArrayList<>();
+  private final IntCounters[] packageCounts = new IntCounters[EXPORT_KINDS.length];
+  private final IntCounters[] packageBreakingCounts = new IntCounters[EXPORT_KINDS.length];
+  private final IntCounters[] codeCounts = new IntCounters[EXPORT_KINDS.length];
+  private TopTypes topTypes;
+  private long differences;
+  private long breakingDifferences;
+
+  @Override
+  public String getExtensionId() {
+    return "mule.module.summary";
+  }
+
+  @Override
+  public Reader getJSONSchema() {
+    return new InputStreamReader(getClass().getResourceAsStream(SCHEMA), UTF_8);
+  }
+
+  @Override
+  public void initialize(AnalysisContext analysisContext) {
+    JsonNode configuration = analysisContext.getConfigurationNode();
+    enabled = configuration != null && configuration.isObject();
+    if (!enabled) {
+      return;
+    }
+
+    String configuredFile = configuration.path(FILE).asText(null);
+    file = configuredFile == null || configuredFile.isEmpty() ? null : Paths.get(configuredFile);
+    topTypesLimit = configuration.path(TOP_TYPES).asInt(DEFAULT_TOP_TYPES);
+    oldExports = ExportKind.getExports(analysisContext.getOldApi());
+    newExports = ExportKind.getExports(analysisContext.getNewApi());
+
+    packageIds.clear();
+    packageNames.clear();
+    codeIds.clear();
+    codeNames.clear();
+    for (int i = 0; i < EXPORT_KINDS.length; i++) {
+      packageCounts[i] = new IntCounters();
+      packageBreakingCounts[i] = new IntCounters();
+      codeCounts[i] = new IntCounters();
+    }
+    topTypes = new TopTypes(Math.max(1, topTypesLimit) * SLOTS_PER_TOP_TYPE);
+    differences = 0;
+    breakingDifferences = 0;
+  }
+
+  @Override
+  public void report(Report report) {
+    if (!enabled || report.getDifferences().isEmpty()) {
+      return;
+    }
+
+    Element element = report.getNewElement() != null ? report.getNewElement() : report.getOldElement();
+    String type = getTopLevelTypeName(element);
+    String packageName = ExportKind.getPackageName(type);
+    int kind = ExportKind.of(report.getNewElement() != null ? newExports : oldExports, packageName).ordinal();
+    int packageId = intern(packageName, packageIds, packageNames);
+
+    for (Difference difference : report.getDifferences()) {
+      differences++;
+      packageCounts[kind].increment(packageId);
+      codeCounts[kind].increment(intern(difference.code, codeIds, codeNames));
+      if (difference.classification.containsValue(DifferenceSeverity.BREAKING)) {
+        breakingDifferences++;
+        packageBreakingCounts[kind].increment(packageId);
+      }
+      if (type != null) {
+        topTypes.add(type);
+      }
+    }
+  }
+
+  private static int intern(String name, Map<String, Integer> ids, List<String> names) {
+    Integer id = ids.get(name);
+    if (id == null) {
+      id = names.size();
+      ids.put(name, id);
+      names.add(name);
+    }
+    return id;
+  }
+
+  /**
+   * @return the lines of the summary
+   */
+  private List<String> getSummary() {
+    List<String> lines = new ArrayList<>();
+    lines.add("API difference summary: " + differences + " differences, " + breakingDifferences + " breaking");
+    for (ExportKind kind : EXPORT_KINDS) {
+      IntCounters kindPackageCounts = packageCounts[kind.ordinal()];
+      IntCounters kindBreakingCounts = packageBreakingCounts[kind.ordinal()];
+      List<Integer> packages = getSortedIds(packageNames.size(), kindPackageCounts);
+      if (packages.isEmpty()) {
+        continue;
+      }
+
+      lines.add("Packages with " + kind + " exports:");
+      for (int id : packages) {
+        String packageName = packageNames.get(id).isEmpty() ? "(default package)" : packageNames.get(id);
+        lines.add("  " + packageName + ": " + kindPackageCounts.get(id) + " (" + kindBreakingCounts.get(id) + " breaking)");
+      }
+      lines.add("Codes in packages with " + kind + " exports:");
+      IntCounters kindCodeCounts = codeCounts[kind.ordinal()];
+      for (int id : getSortedIds(codeNames.size(), kindCodeCounts)) {
+        lines.add("  " + codeNames.get(id) + ": " + kindCodeCounts.get(id));
+      }
+    }
+
+    List<TopTypes.Counter> top = topTypes.getTop(topTypesLimit);
+    if (!top.isEmpty()) {
+      lines.add("Most affected types:");
+      for (TopTypes.Counter counter : top) {
+        lines.add("  " + counter.getType() + ": " + counter.getCount()
+            + (counter.getError() > 0 ? " (at most " + counter.getError() + " too many)" : ""));
+      }
+    }
+    return lines;
+  }
+
+  private static List<Integer> getSortedIds(int size, IntCounters counters) {
+    List<Integer> ids = new ArrayList<>();
+    for (int id = 0; id < size; id++) {
+      if (counters.get(id) > 0) {
+        ids.add(id);
+      }
+    }
+    ids.sort(Comparator.comparingInt(counters::get).reversed());
+    return ids;
+  }
+
+  @Override
+  public void close() {
+    if (!enabled) {
+      return;
+    }
+    enabled = false;
+
+    List<String> summary = getSummary();
+    LOG.info(String.join(System.lineSeparator(), summary));
+    if (file != null) {
+      try {
+        if (file.getParent() != null) {
+          Files.createDirectories(file.getParent());
+        }
+        Files.write(file, summary, UTF_8);
+      } catch (IOException e) {
+        LOG.warn("Failed to write the API difference summary to " + file, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.report;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Types with the most differences, tracked in bounded memory with the Space-Saving algorithm.
+ * <p/>
+ * At most {@code capacity} types are tracked. When a type that is not tracked shows up and every slot is taken, it replaces the
+ * type with the lowest count and inherits that count, which is kept as the maximum error of its own count. The count of a type
+ * is never lower than its real count, and every type with more than {@code total / capacity} differences is tracked. As long as
+ * there are no more types than slots, the counts are exact.
+ *
+ * @since 1.10
+ */
+final class TopTypes {
+
+  private final int capacity;
+  private final Map<String, Counter> counters = new HashMap<>();
+
+  /**
+   * @param capacity maximum number of types tracked
+   */
+  TopTypes(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * @param type canonical name of a type with a difference
+   */
+  void add(String type) {
+    Counter counter = counters.get(type);
+    if (counter == null) {
+      if (counters.size() < capacity) {
+        counter = new Counter(type, 0);
+      } else {
+        Counter minimum = counters.values().stream().min(Comparator.comparingInt(c -> c.count)).get();
+        counters.remove(minimum.type);
+        counter = new Counter(type, minimum.count);
+      }
+      counters.put(type, counter);
+    }
+    counter.count++;
+  }
+
+  /**
+   * @param limit maximum number of types to return
+   * @return the types with the highest counts, from highest to lowest
+   */
+  List<Counter> getTop(int limit) {
+    List<Counter> top = new ArrayList<>(counters.values());
+    top.sort(Comparator.comparingInt((Counter c) -> c.count).reversed().thenComparing(c -> c.type));
+    return top.subList(0, Math.min(limit, top.size()));
+  }
+
+  /**
+   * Count of a tracked type.
+   */
+  static final class Counter {
+
+    private final String type;
+    private final int error;
+    private int count;
+
+    private Counter(String type, int error) {
+      this.type = type;
+      this.error = error;
+      this.count = error;
+    }
+
+    /**
+     * @return canonical name of the type
+     */
+    String getType() {
+      return type;
+    }
+
+    /**
+     * @return number of differences of the type, at most {@link #getError()} higher than the real one
+     */
+    int getCount() {
+      return count;
+    }
+
+    /**
+     * @return maximum overestimation of the count
+     */
+    int getError() {
+      return error;
+    }
+  }
+}
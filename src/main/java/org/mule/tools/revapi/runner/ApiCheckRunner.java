@@ -0,0 +1,312 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static java.lang.management.ManagementFactory.getRuntimeMXBean;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.Files.readAllBytes;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.mule.tools.revapi.archive.InMemoryArchive;
+import org.mule.tools.revapi.classfile.AbiFingerprints;
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+import org.mule.tools.revapi.embedded.ApiCheckRequest;
+import org.mule.tools.revapi.embedded.ApiChecker;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.revapi.API;
+import org.revapi.Archive;
+
+/**
+ * Runs the API check of a Mule module outside of Maven, with the same filter and transforms used by the Maven build, through
+ * an {@link ApiChecker}.
+ * <p/>
+ * In watch mode, the runner keeps the old version of the API in memory and analyzes the new one again every time its classes
+ * change. Only the exported types whose ABI changed since the previous analysis go through Revapi again, and the runner prints
+ * the differences that appeared or disappeared since the previous report.
+ * <p/>
+ * With {@code --shards}, the exported packages are partitioned into {@link ApiShards disjoint shards}, each one analyzed by its
+ * own runner process with the analysis restricted to the packages of the shard, and the reports of the shards are merged into
+ * a single one. A single shard can be analyzed with {@code --shard}, on any machine, and the reports written with
+ * {@code --output} merged afterwards with {@code --merge}.
+ *
+ * @since 1.10
+ */
+public final class ApiCheckRunner {
+
+  private static final int SUCCESS = 0;
+  private static final int BROKEN_API = 1;
+  private static final int ERROR = 2;
+
+  private final RunnerOptions options;
+  private final PrintStream out;
+  private final ApiChecker checker = ApiChecker.create(1);
+  private final List<Archive> oldArchives;
+  private final List<Archive> supplementaryArchives;
+  private final String configuration;
+
+  private ApiCheckRunner(RunnerOptions options, PrintStream out) throws IOException {
+    this.options = options;
+    this.out = out;
+    this.supplementaryArchives = loadArchives(options.getSupplementaryArchives());
+    this.oldArchives = loadArchives(options.getOldArchives());
+    this.configuration = options.getConfiguration() == null ? "{}"
+        : new String(readAllBytes(options.getConfiguration()), UTF_8);
+  }
+
+  public static void main(String[] args) {
+    System.exit(run(args, System.out));
+  }
+
+  /**
+   * Runs the check.
+   *
+   * @param args command line arguments. See {@link RunnerOptions#USAGE}
+   * @param out  where to print the reports
+   * @return the exit code: 0 if the API is not broken, 1 if it is, 2 if the check could not run
+   */
+  static int run(String[] args, PrintStream out) {
+    RunnerOptions options;
+    try {
+      options = RunnerOptions.parse(args);
+    } catch (IllegalArgumentException e) {
+      out.println(e.getMessage());
+      out.println(RunnerOptions.USAGE);
+      return ERROR;
+    }
+
+    try {
+      if (!options.getReports().isEmpty()) {
+        return merge(options, out);
+      }
+      ApiCheckRunner runner = new ApiCheckRunner(options, out);
+      if (options.isWatch()) {
+        return runner.watch();
+      }
+      return options.getShards() > 1 && options.getShard() < 0 ? runner.runShards() : runner.check();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return SUCCESS;
+    } catch (Exception e) {
+      out.println("API check failed: " + e);
+      return ERROR;
+    }
+  }
+
+  private int check() throws Exception {
+    List<Archive> newArchives = loadArchives(options.getNewArchives());
+    ApiReport report;
+    if (options.getShard() >= 0) {
+      List<String> packages = ApiShards.of(oldArchives, newArchives, options.getShards()).get(options.getShard());
+      // An empty scope means the whole API
+      report = packages.isEmpty() ? new ApiReport() : analyze(newArchives, packages);
+    } else {
+      report = analyze(newArchives, null);
+    }
+    return report(report, options.getOutput(), out);
+  }
+
+  private int runShards() throws Exception {
+    long start = System.nanoTime();
+    List<List<String>> shards = ApiShards.of(oldArchives, loadArchives(options.getNewArchives()), options.getShards());
+    Path directory = Files.createTempDirectory("mule-revapi-shards");
+    Map<Integer, Process> workers = new LinkedHashMap<>();
+    try {
+      for (int shard = 0; shard < shards.size(); shard++) {
+        if (shards.get(shard).isEmpty()) {
+          continue;
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(getWorkerArguments(getRuntimeMXBean().getInputArguments()));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ApiCheckRunner.class.getName());
+        command.addAll(options.getShardArguments(shard, getShardReport(directory, shard)));
+        workers.put(shard, new ProcessBuilder(command).redirectErrorStream(true)
+            .redirectOutput(getShardLog(directory, shard).toFile()).start());
+        out.println("Analyzing shard " + (shard + 1) + " of " + shards.size() + ": " + shards.get(shard).size() + " packages");
+      }
+
+      ApiReport report = new ApiReport();
+      boolean failed = false;
+      // The shards run in parallel, so they share the deadline
+      long deadline = System.nanoTime() + MINUTES.toNanos(options.getShardTimeout());
+      for (Map.Entry<Integer, Process> worker : workers.entrySet()) {
+        if (!worker.getValue().waitFor(Math.max(0, deadline - System.nanoTime()), NANOSECONDS)) {
+          out.println("Shard " + (worker.getKey() + 1) + " did not complete in " + options.getShardTimeout() + " minutes, see "
+              + getShardLog(directory, worker.getKey()));
+          worker.getValue().destroyForcibly();
+          failed = true;
+          continue;
+        }
+        int exitCode = worker.getValue().exitValue();
+        if (exitCode == SUCCESS || exitCode == BROKEN_API) {
+          report.merge(ApiReport.read(getShardReport(directory, worker.getKey())));
+        } else {
+          out.println("Shard " + (worker.getKey() + 1) + " failed, see " + getShardLog(directory, worker.getKey()));
+          failed = true;
+        }
+      }
+      if (failed) {
+        // The logs of the shards are kept
+        return ERROR;
+      }
+      deleteDirectory(directory);
+      out.println("Analyzed " + workers.size() + " shards in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+      return report(report, options.getOutput(), out);
+    } finally {
+      workers.values().forEach(Process::destroy);
+    }
+  }
+
+  /**
+   * Selects the JVM options of this runner the processes of the shards are started with: the same heap, collector and class
+   * data sharing archive, but no debugger, no limit on the JIT compiler, which only pays off for short runs, and no dump of a
+   * class data sharing archive, which every shard would overwrite.
+   *
+   * @param inputArguments JVM options of this runner
+   * @return the options of the processes of the shards
+   */
+  static List<String> getWorkerArguments(List<String> inputArguments) {
+    List<String> arguments = new ArrayList<>();
+    for (String argument : inputArguments) {
+      if (!argument.startsWith("-agentlib:jdwp") && !argument.startsWith("-XX:TieredStopAtLevel")
+          && !argument.startsWith("-XX:ArchiveClassesAtExit")) {
+        arguments.add(argument);
+      }
+    }
+    return arguments;
+  }
+
+  private static Path getShardReport(Path directory, int shard) {
+    return directory.resolve("shard-" + (shard + 1) + ".txt");
+  }
+
+  private static Path getShardLog(Path directory, int shard) {
+    return directory.resolve("shard-" + (shard + 1) + ".log");
+  }
+
+  private static void deleteDirectory(Path directory) throws IOException {
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+      for (Path file : files) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  private static int merge(RunnerOptions options, PrintStream out) throws IOException {
+    ApiReport report = new ApiReport();
+    for (Path file : options.getReports()) {
+      report.merge(ApiReport.read(file));
+    }
+    return report(report, options.getOutput(), out);
+  }
+
+  private static int report(ApiReport report, Path output, PrintStream out) throws IOException {
+    if (output != null) {
+      report.write(output);
+    }
+    report.print(out);
+    return report.isBreaking() ? BROKEN_API : SUCCESS;
+  }
+
+  private int watch() throws Exception {
+    List<Archive> newArchives = loadArchives(options.getNewArchives());
+    Map<String, String> fingerprints = getFingerprints(newArchives);
+    ApiReport report = analyze(newArchives, null);
+    report.print(out);
+
+    try (ClassesWatcher watcher = new ClassesWatcher(options.getNewArchives())) {
+      while (true) {
+        out.println("Watching " + options.getNewArchives() + " for changes...");
+        watcher.awaitChange();
+
+        long start = System.nanoTime();
+        newArchives = loadArchives(options.getNewArchives());
+        Map<String, String> newFingerprints = getFingerprints(newArchives);
+        Set<String> changedTypes = getChangedTypes(fingerprints, newFingerprints);
+        fingerprints = newFingerprints;
+        if (changedTypes.isEmpty()) {
+          out.println("No exported type changed its ABI");
+          continue;
+        }
+
+        ApiReport newReport = report.update(changedTypes, analyze(newArchives, changedTypes));
+        out.println("Analyzed " + changedTypes.size() + " changed exported types in " + (System.nanoTime() - start) / 1_000_000
+            + " ms");
+        newReport.printChanges(report, out);
+        report = newReport;
+      }
+    }
+  }
+
+  private ApiReport analyze(List<Archive> newArchives, Collection<String> scope) throws Exception {
+    ApiCheckRequest.Builder request = ApiCheckRequest.builder()
+        .withOldArchives(oldArchives)
+        .withNewArchives(newArchives)
+        .withSupplementaryArchives(supplementaryArchives)
+        .withPrunedSupplementaryArchives(options.isPruneSupplementary())
+        .withConfiguration(configuration);
+    if (scope != null) {
+      request.withScope(scope);
+    }
+
+    ApiReport report = new ApiReport();
+    checker.check(request.build()).getDifferences().forEach(report::add);
+    return report;
+  }
+
+  private static List<Archive> loadArchives(List<Path> paths) throws IOException {
+    List<Archive> archives = new ArrayList<>();
+    for (Path path : paths) {
+      archives.add(InMemoryArchive.of(path));
+    }
+    return archives;
+  }
+
+  private Map<String, String> getFingerprints(List<Archive> newArchives) {
+    API api = API.of(newArchives).supportedBy(supplementaryArchives).build();
+    AbiFingerprints fingerprints = AbiFingerprints.of(ClassPool.of(api));
+    Map<String, String> result = new HashMap<>();
+    fingerprints.getTopLevelTypes().forEach(type -> result.put(ClassFile.toCanonicalName(type), fingerprints.get(type)));
+    return result;
+  }
+
+  /**
+   * @param fingerprints    ABI fingerprints of the exported types in the previous analysis, keyed by canonical name
+   * @param newFingerprints ABI fingerprints of the exported types now
+   * @return types that changed their ABI, appeared or disappeared since the previous analysis, sorted
+   */
+  static Set<String> getChangedTypes(Map<String, String> fingerprints, Map<String, String> newFingerprints) {
+    Set<String> changedTypes = new TreeSet<>();
+    fingerprints.forEach((type, fingerprint) -> {
+      if (!fingerprint.equals(newFingerprints.get(type))) {
+        changedTypes.add(type);
+      }
+    });
+    newFingerprints.keySet().stream().filter(type -> !fingerprints.containsKey(type)).forEach(changedTypes::add);
+    return changedTypes;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.revapi.DifferenceSeverity.BREAKING;
+
+import org.mule.tools.revapi.embedded.ApiDifference;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * API differences found by an analysis, grouped by the top level type they belong to.
+ * <p/>
+ * Reports of the shards of an analysis are written to files with a line per difference, holding the type and the difference
+ * separated by a tab, and merged back into a single report.
+ *
+ * @since 1.10
+ */
+final class ApiReport {
+
+  private final Map<String, SortedSet<String>> differences = new TreeMap<>();
+
+  /**
+   * @param difference difference to add
+   */
+  void add(ApiDifference difference) {
+    differences.computeIfAbsent(difference.getType(), type -> new TreeSet<>()).add(difference.toString());
+  }
+
+  /**
+   * Creates a report replacing the differences of some types with the ones found by an analysis restricted to them.
+   *
+   * @param analyzedTypes canonical names of the types the partial report covers
+   * @param partialReport report of the analysis of those types
+   * @return the merged report
+   */
+  ApiReport update(Collection<String> analyzedTypes, ApiReport partialReport) {
+    ApiReport merged = new ApiReport();
+    merged.differences.putAll(differences);
+    analyzedTypes.forEach(merged.differences::remove);
+    merged.differences.putAll(partialReport.differences);
+    return merged;
+  }
+
+  /**
+   * Adds every difference of another report. Differences both reports have are only kept once.
+   *
+   * @param report report to merge into this one
+   */
+  void merge(ApiReport report) {
+    report.differences
+        .forEach((type, typeDifferences) -> differences.computeIfAbsent(type, t -> new TreeSet<>()).addAll(typeDifferences));
+  }
+
+  /**
+   * @param file where to write the differences of the report
+   * @throws IOException if the file cannot be written
+   */
+  void write(Path file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, UTF_8)) {
+      for (Map.Entry<String, SortedSet<String>> entry : differences.entrySet()) {
+        for (String difference : entry.getValue()) {
+          writer.write(entry.getKey() + "\t" + difference);
+          writer.newLine();
+        }
+      }
+    }
+  }
+
+  /**
+   * @param file file written by {@link #write(Path)}
+   * @return the report
+   * @throws IOException if the file cannot be read or is not a report
+   */
+  static ApiReport read(Path file) throws IOException {
+    ApiReport report = new ApiReport();
+    List<String> lines = Files.readAllLines(file, UTF_8);
+    for (String line : lines) {
+      int separator = line.indexOf('\t');
+      if (separator < 0) {
+        throw new IOException("Invalid line in the report " + file + ": " + line);
+      }
+      report.differences.computeIfAbsent(line.substring(0, separator), type -> new TreeSet<>())
+          .add(line.substring(separator + 1));
+    }
+    return report;
+  }
+
+  /**
+   * @return true if any difference is breaking
+   */
+  boolean isBreaking() {
+    String breaking = "[" + BREAKING + "]";
+    return differences.values().stream().flatMap(Set::stream).anyMatch(difference -> difference.startsWith(breaking));
+  }
+
+  /**
+   * Prints every difference of the report.
+   *
+   * @param out where to print the report
+   */
+  void print(PrintStream out) {
+    differences.values().forEach(typeDifferences -> typeDifferences.forEach(out::println));
+    out.println(getSummary());
+  }
+
+  /**
+   * Prints the differences that appeared or disappeared since a previous report.
+   *
+   * @param previous previous report
+   * @param out      where to print the changes
+   */
+  void printChanges(ApiReport previous, PrintStream out) {
+    SortedSet<String> current = getAllDifferences();
+    SortedSet<String> before = previous.getAllDifferences();
+    boolean changed = false;
+    for (String difference : before) {
+      if (!current.contains(difference)) {
+        out.println("- " + difference);
+        changed = true;
+      }
+    }
+    for (String difference : current) {
+      if (!before.contains(difference)) {
+        out.println("+ " + difference);
+        changed = true;
+      }
+    }
+    out.println(changed ? getSummary() : "No change in the reported differences. " + getSummary());
+  }
+
+  private SortedSet<String> getAllDifferences() {
+    SortedSet<String> all = new TreeSet<>();
+    differences.values().forEach(all::addAll);
+    return all;
+  }
+
+  private String getSummary() {
+    long count = getAllDifferences().size();
+    return count + " API differences" + (isBreaking() ? ", API is broken" : "");
+  }
+}
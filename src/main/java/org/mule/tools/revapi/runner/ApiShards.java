@@ -0,0 +1,75 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import org.mule.tools.revapi.classfile.ClassFile;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.revapi.API;
+import org.revapi.Archive;
+
+/**
+ * Partition of the exported packages of a Mule module into disjoint shards, so each shard can be analyzed by its own process.
+ * <p/>
+ * Packages are weighted by the number of classes both versions of the module have in them, and assigned, heaviest first, to the
+ * shard with the least weight so far. Ties are broken by package name and shard order, so every process computes the same
+ * partition from the same archives, wherever it runs.
+ *
+ * @since 1.10
+ */
+final class ApiShards {
+
+  private ApiShards() {}
+
+  /**
+   * @param oldArchives archives of the old version of the API
+   * @param newArchives archives of the new version of the API
+   * @param count       number of shards
+   * @return packages of each shard, sorted. Shards are empty when there are fewer packages than shards.
+   */
+  static List<List<String>> of(List<Archive> oldArchives, List<Archive> newArchives, int count) {
+    Map<String, Integer> weights = new TreeMap<>();
+    addWeights(oldArchives, weights);
+    addWeights(newArchives, weights);
+
+    List<Map.Entry<String, Integer>> packages = new ArrayList<>(weights.entrySet());
+    // Stable sort, packages of the same weight stay sorted by name
+    packages.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+    List<List<String>> shards = new ArrayList<>();
+    long[] shardWeights = new long[count];
+    for (int i = 0; i < count; i++) {
+      shards.add(new ArrayList<>());
+    }
+    for (Map.Entry<String, Integer> entry : packages) {
+      int lightest = 0;
+      for (int i = 1; i < count; i++) {
+        if (shardWeights[i] < shardWeights[lightest]) {
+          lightest = i;
+        }
+      }
+      shards.get(lightest).add(entry.getKey());
+      shardWeights[lightest] += entry.getValue();
+    }
+    shards.forEach(shard -> shard.sort(null));
+    return shards;
+  }
+
+  private static void addWeights(List<Archive> archives, Map<String, Integer> weights) {
+    ClassPool pool = ClassPool.of(API.of(archives).build());
+    // Packages exported without classes still get a shard, so their removal is reported
+    pool.getExports().getPackages().forEach(packageName -> weights.putIfAbsent(packageName, 0));
+    for (String name : pool.getExportedClassNames()) {
+      weights.merge(ClassFile.getPackageName(name), 1, Integer::sum);
+    }
+  }
+}
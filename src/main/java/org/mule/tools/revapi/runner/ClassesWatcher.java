@@ -0,0 +1,90 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static java.nio.file.Files.isDirectory;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Waits for changes in the class directories or jars of the new version of an API.
+ * <p/>
+ * A compilation writes many files in a row, so a change is only notified once no more events arrive for a short time.
+ *
+ * @since 1.10
+ */
+final class ClassesWatcher implements AutoCloseable {
+
+  private static final long QUIET_PERIOD_MILLIS = 300;
+
+  private final WatchService watchService;
+
+  /**
+   * @param paths class directories and jars to watch
+   * @throws IOException if the paths cannot be watched
+   */
+  ClassesWatcher(Collection<Path> paths) throws IOException {
+    watchService = FileSystems.getDefault().newWatchService();
+    for (Path path : paths) {
+      if (isDirectory(path)) {
+        registerTree(path);
+      } else {
+        register(path.toAbsolutePath().getParent());
+      }
+    }
+  }
+
+  /**
+   * Blocks until a change happens and no other change follows it during the quiet period.
+   *
+   * @throws InterruptedException if the thread is interrupted while waiting
+   * @throws IOException          if a new directory cannot be watched
+   */
+  void awaitChange() throws InterruptedException, IOException {
+    WatchKey key = watchService.take();
+    while (key != null) {
+      Path directory = (Path) key.watchable();
+      for (WatchEvent<?> event : key.pollEvents()) {
+        Path changed = directory.resolve((Path) event.context());
+        if (event.kind() == ENTRY_CREATE && isDirectory(changed)) {
+          registerTree(changed);
+        }
+      }
+      key.reset();
+      key = watchService.poll(QUIET_PERIOD_MILLIS, MILLISECONDS);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    watchService.close();
+  }
+
+  private void registerTree(Path root) throws IOException {
+    try (Stream<Path> directories = Files.walk(root).filter(Files::isDirectory)) {
+      for (Path directory : (Iterable<Path>) directories::iterator) {
+        register(directory);
+      }
+    }
+  }
+
+  private void register(Path directory) throws IOException {
+    directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+  }
+}
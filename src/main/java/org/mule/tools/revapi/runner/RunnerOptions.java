@@ -0,0 +1,259 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static java.io.File.pathSeparator;
+import static java.util.Collections.unmodifiableList;
+import static java.util.stream.Collectors.joining;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command line options of the {@link ApiCheckRunner}.
+ *
+ * @since 1.10
+ */
+final class RunnerOptions {
+
+  static final String USAGE = "Usage: ApiCheckRunner --old <jar>[" + pathSeparator + "<jar>...] --new <jar|dir>["
+      + pathSeparator + "<jar|dir>...] [--supplementary <jar>[" + pathSeparator + "<jar>...]] [--prune-supplementary]"
+      + " [--config <json file>] [--watch | --shards <count> [--shard-timeout <minutes>] | --shard <index>/<count>]"
+      + " [--output <report file>]\n"
+      + "       ApiCheckRunner --merge <report file>[" + pathSeparator + "<report file>...]";
+
+  private static final int DEFAULT_SHARD_TIMEOUT_MINUTES = 60;
+
+  private final List<Path> oldArchives = new ArrayList<>();
+  private final List<Path> newArchives = new ArrayList<>();
+  private final List<Path> supplementaryArchives = new ArrayList<>();
+  private boolean pruneSupplementary;
+  private Path configuration;
+  private boolean watch;
+  private int shards = 1;
+  private int shard = -1;
+  private int shardTimeout = DEFAULT_SHARD_TIMEOUT_MINUTES;
+  private Path output;
+  private final List<Path> reports = new ArrayList<>();
+
+  private RunnerOptions() {}
+
+  /**
+   * @param args command line arguments
+   * @return the parsed options
+   * @throws IllegalArgumentException if the arguments are not valid
+   */
+  static RunnerOptions parse(String[] args) {
+    RunnerOptions options = new RunnerOptions();
+    int modes = 0;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--old":
+          addPaths(options.oldArchives, value(args, ++i));
+          break;
+        case "--new":
+          addPaths(options.newArchives, value(args, ++i));
+          break;
+        case "--supplementary":
+          addPaths(options.supplementaryArchives, value(args, ++i));
+          break;
+        case "--prune-supplementary":
+          options.pruneSupplementary = true;
+          break;
+        case "--config":
+          options.configuration = Paths.get(value(args, ++i));
+          break;
+        case "--watch":
+          options.watch = true;
+          modes++;
+          break;
+        case "--shards":
+          options.shards = positive("--shards", value(args, ++i));
+          modes++;
+          break;
+        case "--shard":
+          parseShard(options, value(args, ++i));
+          modes++;
+          break;
+        case "--shard-timeout":
+          options.shardTimeout = positive("--shard-timeout", value(args, ++i));
+          break;
+        case "--output":
+          options.output = Paths.get(value(args, ++i));
+          break;
+        case "--merge":
+          addPaths(options.reports, value(args, ++i));
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + args[i]);
+      }
+    }
+
+    if (!options.reports.isEmpty()) {
+      return options;
+    }
+    if (options.oldArchives.isEmpty() || options.newArchives.isEmpty()) {
+      throw new IllegalArgumentException("Both --old and --new must be set");
+    }
+    if (modes > 1) {
+      throw new IllegalArgumentException("Only one of --watch, --shards and --shard can be set");
+    }
+    return options;
+  }
+
+  private static void parseShard(RunnerOptions options, String value) {
+    int separator = value.indexOf('/');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Invalid shard " + value + ", expected <index>/<count>");
+    }
+    int index = positive("--shard", value.substring(0, separator));
+    options.shards = positive("--shard", value.substring(separator + 1));
+    if (index > options.shards) {
+      throw new IllegalArgumentException("Invalid shard " + value + ", the index cannot be greater than the count");
+    }
+    options.shard = index - 1;
+  }
+
+  private static int positive(String option, String value) {
+    try {
+      int number = Integer.parseInt(value);
+      if (number > 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new IllegalArgumentException("Invalid value " + value + " for " + option + ", expected a positive number");
+  }
+
+  /**
+   * Builds the arguments of a runner that analyzes one of the shards of the analysis of these options.
+   *
+   * @param shard  index of the shard, from 0
+   * @param output where the runner must write its report
+   * @return the arguments
+   */
+  List<String> getShardArguments(int shard, Path output) {
+    List<String> args = new ArrayList<>();
+    addArgument(args, "--old", oldArchives);
+    addArgument(args, "--new", newArchives);
+    if (!supplementaryArchives.isEmpty()) {
+      addArgument(args, "--supplementary", supplementaryArchives);
+    }
+    if (pruneSupplementary) {
+      args.add("--prune-supplementary");
+    }
+    if (configuration != null) {
+      args.add("--config");
+      args.add(configuration.toString());
+    }
+    args.add("--shard");
+    args.add((shard + 1) + "/" + shards);
+    args.add("--output");
+    args.add(output.toString());
+    return args;
+  }
+
+  private static void addArgument(List<String> args, String option, List<Path> paths) {
+    args.add(option);
+    args.add(paths.stream().map(Path::toString).collect(joining(pathSeparator)));
+  }
+
+  /**
+   * @return archives of the old version of the API
+   */
+  List<Path> getOldArchives() {
+    return unmodifiableList(oldArchives);
+  }
+
+  /**
+   * @return archives or class directories of the new version of the API
+   */
+  List<Path> getNewArchives() {
+    return unmodifiableList(newArchives);
+  }
+
+  /**
+   * @return dependencies of both versions of the API
+   */
+  List<Path> getSupplementaryArchives() {
+    return unmodifiableList(supplementaryArchives);
+  }
+
+  /**
+   * @return true if only the supplementary archives reachable from the exported API must be analyzed
+   */
+  boolean isPruneSupplementary() {
+    return pruneSupplementary;
+  }
+
+  /**
+   * @return file with the Revapi JSON configuration, or null if there is none
+   */
+  Path getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * @return true if the new archives must be watched and analyzed again on every change
+   */
+  boolean isWatch() {
+    return watch;
+  }
+
+  /**
+   * @return number of shards the exported packages are partitioned into, 1 if the analysis is not sharded
+   */
+  int getShards() {
+    return shards;
+  }
+
+  /**
+   * @return index of the only shard to analyze, from 0, or -1 if the analysis covers every shard
+   */
+  int getShard() {
+    return shard;
+  }
+
+  /**
+   * @return minutes the shards of the analysis have to complete before they are considered failed
+   */
+  int getShardTimeout() {
+    return shardTimeout;
+  }
+
+  /**
+   * @return file where the report must be written, or null if it is only printed
+   */
+  Path getOutput() {
+    return output;
+  }
+
+  /**
+   * @return reports of shards to merge instead of running an analysis, empty if there are none
+   */
+  List<Path> getReports() {
+    return unmodifiableList(reports);
+  }
+
+  private static String value(String[] args, int index) {
+    if (index >= args.length) {
+      throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+    }
+    return args[index];
+  }
+
+  private static void addPaths(List<Path> paths, String value) {
+    for (String path : value.split(pathSeparator)) {
+      if (!path.isEmpty()) {
+        paths.add(Paths.get(path));
+      }
+    }
+  }
+}
@@ -6,7 +6,15 @@
  */
 package org.mule.tools.revapi.transform;
 
+import org.mule.tools.revapi.AnalysisSession;
+import org.mule.tools.revapi.cache.Verdicts;
+import org.mule.tools.revapi.index.ApiIndex;
+import org.mule.tools.revapi.jfr.HierarchyWalkEvent;
+import org.mule.tools.revapi.jfr.TransformDecisionEvent;
+
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -16,10 +24,12 @@ import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.SimpleTypeVisitor8;
 import javax.lang.model.util.Types;
 
+import org.revapi.API;
 import org.revapi.AnalysisContext;
 import org.revapi.Difference;
 import org.revapi.DifferenceTransform;
 import org.revapi.Element;
+import org.revapi.java.model.TypeElement;
 
 /**
  * Base class for implementing annotation based difference transformations.
@@ -30,6 +40,8 @@ public abstract class AbstractApiAnnotationTransform implements DifferenceTransf
 
   private final String id;
   private final Map<String, DifferenceChecker> checkers;
+  private AnalysisSession session;
+  private Map<API, Verdicts> annotatedTypes;
 
   /**
    * Creates a new transformer
@@ -43,17 +55,44 @@ public abstract class AbstractApiAnnotationTransform implements DifferenceTransf
 
   @Override
   public Difference transform(Element oldElement, Element newElement, Difference difference) {
+    long start = session != null && session.getTypeProfile().isEnabled() ? System.nanoTime() : 0;
+    TransformDecisionEvent event = new TransformDecisionEvent();
+    event.begin();
     DifferenceChecker differenceChecker = checkers.get(difference.code);
-    if (differenceChecker != null && differenceChecker.ignore(oldElement, newElement)) {
-      return null;
-    } else {
-      return difference;
+    boolean accepted = differenceChecker != null && differenceChecker.ignore(oldElement, newElement);
+    if (event.shouldCommit()) {
+      event.transform = id;
+      event.code = difference.code;
+      event.element = String.valueOf(newElement != null ? newElement : oldElement);
+      event.accepted = accepted;
+      event.commit();
+    }
+
+    if (session != null) {
+      session.getTypeProfile().transformed(oldElement, newElement, start);
+      session.getMetrics().transformed(difference.code, accepted);
+      if (accepted) {
+        session.accept(oldElement, newElement, difference);
+      }
     }
+    return accepted ? null : difference;
   }
 
   @Override
   public void close() throws Exception {
-
+    if (annotatedTypes != null) {
+      annotatedTypes.values().forEach(verdicts -> {
+        if (session != null) {
+          session.getMetrics().cache(verdicts);
+        }
+        verdicts.clear();
+      });
+      annotatedTypes = null;
+    }
+    if (session != null) {
+      session.release();
+      session = null;
+    }
   }
 
   @Override
@@ -63,7 +102,10 @@ public abstract class AbstractApiAnnotationTransform implements DifferenceTransf
 
   @Override
   public void initialize(AnalysisContext analysisContext) {
-
+    session = AnalysisSession.acquire(analysisContext);
+    annotatedTypes = new HashMap<>();
+    annotatedTypes.put(analysisContext.getOldApi(), new Verdicts("OldAnnotatedTypes(" + id + ")"));
+    annotatedTypes.put(analysisContext.getNewApi(), new Verdicts("NewAnnotatedTypes(" + id + ")"));
   }
 
   @Override
@@ -91,11 +133,75 @@ public abstract class AbstractApiAnnotationTransform implements DifferenceTransf
    */
   protected abstract Map<String, DifferenceChecker> getDifferenceCheckers();
 
+  /**
+   * @return the caches of the annotated types of each version of the API, empty once the transform is closed
+   */
+  List<Verdicts> getVerdicts() {
+    return annotatedTypes == null ? new ArrayList<>() : new ArrayList<>(annotatedTypes.values());
+  }
+
   private Pattern getPatternFor(String code) {
     return Pattern.compile("^" + Pattern.quote(code) + "$");
   }
 
-  boolean isTypeWithAnnotation(Types types, TypeMirror type, SimpleTypeVisitor8<Boolean, Void> checker) {
+  /**
+   * Checks whether a type or one of its supertypes has the annotation of this transform, walking its hierarchy only the first
+   * time the type is checked in each version of the API, and only if the {@link ApiIndex} of the version cannot tell.
+   *
+   * @param typeElement type to check
+   * @param flag        flag of the annotation in the index
+   * @param checker     finds the annotation of this transform in a type
+   * @return true if the type or one of its supertypes is annotated, false otherwise
+   */
+  boolean isTypeWithAnnotation(TypeElement typeElement, int flag, SimpleTypeVisitor8<Boolean, Void> checker) {
+    ApiIndex apiIndex = session == null ? null : session.getApiIndex(typeElement.getApi());
+    if (apiIndex != null && typeElement.getBinaryName() != null) {
+      Boolean indexed = apiIndex.hasAnnotation(typeElement.getBinaryName().replace('.', '/'), flag);
+      if (indexed != null) {
+        return indexed;
+      }
+    }
+
+    Types types = typeElement.getTypeEnvironment().getTypeUtils();
+    Verdicts verdicts = annotatedTypes == null ? null : annotatedTypes.get(typeElement.getApi());
+    String typeName = typeElement.getCanonicalName();
+    if (verdicts == null || typeName == null) {
+      return isTypeWithAnnotation(types, typeElement.getModelRepresentation(), checker);
+    }
+
+    int typeId = session.getSymbols().intern(typeName);
+    Boolean cached = verdicts.get(typeId);
+    if (cached != null) {
+      return cached;
+    }
+    boolean annotated = isTypeWithAnnotation(types, typeElement.getModelRepresentation(), checker);
+    verdicts.put(typeId, annotated);
+    return annotated;
+  }
+
+  private boolean isTypeWithAnnotation(Types types, TypeMirror type, SimpleTypeVisitor8<Boolean, Void> checker) {
+    HierarchyWalkEvent event = new HierarchyWalkEvent();
+    event.begin();
+    // Deepest level reached and number of types visited by the walk
+    int[] walk = new int[2];
+    boolean annotated = isTypeWithAnnotation(types, type, checker, 0, walk);
+    if (event.shouldCommit()) {
+      event.type = type.toString();
+      event.depth = walk[0];
+      event.typesVisited = walk[1];
+      event.annotated = annotated;
+      event.commit();
+    }
+    if (session != null) {
+      session.getMetrics().hierarchyWalked(walk[0], walk[1]);
+    }
+    return annotated;
+  }
+
+  private boolean isTypeWithAnnotation(Types types, TypeMirror type, SimpleTypeVisitor8<Boolean, Void> checker, int depth,
+                                       int[] walk) {
+    walk[0] = Math.max(walk[0], depth);
+    walk[1]++;
 
     if (type.accept(checker, null)) {
       return true;
@@ -107,7 +213,7 @@ public abstract class AbstractApiAnnotationTransform implements DifferenceTransf
       if (t.accept(checker, null)) {
         return true;
       }
-      if (isTypeWithAnnotation(types, t, checker)) {
+      if (isTypeWithAnnotation(types, t, checker, depth + 1, walk)) {
         return true;
       }
     }
@@ -15,6 +15,7 @@ import static org.revapi.java.spi.Code.METHOD_REMOVED;
 import static org.revapi.java.spi.Code.METHOD_RETURN_TYPE_CHANGED;
 
 import org.mule.api.annotation.NoExtend;
+import org.mule.tools.revapi.index.ApiIndex;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -61,7 +62,6 @@ public class NoExtendApiAnnotationTransform extends AbstractClassApiAnnotationTr
   }
 
   private boolean hasNoExtendAnnotation(TypeElement typeElement) {
-    return isTypeWithAnnotation(typeElement.getTypeEnvironment().getTypeUtils(), typeElement.getModelRepresentation(),
-                                new ClassVisitor(NoExtend.class));
+    return isTypeWithAnnotation(typeElement, ApiIndex.NO_EXTEND, new ClassVisitor(NoExtend.class));
   }
 }
@@ -8,6 +8,7 @@ package org.mule.tools.revapi.transform;
 
 import static org.revapi.java.spi.Code.METHOD_ADDED_TO_INTERFACE;
 import org.mule.api.annotation.NoImplement;
+import org.mule.tools.revapi.index.ApiIndex;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -45,7 +46,6 @@ public class NoImplementApiAnnotationTransform extends AbstractApiAnnotationTran
   }
 
   private boolean hasNoImplementAnnotation(TypeElement typeElement) {
-    return isTypeWithAnnotation(typeElement.getTypeEnvironment().getTypeUtils(), typeElement.getModelRepresentation(),
-                                new InterfaceVisitor(NoImplement.class));
+    return isTypeWithAnnotation(typeElement, ApiIndex.NO_IMPLEMENT, new InterfaceVisitor(NoImplement.class));
   }
 }
@@ -14,6 +14,7 @@ import static org.revapi.java.spi.Code.METHOD_PARAMETER_TYPE_CHANGED;
 import static org.revapi.java.spi.Code.METHOD_REMOVED;
 import static org.revapi.java.spi.Code.METHOD_RETURN_TYPE_CHANGED;
 import org.mule.api.annotation.NoInstantiate;
+import org.mule.tools.revapi.index.ApiIndex;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -67,8 +68,7 @@ public class NoInstantiateApiAnnotationTransform extends AbstractClassApiAnnotat
   }
 
   private boolean hasNoInstantiateAnnotation(TypeElement typeElement) {
-    return isTypeWithAnnotation(typeElement.getTypeEnvironment().getTypeUtils(), typeElement.getModelRepresentation(),
-                                new ClassVisitor(NoInstantiate.class));
+    return isTypeWithAnnotation(typeElement, ApiIndex.NO_INSTANTIATE, new ClassVisitor(NoInstantiate.class));
   }
 
 }
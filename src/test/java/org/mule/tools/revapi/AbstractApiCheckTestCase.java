@@ -15,6 +15,7 @@ import static java.nio.file.Files.createDirectories;
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 import static java.util.Arrays.stream;
 
+import static org.hamcrest.CoreMatchers.anything;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.not;
@@ -38,6 +39,7 @@ import io.takari.maven.testing.executor.MavenExecutionResult;
 import io.takari.maven.testing.executor.MavenRuntime;
 import io.takari.maven.testing.executor.junit.MavenJUnitTestRunner;
 
+import org.hamcrest.Matcher;
 import org.junit.Rule;
 import org.junit.runner.RunWith;
 
@@ -92,6 +94,11 @@ public abstract class AbstractApiCheckTestCase {
   }
 
   protected void doUnmodifiedApiTest(String projectName) throws Exception {
+    doUnmodifiedApiTest(projectName, anything());
+  }
+
+  protected void doUnmodifiedApiTest(String projectName, Matcher<? super List<String>> revapiCheckLogMatcher)
+      throws Exception {
     MavenExecutionResult result = runMaven(projectName);
 
     List<String> logLines = getLogLines(result);
@@ -103,6 +110,7 @@ public abstract class AbstractApiCheckTestCase {
     // if there was an unexpected error, it will be in the revapi output
     assertThat(revapiCheckLog.toString(), reactorSummaryLog, not(hasItem(containsString(API_ERROR_FOUND))));
     assertThat(reactorSummaryLog, not(hasItem(containsString(MAVEN_BUILD_ERROR))));
+    assertThat(revapiCheckLog, revapiCheckLogMatcher);
   }
 
   private MavenExecutionResult runMaven(String projectName) throws Exception {
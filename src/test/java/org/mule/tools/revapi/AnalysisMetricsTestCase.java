@@ -0,0 +1,191 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.mule.tools.revapi.embedded.ApiCheckRequest;
+import org.mule.tools.revapi.embedded.ApiCheckResult;
+import org.mule.tools.revapi.embedded.ApiChecker;
+import org.mule.tools.revapi.embedded.ApiDifference;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AnalysisMetricsTestCase {
+
+  private static final Pattern ARCHIVES = Pattern.compile("  archives scanned: (\\d+), (\\d+) KB read");
+  private static final Pattern ELEMENTS = Pattern.compile("  elements included: (\\d+), excluded: (\\d+), (\\d+) of them .*");
+  private static final Pattern TRANSFORMS = Pattern.compile("  transform invocations: (\\d+), accepted: (\\d+), passed: (\\d+)");
+  private static final Pattern METHOD_REMOVED = Pattern.compile("    java.method.removed: (\\d+), accepted: (\\d+)");
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path metricsFile;
+
+  @Before
+  public void before() {
+    metricsFile = temporaryFolder.getRoot().toPath().resolve("metrics/revapi.txt");
+    System.setProperty(AnalysisMetrics.FILE_PROPERTY, metricsFile.toString());
+  }
+
+  @After
+  public void after() {
+    System.clearProperty(AnalysisMetrics.ENABLED_PROPERTY);
+    System.clearProperty(AnalysisMetrics.FILE_PROPERTY);
+  }
+
+  @Test
+  public void appendsTheCountersToTheMetricsFile() throws Exception {
+    System.setProperty(AnalysisMetrics.ENABLED_PROPERTY, "true");
+    AnalysisMetrics metrics = new AnalysisMetrics("old -> new");
+    metrics.archiveScanned(2048);
+    metrics.archiveScanned(1024);
+    metrics.elementFiltered(true);
+    metrics.elementFiltered(true);
+    metrics.elementFiltered(false);
+    metrics.elementPruned();
+    metrics.transformed("java.method.removed", true);
+    metrics.transformed("java.method.removed", false);
+    metrics.transformed("java.field.removed", false);
+    metrics.hierarchyWalked(3, 4);
+    metrics.hierarchyWalked(1, 2);
+    metrics.cache("Verdicts(old)");
+
+    metrics.report();
+    metrics.report();
+
+    List<String> lines = Files.readAllLines(metricsFile, UTF_8);
+    assertThat(lines.stream().filter(line -> line.startsWith("Analysis metrics of old -> new")).count(), equalTo(2L));
+    assertThat(lines, hasItem("  archives scanned: 2, 3 KB read"));
+    assertThat(lines, hasItem("  elements included: 2, excluded: 1, 1 of them pruned as inaccessible or compiler generated"));
+    assertThat(lines, hasItem("  cache: Verdicts(old)"));
+    assertThat(lines, hasItem("  hierarchy walks: 2, 6 types visited, max depth 3"));
+    assertThat(lines, hasItem("  transform invocations: 3, accepted: 1, passed: 2"));
+    assertThat(lines, hasItem("    java.field.removed: 1, accepted: 0"));
+    assertThat(lines, hasItem("    java.method.removed: 2, accepted: 1"));
+  }
+
+  @Test
+  public void collectsNothingWhenDisabled() throws Exception {
+    AnalysisMetrics metrics = new AnalysisMetrics("old -> new");
+    metrics.archiveScanned(2048);
+    metrics.elementFiltered(true);
+    metrics.transformed("java.method.removed", true);
+
+    metrics.report();
+
+    assertThat(metrics.isEnabled(), equalTo(false));
+    assertThat(Files.exists(metricsFile), equalTo(false));
+  }
+
+  @Test
+  public void collectsTheMetricsOfAnAnalysis() throws Exception {
+    System.setProperty(AnalysisMetrics.ENABLED_PROPERTY, "true");
+
+    ApiCheckResult result = check();
+
+    assertThat(getCodes(result.getDifferences()), contains("java.method.removed"));
+    assertThat(getCodes(result.getAcceptedDifferences()), contains("java.method.removed"));
+    List<String> lines = Files.readAllLines(metricsFile, UTF_8);
+    assertThat(lines.get(0), startsWith("Analysis metrics of "));
+
+    Matcher archives = find(lines, ARCHIVES);
+    assertThat(archives.group(1), equalTo("2"));
+    assertThat(Long.parseLong(archives.group(2)), greaterThan(0L));
+
+    // Classes of org.bar are not exported, so their elements are filtered out
+    Matcher elements = find(lines, ELEMENTS);
+    assertThat(Long.parseLong(elements.group(1)), greaterThan(0L));
+    assertThat(Long.parseLong(elements.group(2)), greaterThan(0L));
+
+    // Every removed method goes through the transforms, only the protected one of the @NoExtend class is accepted
+    Matcher methodRemoved = find(lines, METHOD_REMOVED);
+    assertThat(Long.parseLong(methodRemoved.group(1)), greaterThan(1L));
+    assertThat(methodRemoved.group(2), equalTo("1"));
+    Matcher transforms = find(lines, TRANSFORMS);
+    assertThat(transforms.group(2), equalTo("1"));
+    assertThat(Long.parseLong(transforms.group(3)), greaterThan(0L));
+  }
+
+  @Test
+  public void writesNoMetricsOfAnAnalysisWhenDisabled() throws Exception {
+    ApiCheckResult result = check();
+
+    assertThat(getCodes(result.getDifferences()), contains("java.method.removed"));
+    assertThat(Files.exists(metricsFile), equalTo(false));
+  }
+
+  private ApiCheckResult check() throws Exception {
+    Path root = temporaryFolder.getRoot().toPath();
+    Path oldJar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n"
+            + "  public void doStuff() {}\n"
+            + "  protected void doProtectedStuff() {}\n"
+            + getFillerMethods() + "}")
+        .withClass("org.bar.C", "public class C {\n  public void doStuff() {}\n}")
+        .jar(root.resolve("old/foo.jar"));
+    Path newJar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n" + getFillerMethods() + "}")
+        .withClass("org.bar.C", "public class C {\n  public void doStuff() {}\n}")
+        .jar(root.resolve("new/foo.jar"));
+
+    try (ApiChecker checker = ApiChecker.create(1)) {
+      return checker.check(ApiCheckRequest.builder()
+          .withOldArchivePaths(singletonList(oldJar))
+          .withNewArchivePaths(singletonList(newJar))
+          .build());
+    }
+  }
+
+  /**
+   * @return unchanged methods making the archives large enough to count their size in KB
+   */
+  private static String getFillerMethods() {
+    StringBuilder methods = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      methods.append("  public String unchanged").append(i).append("(String value) {\n    return value + ").append(i)
+          .append(";\n  }\n");
+    }
+    return methods.toString();
+  }
+
+  private static Matcher find(List<String> lines, Pattern pattern) {
+    for (String line : lines) {
+      Matcher matcher = pattern.matcher(line);
+      if (matcher.matches()) {
+        return matcher;
+      }
+    }
+    throw new AssertionError("No line matches " + pattern + " in " + lines);
+  }
+
+  private static List<String> getCodes(List<ApiDifference> differences) {
+    return differences.stream().map(ApiDifference::getCode).collect(toList());
+  }
+}
@@ -524,8 +524,27 @@ public class ApiErrorLogUtils {
    * @return the expected error log lines for this error code
    */
   public static String[] getMethodRemovedError() {
-    String className = ORG_FOO_A;
-    String methodName = DO_STUFF_METHOD;
+    return getMethodRemovedError(ORG_FOO_A);
+  }
+
+  /**
+   * Generates error log for {@value METHOD_REMOVED }
+   *
+   * @param className class declaring the removed method
+   * @return the expected error log lines for this error code
+   */
+  public static String[] getMethodRemovedError(String className) {
+    return getMethodRemovedError(className, DO_STUFF_METHOD);
+  }
+
+  /**
+   * Generates error log for {@value METHOD_REMOVED }
+   *
+   * @param className  class declaring the removed method
+   * @param methodName name of the removed method, which takes no parameters and returns nothing
+   * @return the expected error log lines for this error code
+   */
+  public static String[] getMethodRemovedError(String className, String methodName) {
     String[] errorLog = new String[] {
         getErrorCodeLine(METHOD_REMOVED),
         getOldElementLine(METHOD, getMethod(className, methodName, VOID, EMPTY_PARAMS)),
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class ApiScopeTestCase {
+
+  private static final Set<String> EXPORTED_PACKAGES = new HashSet<>(asList("org.foo", "org.foo.api", "org.bar"));
+  private static final Set<String> TYPES = new HashSet<>(asList("org.foo.A", "org.foo.A.Nested", "org.bar.B"));
+
+  @Test
+  public void emptyPatternsIncludeEverything() {
+    assertThat(ApiScope.of(emptyList(), EXPORTED_PACKAGES, TYPES::contains).isAll(), is(true));
+  }
+
+  @Test
+  public void packagePatterns() {
+    ApiScope scope = ApiScope.of(asList("org.foo.*"), EXPORTED_PACKAGES, TYPES::contains);
+
+    assertThat(scope.includes("org.foo.A"), is(true));
+    assertThat(scope.includes("org.foo.api.C"), is(false));
+    assertThat(scope.includes("org.bar.B"), is(false));
+  }
+
+  @Test
+  public void subpackagePatterns() {
+    ApiScope scope = ApiScope.of(asList("org.foo.**"), EXPORTED_PACKAGES, TYPES::contains);
+
+    assertThat(scope.includes("org.foo.A"), is(true));
+    assertThat(scope.includes("org.foo.api.C"), is(true));
+    assertThat(scope.includes("org.bar.B"), is(false));
+  }
+
+  @Test
+  public void typePatternsIncludeNestedTypes() {
+    ApiScope scope = ApiScope.of(asList("org.foo.A"), EXPORTED_PACKAGES, TYPES::contains);
+
+    assertThat(scope.includes("org.foo.A"), is(true));
+    assertThat(scope.includes("org.foo.A.Nested"), is(true));
+    assertThat(scope.includes("org.foo.AB"), is(false));
+  }
+
+  @Test
+  public void rejectsPatternOfMissingType() {
+    IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                                              () -> ApiScope.of(asList("org.foo.Typo"), EXPORTED_PACKAGES, TYPES::contains));
+    assertThat(e.getMessage(), containsString("org.foo.Typo"));
+  }
+
+  @Test
+  public void rejectsPatternOfPackageThatIsNotExported() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> ApiScope.of(asList("org.internal.*"), EXPORTED_PACKAGES, TYPES::contains));
+    assertThrows(IllegalArgumentException.class,
+                 () -> ApiScope.of(asList("org.internal.**"), EXPORTED_PACKAGES, TYPES::contains));
+  }
+
+  @Test
+  public void rejectsPatternOfTypeOutOfTheExportedPackages() {
+    assertThrows(IllegalArgumentException.class, () -> ApiScope.of(asList("org.internal.C"), EXPORTED_PACKAGES, name -> true));
+  }
+}
@@ -9,6 +9,7 @@ package org.mule.tools.revapi;
 import static org.mule.tools.revapi.ApiErrorLogUtils.EMPTY_PARAMS;
 import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_BAR_B;
 import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_FOO_A;
+import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_FOO_A_B;
 import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_FOO_A_C;
 import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_FOO_B;
 import static org.mule.tools.revapi.ApiErrorLogUtils.PROTECTED;
@@ -17,6 +18,7 @@ import static org.mule.tools.revapi.ApiErrorLogUtils.STRING;
 import static org.mule.tools.revapi.ApiErrorLogUtils.getAddedClassErrorLog;
 import static org.mule.tools.revapi.ApiErrorLogUtils.getConstructorNumberOfParametersChangedError;
 import static org.mule.tools.revapi.ApiErrorLogUtils.getConstructorVisibilityIncreasedError;
+import static org.mule.tools.revapi.ApiErrorLogUtils.getMethodRemovedError;
 import static org.mule.tools.revapi.ApiErrorLogUtils.getRemovedClassErrorLog;
 
 import io.takari.maven.testing.executor.MavenRuntime;
@@ -93,4 +95,28 @@ public class ClassesApiCheckTestCase extends AbstractApiCheckTestCase {
   public void ignoresRemovedExportedPackageClass() throws Exception {
     doUnmodifiedApiTest("ignoresRemovedExportedPackageClass");
   }
+
+  @Test
+  public void ignoresRemovedPackageNestedClass() throws Exception {
+    doUnmodifiedApiTest("ignoresRemovedPackageNestedClass");
+  }
+
+  @Test
+  public void detectsRemovedProtectedNestedClass() throws Exception {
+    String[] removedClassErrorLog = getRemovedClassErrorLog(ORG_FOO_A_B);
+
+    doBrokenApiTest("detectsRemovedProtectedNestedClass", removedClassErrorLog);
+  }
+
+  @Test
+  public void ignoresCompilerGeneratedMembersAddedToExportedClass() throws Exception {
+    doUnmodifiedApiTest("ignoresCompilerGeneratedMembersAddedToExportedClass");
+  }
+
+  @Test
+  public void detectsRemovedPublicMethodWithCompilerGeneratedLikeName() throws Exception {
+    String[] methodRemovedError = getMethodRemovedError(ORG_FOO_A, "access$doStuff");
+
+    doBrokenApiTest("detectsRemovedPublicMethodWithCompilerGeneratedLikeName", methodRemovedError);
+  }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.DecisionTrace.APPLIES;
+import static org.mule.tools.revapi.DecisionTrace.DESCEND_INTO;
+import static org.mule.tools.revapi.DecisionTrace.EXPORTED;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.mule.tools.revapi.cache.SymbolTable;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DecisionTraceTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private SymbolTable symbols;
+  private int foo;
+  private int bar;
+
+  @Before
+  public void before() {
+    symbols = new SymbolTable();
+    foo = symbols.intern("org.foo.A");
+    bar = symbols.intern("org.bar.B");
+  }
+
+  @After
+  public void after() {
+    System.clearProperty(DecisionTrace.SIZE_PROPERTY);
+    System.clearProperty(DecisionTrace.FILTER_PROPERTY);
+    System.clearProperty(DecisionTrace.FILE_PROPERTY);
+  }
+
+  @Test
+  public void keepsTheLastRecordsWhenTheRingWrapsAround() {
+    System.setProperty(DecisionTrace.SIZE_PROPERTY, "3");
+    DecisionTrace trace = new DecisionTrace("old -> new", symbols);
+
+    trace.record(EXPORTED, true, foo, null);
+    trace.record(APPLIES, false, bar, null);
+    trace.record(DESCEND_INTO, true, foo, null);
+    trace.record(APPLIES, true, bar, null);
+    trace.record(EXPORTED, false, -1, null);
+
+    assertThat(trace.getRecords(), contains("Last 3 of 5 filter decisions of old -> new:",
+                                            "  #2 descend into=true object of org.foo.A",
+                                            "  #3 applies=true object of org.bar.B",
+                                            "  #4 exported=false object"));
+  }
+
+  @Test
+  public void recordsOnlyTypesMatchingThePrefixes() {
+    System.setProperty(DecisionTrace.FILTER_PROPERTY, "org.foo, org.baz");
+    DecisionTrace trace = new DecisionTrace("old -> new", symbols);
+
+    trace.record(APPLIES, true, foo, null);
+    trace.record(APPLIES, true, bar, null);
+    trace.record(APPLIES, true, -1, null);
+    trace.record(EXPORTED, true, foo, null);
+
+    assertThat(trace.getRecords(), contains("Last 2 of 2 filter decisions of old -> new:",
+                                            "  #0 applies=true object of org.foo.A",
+                                            "  #1 exported=true object of org.foo.A"));
+  }
+
+  @Test
+  public void dumpsOnlyFailedAnalyses() {
+    DecisionTrace trace = new DecisionTrace("old -> new", symbols);
+    trace.record(APPLIES, true, foo, null);
+    assertThat(trace.shouldDump(), equalTo(false));
+
+    trace.failed();
+
+    assertThat(trace.shouldDump(), equalTo(true));
+  }
+
+  @Test
+  public void appendsToTheFileWhenClosed() throws Exception {
+    Path file = temporaryFolder.getRoot().toPath().resolve("trace/decisions.log");
+    System.setProperty(DecisionTrace.FILE_PROPERTY, file.toString());
+    DecisionTrace trace = new DecisionTrace("old -> new", symbols);
+    trace.record(APPLIES, true, foo, null);
+
+    trace.close();
+    trace.record(APPLIES, false, bar, null);
+    trace.close();
+
+    assertThat(Files.readAllLines(file, UTF_8), contains("Last 1 of 1 filter decisions of old -> new:",
+                                                         "  #0 applies=true object of org.foo.A",
+                                                         "Last 1 of 1 filter decisions of old -> new:",
+                                                         "  #0 applies=false object of org.bar.B"));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.mule.tools.revapi.cache.Verdicts;
+import org.mule.tools.revapi.embedded.ApiCheckRequest;
+import org.mule.tools.revapi.embedded.ApiChecker;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.base.FileArchive;
+
+public class ExportPackageFilterTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path oldJar;
+  private Path newJar;
+
+  @Before
+  public void before() throws Exception {
+    Path root = temporaryFolder.getRoot().toPath();
+    oldJar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n"
+            + "  protected void doProtectedStuff() {}\n"
+            + "  public static class Nested {}\n}")
+        .withClass("org.bar.C", "public class C {}")
+        .jar(root.resolve("old/foo.jar"));
+    newJar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n  public static class Nested {}\n}")
+        .withClass("org.bar.C", "public class C {}")
+        .jar(root.resolve("new/foo.jar"));
+  }
+
+  @After
+  public void after() {
+    System.clearProperty(AnalysisMetrics.ENABLED_PROPERTY);
+    System.clearProperty(AnalysisMetrics.FILE_PROPERTY);
+  }
+
+  @Test
+  public void closeClearsTheCaches() throws Exception {
+    ExportPackageFilter filter = new ExportPackageFilter();
+    filter.initialize(AnalysisContext.builder()
+        .withOldAPI(API.of(singletonList(new FileArchive(oldJar.toFile()))).build())
+        .withNewAPI(API.of(singletonList(new FileArchive(newJar.toFile()))).build())
+        .build());
+    List<Verdicts> verdicts = filter.getVerdicts();
+    // Old and new export verdicts, and the verdicts of the nested types
+    assertThat(verdicts, hasSize(3));
+    verdicts.forEach(cache -> cache.put(1, true));
+
+    filter.close();
+
+    assertThat(filter.getVerdicts(), empty());
+    for (Verdicts cache : verdicts) {
+      assertThat(cache.size(), equalTo(0));
+      assertThat(cache.get(1), nullValue());
+    }
+  }
+
+  @Test
+  public void closeReportsTheFootprintOfTheCaches() throws Exception {
+    Path metricsFile = temporaryFolder.getRoot().toPath().resolve("metrics.txt");
+    System.setProperty(AnalysisMetrics.ENABLED_PROPERTY, "true");
+    System.setProperty(AnalysisMetrics.FILE_PROPERTY, metricsFile.toString());
+
+    try (ApiChecker checker = ApiChecker.create(1)) {
+      checker.check(ApiCheckRequest.builder()
+          .withOldArchivePaths(singletonList(oldJar))
+          .withNewArchivePaths(singletonList(newJar))
+          .build());
+    }
+
+    List<String> lines = Files.readAllLines(metricsFile, UTF_8);
+    String verdicts = "\\{verdicts=[1-9]\\d*, size=\\d+ KB, hits=\\d+, misses=\\d+}";
+    assertHasLine(lines, "  cache: OldExportVerdicts" + verdicts);
+    assertHasLine(lines, "  cache: NewExportVerdicts" + verdicts);
+    assertHasLine(lines, "  cache: NestedTypeVerdicts" + verdicts);
+    assertHasLine(lines, "  cache: OldAnnotatedTypes\\(mule.revapi.api.ignoreNoExtend\\)" + verdicts);
+    assertThat(lines, hasItem(startsWith("  cache: GeneratedMembers{types=")));
+    assertThat(lines, hasItem(startsWith("  cache: SymbolTable")));
+  }
+
+  private static void assertHasLine(List<String> lines, String regex) {
+    assertThat("No line matches " + regex + " in " + lines, lines.stream().anyMatch(line -> line.matches(regex)),
+               equalTo(true));
+  }
+}
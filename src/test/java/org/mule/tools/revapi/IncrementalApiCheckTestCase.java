@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.ApiErrorLogUtils.getMethodRemovedError;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.core.IsIterableContaining.hasItem;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class IncrementalApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public IncrementalApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder, "incremental");
+  }
+
+  @Test
+  public void recordsChangedExportedClassWithoutApiChanges() throws Exception {
+    doUnmodifiedApiTest("recordsChangedExportedClassWithoutApiChanges",
+                        hasItem(containsString("reuses the results of 0 changed exported types, analyzing 1 of them")));
+  }
+
+  @Test
+  public void detectsRemovedPublicMethodOnExportedPublicClass() throws Exception {
+    String[] methodRemovedError = getMethodRemovedError();
+    doBrokenApiTest("detectsRemovedPublicMethodOnExportedPublicClass", methodRemovedError);
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.core.IsIterableContaining.hasItem;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class LeakApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public LeakApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder, "leaks");
+  }
+
+  @Test
+  public void reportsTypeLeakedByExportedPublicClass() throws Exception {
+    doUnmodifiedApiTest("reportsTypeLeakedByExportedPublicClass",
+                        hasItem(containsString("Type leaked by the exported API: org.bar.Internal (referenced by org.foo.A)")));
+  }
+}
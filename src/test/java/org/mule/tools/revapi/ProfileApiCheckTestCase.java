@@ -0,0 +1,31 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.hamcrest.CoreMatchers.allOf;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.core.IsIterableContaining.hasItem;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class ProfileApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public ProfileApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder.withCliOptions("-Dmule.revapi.profile=true"), "profile");
+  }
+
+  @Test
+  public void attributesAcceptedDifferenceToNoExtendClass() throws Exception {
+    // Columns: total, filter and transform time, differences reported and accepted, type
+    doUnmodifiedApiTest("attributesAcceptedDifferenceToNoExtendClass",
+                        allOf(hasItem(containsString("Most expensive types of ")),
+                              hasItem(matchesPattern("\\s+\\d+\\s+\\d+\\s+\\d+\\s+0\\s+1  org\\.foo\\.A")),
+                              hasItem(matchesPattern("\\s+\\d+\\s+\\d+\\s+0\\s+0\\s+0  org\\.foo\\.B"))));
+  }
+}
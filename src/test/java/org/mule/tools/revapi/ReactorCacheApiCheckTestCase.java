@@ -0,0 +1,30 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.ApiErrorLogUtils.getMethodRemovedError;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class ReactorCacheApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public ReactorCacheApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder.withCliOptions("-Dmule.revapi.reactorCache=true"), "liteMode");
+  }
+
+  @Test
+  public void detectsRemovedPublicMethodOnExportedPublicClass() throws Exception {
+    String[] methodRemovedError = getMethodRemovedError();
+    doBrokenApiTest("detectsRemovedPublicMethodOnExportedPublicClass", methodRemovedError);
+  }
+
+  @Test
+  public void ignoresRemovedProtectedMethodOnExportedNoExtendPublicClass() throws Exception {
+    doUnmodifiedApiTest("ignoresRemovedProtectedMethodOnExportedNoExtendPublicClass");
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.ApiErrorLogUtils.getMethodRemovedError;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class ScopeApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public ScopeApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder, "scope");
+  }
+
+  @Test
+  public void detectsRemovedPublicMethodOnExportedPublicClassInScope() throws Exception {
+    String[] methodRemovedError = getMethodRemovedError();
+    doBrokenApiTest("detectsRemovedPublicMethodOnExportedPublicClassInScope", methodRemovedError);
+  }
+
+  @Test
+  public void ignoresRemovedPublicMethodOnExportedPublicClassOutOfScope() throws Exception {
+    doUnmodifiedApiTest("ignoresRemovedPublicMethodOnExportedPublicClassOutOfScope");
+  }
+}
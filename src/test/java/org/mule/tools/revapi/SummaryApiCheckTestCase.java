@@ -0,0 +1,26 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.core.IsIterableContaining.hasItem;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class SummaryApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public SummaryApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder, "summary");
+  }
+
+  @Test
+  public void summarizesAddedExportedPublicClass() throws Exception {
+    doUnmodifiedApiTest("summarizesAddedExportedPublicClass",
+                        hasItem(containsString("API difference summary: 1 differences, 0 breaking")));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.ModuleExports.MODULE_PROPERTIES;
+
+import static java.io.File.pathSeparator;
+import static java.lang.String.join;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+/**
+ * Builds the archives used by the tests that work on class files, compiling sources given inline instead of a Maven project.
+ */
+public final class TestArchives {
+
+  private final Map<String, String> files = new LinkedHashMap<>();
+
+  private TestArchives() {}
+
+  /**
+   * @param packages packages exported by the module
+   * @return a module exporting those packages
+   */
+  public static TestArchives module(String... packages) {
+    TestArchives module = new TestArchives();
+    module.files.put(MODULE_PROPERTIES, "module.name=foo\n\nartifact.export.classPackages=" + join(",", packages) + "\n");
+    return module;
+  }
+
+  /**
+   * @return an archive that is not a Mule module, like a dependency
+   */
+  public static TestArchives library() {
+    return new TestArchives();
+  }
+
+  /**
+   * @param className canonical name of a top level class
+   * @param body      declaration of the class, from its modifiers, without the package
+   * @return this module
+   */
+  public TestArchives withClass(String className, String body) {
+    int index = className.lastIndexOf('.');
+    String source = (index < 0 ? "" : "package " + className.substring(0, index) + ";\n\n") + body + "\n";
+    files.put(className.replace('.', '/') + ".java", source);
+    return this;
+  }
+
+  /**
+   * Compiles the classes into a directory, along with the module descriptor.
+   *
+   * @param directory output directory, created if it does not exist
+   * @param classpath archives or directories the classes depend on
+   * @return the directory
+   * @throws IOException if the sources cannot be written or do not compile
+   */
+  public Path compile(Path directory, Path... classpath) throws IOException {
+    Path sources = Files.createTempDirectory("sources");
+    Files.createDirectories(directory);
+    List<String> args = new ArrayList<>();
+    args.add("-d");
+    args.add(directory.toString());
+    args.add("-cp");
+    args.add(Stream.concat(Stream.of(System.getProperty("java.class.path")), Stream.of(classpath).map(Path::toString))
+        .collect(Collectors.joining(pathSeparator)));
+    for (Map.Entry<String, String> file : files.entrySet()) {
+      Path path = (file.getKey().endsWith(".java") ? sources : directory).resolve(file.getKey());
+      Files.createDirectories(path.getParent());
+      Files.write(path, file.getValue().getBytes(UTF_8));
+      if (file.getKey().endsWith(".java")) {
+        args.add(path.toString());
+      }
+    }
+
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler.run(null, null, null, args.toArray(new String[0])) != 0) {
+      throw new IOException("Failed to compile " + files.keySet());
+    }
+    return directory;
+  }
+
+  /**
+   * Compiles the classes and packs them into a jar.
+   *
+   * @param jar       jar to create
+   * @param classpath archives or directories the classes depend on
+   * @return the jar
+   * @throws IOException if the jar cannot be created
+   */
+  public Path jar(Path jar, Path... classpath) throws IOException {
+    Path directory = compile(Files.createTempDirectory("classes"), classpath);
+    List<Path> entries;
+    try (Stream<Path> walk = Files.walk(directory)) {
+      entries = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    Files.createDirectories(jar.toAbsolutePath().getParent());
+    try (OutputStream os = Files.newOutputStream(jar); ZipOutputStream out = new ZipOutputStream(os)) {
+      for (Path entry : entries) {
+        out.putNextEntry(new ZipEntry(directory.relativize(entry).toString().replace('\\', '/')));
+        out.write(Files.readAllBytes(entry));
+        out.closeEntry();
+      }
+    }
+    return jar;
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.TypeProfile.ACCEPTED;
+import static org.mule.tools.revapi.TypeProfile.DIFFERENCES;
+import static org.mule.tools.revapi.TypeProfile.FILTER_NANOS;
+import static org.mule.tools.revapi.TypeProfile.TRANSFORM_NANOS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TypeProfileTestCase {
+
+  private static final String HEADER =
+      "    total us  filter us transf. us    diffs accepted  type";
+
+  @Before
+  public void before() {
+    System.setProperty(TypeProfile.ENABLED_PROPERTY, "true");
+  }
+
+  @After
+  public void after() {
+    System.clearProperty(TypeProfile.ENABLED_PROPERTY);
+    System.clearProperty(TypeProfile.TOP_PROPERTY);
+  }
+
+  @Test
+  public void attributesTimeAndDifferencesToTypes() {
+    TypeProfile profile = new TypeProfile("old -> new");
+    profile.add("org.foo.A", FILTER_NANOS, 3_000);
+    profile.add("org.foo.A", FILTER_NANOS, 2_000);
+    profile.add("org.foo.A", TRANSFORM_NANOS, 4_000);
+    profile.add("org.foo.A", DIFFERENCES, 1);
+    profile.add("org.foo.A", ACCEPTED, 2);
+    profile.add("org.foo.B", FILTER_NANOS, 1_000);
+    profile.add("org.foo.B", DIFFERENCES, 3);
+    // Elements out of any type, like packages, are not attributed
+    profile.add(null, FILTER_NANOS, 50_000);
+
+    assertThat(profile.getTable(), contains("Most expensive types of old -> new, out of 2 profiled:",
+                                            HEADER,
+                                            "           9          5          4        1        2  org.foo.A",
+                                            "           1          1          0        3        0  org.foo.B"));
+  }
+
+  @Test
+  public void sortsTypesWithTheSameTimeByName() {
+    TypeProfile profile = new TypeProfile("old -> new");
+    profile.add("org.foo.C", FILTER_NANOS, 1_000);
+    profile.add("org.foo.A", TRANSFORM_NANOS, 1_000);
+    profile.add("org.foo.B", FILTER_NANOS, 2_000);
+
+    assertThat(profile.getTable(), contains("Most expensive types of old -> new, out of 3 profiled:",
+                                            HEADER,
+                                            "           2          2          0        0        0  org.foo.B",
+                                            "           1          0          1        0        0  org.foo.A",
+                                            "           1          1          0        0        0  org.foo.C"));
+  }
+
+  @Test
+  public void keepsTheTopTypes() {
+    System.setProperty(TypeProfile.TOP_PROPERTY, "2");
+    TypeProfile profile = new TypeProfile("old -> new");
+    for (int i = 1; i <= 5; i++) {
+      profile.add("org.foo.T" + i, FILTER_NANOS, i * 1_000);
+    }
+
+    assertThat(profile.getTable(), contains("Most expensive types of old -> new, out of 5 profiled:",
+                                            HEADER,
+                                            "           5          5          0        0        0  org.foo.T5",
+                                            "           4          4          0        0        0  org.foo.T4"));
+  }
+
+  @Test
+  public void keepsTwentyTypesByDefault() {
+    TypeProfile profile = new TypeProfile("old -> new");
+    for (int i = 0; i < 30; i++) {
+      profile.add("org.foo.T" + i, FILTER_NANOS, 1_000);
+    }
+
+    assertThat(profile.getTable().size(), equalTo(2 + 20));
+  }
+
+  @Test
+  public void collectsNothingWhenDisabled() {
+    System.clearProperty(TypeProfile.ENABLED_PROPERTY);
+    TypeProfile profile = new TypeProfile("old -> new");
+
+    profile.filtered(null, System.nanoTime());
+    profile.transformed(null, null, System.nanoTime());
+
+    assertThat(profile.isEnabled(), equalTo(false));
+    assertThat(profile.getTable(), contains("Most expensive types of old -> new, out of 0 profiled:", HEADER));
+  }
+}
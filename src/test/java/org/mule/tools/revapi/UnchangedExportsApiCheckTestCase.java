@@ -0,0 +1,40 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.core.IsIterableContaining.hasItem;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class UnchangedExportsApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  private static final String UNCHANGED_EXPORTS_LOG = "Exported classes are byte-identical";
+
+  public UnchangedExportsApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder, "unchangedExports");
+  }
+
+  @Test
+  public void skipsAnalysisWhenOnlyInternalClassesChange() throws Exception {
+    doUnmodifiedApiTest("skipsAnalysisWhenOnlyInternalClassesChange", hasItem(containsString(UNCHANGED_EXPORTS_LOG)));
+  }
+
+  @Test
+  public void analyzesExportedClassExtendingChangedInternalClass() throws Exception {
+    doUnmodifiedApiTest("analyzesExportedClassExtendingChangedInternalClass",
+                        not(hasItem(containsString(UNCHANGED_EXPORTS_LOG))));
+  }
+
+  @Test
+  public void analyzesInternalClassChangesWhenSkipUnchangedExportsIsDisabled() throws Exception {
+    doUnmodifiedApiTest("analyzesInternalClassChangesWhenSkipUnchangedExportsIsDisabled",
+                        not(hasItem(containsString(UNCHANGED_EXPORTS_LOG))));
+  }
+}
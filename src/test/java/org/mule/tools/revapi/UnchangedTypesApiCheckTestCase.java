@@ -0,0 +1,52 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi;
+
+import static org.mule.tools.revapi.ApiErrorLogUtils.EMPTY_PARAMS;
+import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_BAR_B;
+import static org.mule.tools.revapi.ApiErrorLogUtils.ORG_FOO_A_B;
+import static org.mule.tools.revapi.ApiErrorLogUtils.STRING;
+import static org.mule.tools.revapi.ApiErrorLogUtils.getConstructorNumberOfParametersChangedError;
+import static org.mule.tools.revapi.ApiErrorLogUtils.getMethodRemovedError;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.core.IsIterableContaining.hasItem;
+
+import io.takari.maven.testing.executor.MavenRuntime;
+import org.junit.Test;
+
+public class UnchangedTypesApiCheckTestCase extends AbstractApiCheckTestCase {
+
+  public UnchangedTypesApiCheckTestCase(MavenRuntime.MavenRuntimeBuilder builder) throws Exception {
+    super(builder, "unchangedTypes");
+  }
+
+  @Test
+  public void skipsExportedClassWithImplementationChanges() throws Exception {
+    doUnmodifiedApiTest("skipsExportedClassWithImplementationChanges",
+                        hasItem(containsString("ABI fingerprints found 1 unchanged exported types")));
+  }
+
+  @Test
+  public void detectsRemovedPublicMethodBesideUnchangedExportedClass() throws Exception {
+    String[] methodRemovedError = getMethodRemovedError();
+    doBrokenApiTest("detectsRemovedPublicMethodBesideUnchangedExportedClass", methodRemovedError);
+  }
+
+  @Test
+  public void detectsChangedInternalSuperClassOfUnchangedExportedClass() throws Exception {
+    String[] bConstructorNumberOfParametersChangedError =
+        getConstructorNumberOfParametersChangedError(ORG_BAR_B, EMPTY_PARAMS, STRING);
+    doBrokenApiTest("detectsChangedInternalSuperClassOfUnchangedExportedClass", bConstructorNumberOfParametersChangedError);
+  }
+
+  @Test
+  public void detectsRemovedPublicMethodOnExportedNestedClassOfUnchangedClass() throws Exception {
+    String[] methodRemovedError = getMethodRemovedError(ORG_FOO_A_B);
+    doBrokenApiTest("detectsRemovedPublicMethodOnExportedNestedClassOfUnchangedClass", methodRemovedError);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.archive;
+
+import static org.mule.tools.revapi.TestArchives.library;
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.Archive;
+
+public class ReachableArchivesTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path base;
+  private Path transitive;
+  private Path signature;
+  private Path bodyOnly;
+  private Path internalOnly;
+  private Path unrelated;
+
+  @Before
+  public void before() throws Exception {
+    base = library().withClass("org.base.Base", "public class Base {}").jar(path("base.jar"));
+    transitive = library().withClass("org.transitive.T", "public class T {}").jar(path("transitive.jar"));
+    signature = library()
+        .withClass("org.signature.Param", "public class Param {\n  public org.transitive.T get() { return null; }\n}")
+        .jar(path("signature.jar"), transitive);
+    bodyOnly = library().withClass("org.body.Impl", "public class Impl {}").jar(path("body.jar"));
+    internalOnly = library().withClass("org.internal.X", "public class X {}").jar(path("internal.jar"));
+    unrelated = library().withClass("org.unrelated.U", "public class U {}").jar(path("unrelated.jar"));
+  }
+
+  @Test
+  public void keepsArchivesReachableThroughSupertypesAndSignatures() throws Exception {
+    Path jar = module("org.foo")
+        .withClass("org.foo.A", "public class A extends org.base.Base {\n"
+            + "  public void accept(org.signature.Param param) {}\n"
+            + "  public void run() {\n    new org.body.Impl();\n  }\n"
+            + "}")
+        .withClass("org.bar.Internal", "public class Internal extends org.internal.X {}")
+        .jar(path("foo.jar"), base, signature, transitive, bodyOnly, internalOnly);
+
+    List<Archive> supplementaryArchives = load(unrelated, internalOnly, bodyOnly, transitive, signature, base);
+
+    assertThat(getNames(ReachableArchives.select(load(jar), supplementaryArchives)),
+               contains(getNames(load(transitive, signature, base)).toArray()));
+  }
+
+  @Test
+  public void keepsFirstArchiveContainingAType() throws Exception {
+    Path copy = library().withClass("org.base.Base", "public class Base {}").jar(path("base-copy.jar"));
+    Path jar = module("org.foo").withClass("org.foo.A", "public class A extends org.base.Base {}").jar(path("foo.jar"), base);
+
+    List<Archive> supplementaryArchives = load(copy, base);
+
+    assertThat(getNames(ReachableArchives.select(load(jar), supplementaryArchives)),
+               contains("base-copy.jar"));
+  }
+
+  @Test
+  public void keepsArchivesThatCannotBeIndexed() throws Exception {
+    Path jar = module("org.foo").withClass("org.foo.A", "public class A {}").jar(path("foo.jar"));
+    Archive broken = new Archive() {
+
+      @Override
+      public String getName() {
+        return "broken.jar";
+      }
+
+      @Override
+      public InputStream openStream() throws IOException {
+        throw new IOException("Cannot read " + getName());
+      }
+    };
+
+    List<Archive> supplementaryArchives = new ArrayList<>(load(unrelated));
+    supplementaryArchives.add(broken);
+
+    assertThat(getNames(ReachableArchives.select(load(jar), supplementaryArchives)), contains("broken.jar"));
+  }
+
+  @Test
+  public void dropsEveryArchiveOfAModuleWithoutExports() throws Exception {
+    Path jar = module().withClass("org.foo.A", "public class A extends org.base.Base {}").jar(path("foo.jar"), base);
+
+    assertThat(ReachableArchives.select(load(jar), load(base, unrelated)), empty());
+  }
+
+  private static List<Archive> load(Path... paths) throws IOException {
+    List<Archive> archives = new ArrayList<>();
+    for (Path path : paths) {
+      archives.add(InMemoryArchive.of(path));
+    }
+    return archives;
+  }
+
+  private static List<String> getNames(List<Archive> archives) {
+    return archives.stream().map(Archive::getName).collect(toList());
+  }
+
+  private Path path(String name) {
+    return temporaryFolder.getRoot().toPath().resolve(name);
+  }
+}
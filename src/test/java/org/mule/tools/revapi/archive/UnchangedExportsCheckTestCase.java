@@ -0,0 +1,77 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.archive;
+
+import static org.mule.tools.revapi.TestArchives.library;
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.nio.file.Path;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+
+public class UnchangedExportsCheckTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path base;
+  private Path oldModule;
+  private Path newModule;
+
+  @Before
+  public void before() throws Exception {
+    base = library().withClass("org.base.Base", "public class Base {}").jar(path("old/base.jar"));
+    oldModule = module("org.foo")
+        .withClass("org.foo.A", "public class A extends org.base.Base {}")
+        .withClass("org.bar.Internal", "class Internal {}")
+        .jar(path("old/foo.jar"), base);
+    newModule = module("org.foo")
+        .withClass("org.foo.A", "public class A extends org.base.Base {}")
+        .withClass("org.bar.Internal", "class Internal {\n  void run() {}\n}")
+        .jar(path("new/foo.jar"), base);
+  }
+
+  @Test
+  public void sameSupplementaryArchivesAreTrusted() throws Exception {
+    Path newBase = library().withClass("org.base.Base", "public class Base {}").jar(path("new/base.jar"));
+
+    assertThat(UnchangedExportsCheck.isUnchanged(api(oldModule, base), api(newModule, newBase), null), equalTo(true));
+  }
+
+  @Test
+  public void rebuiltSupplementaryArchiveWithTheSameNameIsNotTrusted() throws Exception {
+    Path newBase = library().withClass("org.base.Base", "public class Base {\n  public void run() {}\n}")
+        .jar(path("new/base.jar"));
+
+    assertThat(UnchangedExportsCheck.isUnchanged(api(oldModule, base), api(newModule, newBase), null), equalTo(false));
+  }
+
+  @Test
+  public void changedExportedClassIsDetected() throws Exception {
+    Path changedModule = module("org.foo")
+        .withClass("org.foo.A", "public class A extends org.base.Base {\n  public void run() {}\n}")
+        .withClass("org.bar.Internal", "class Internal {}")
+        .jar(path("changed/foo.jar"), base);
+
+    assertThat(UnchangedExportsCheck.isUnchanged(api(oldModule, base), api(changedModule, base), null), equalTo(false));
+  }
+
+  private static API api(Path module, Path supplementaryArchive) throws Exception {
+    return API.of(InMemoryArchive.of(module)).supportedBy(InMemoryArchive.of(supplementaryArchive)).build();
+  }
+
+  private Path path(String name) {
+    return temporaryFolder.getRoot().toPath().resolve(name);
+  }
+}
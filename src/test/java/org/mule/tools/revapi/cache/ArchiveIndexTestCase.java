@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.APPEND;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ArchiveIndexTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path file;
+
+  @Before
+  public void before() {
+    file = temporaryFolder.getRoot().toPath().resolve("index/archives.idx");
+  }
+
+  @Test
+  public void addedRecordCanBeRead() throws Exception {
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      assertThat(index.contains("foo"), equalTo(false));
+      index.add("foo", entries("org/foo/A", "a", "org/foo/B", "b", "org/foo/\u00c4", "\u00e4", "empty", ""));
+
+      assertThat(index.contains("foo"), equalTo(true));
+      assertThat(value(index, "foo", "org/foo/A"), equalTo("a"));
+      assertThat(value(index, "foo", "org/foo/B"), equalTo("b"));
+      assertThat(value(index, "foo", "org/foo/\u00c4"), equalTo("\u00e4"));
+      assertThat(value(index, "foo", "empty"), equalTo(""));
+      assertThat(index.get("foo", "org/foo/C"), nullValue());
+      assertThat(index.get("bar", "org/foo/A"), nullValue());
+    }
+  }
+
+  @Test
+  public void recordsSurviveReopening() throws Exception {
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      index.add("foo", entries("org/foo/A", "a"));
+      index.add("bar", entries("org/bar/B", "b"));
+    }
+
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      assertThat(index.contains("foo"), equalTo(true));
+      assertThat(index.contains("bar"), equalTo(true));
+      assertThat(value(index, "foo", "org/foo/A"), equalTo("a"));
+      assertThat(value(index, "bar", "org/bar/B"), equalTo("b"));
+    }
+  }
+
+  @Test
+  public void firstRecordOfAnArchiveWins() throws Exception {
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      index.add("foo", entries("org/foo/A", "a"));
+      index.add("foo", entries("org/foo/A", "other"));
+
+      assertThat(value(index, "foo", "org/foo/A"), equalTo("a"));
+    }
+  }
+
+  @Test
+  public void recordsAddedByAnotherIndexOfTheFileAreFound() throws Exception {
+    try (ArchiveIndex reader = ArchiveIndex.open(file)) {
+      try (ArchiveIndex writer = ArchiveIndex.open(file)) {
+        writer.add("foo", entries("org/foo/A", "a"));
+      }
+
+      assertThat(reader.contains("foo"), equalTo(true));
+      assertThat(value(reader, "foo", "org/foo/A"), equalTo("a"));
+    }
+  }
+
+  @Test
+  public void recoversFromTornTrailingRecord() throws Exception {
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      index.add("foo", entries("org/foo/A", "a"));
+    }
+    // A process died while writing a record: its header claims more bytes than it wrote
+    Files.write(file, ByteBuffer.allocate(12).putInt(100).putInt(0).putInt(42).array(), APPEND);
+
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      assertThat(index.contains("foo"), equalTo(true));
+      assertThat(value(index, "foo", "org/foo/A"), equalTo("a"));
+
+      index.add("bar", entries("org/bar/B", "b"));
+      assertThat(value(index, "bar", "org/bar/B"), equalTo("b"));
+    }
+
+    try (ArchiveIndex index = ArchiveIndex.open(file)) {
+      assertThat(value(index, "foo", "org/foo/A"), equalTo("a"));
+      assertThat(value(index, "bar", "org/bar/B"), equalTo("b"));
+    }
+  }
+
+  @Test
+  public void rejectsOtherFiles() throws Exception {
+    Files.createDirectories(file.getParent());
+    Files.write(file, "not an archive index".getBytes(UTF_8));
+
+    assertThrows(IOException.class, () -> ArchiveIndex.open(file));
+  }
+
+  private static Map<String, byte[]> entries(String... keysAndValues) {
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    for (int i = 0; i < keysAndValues.length; i += 2) {
+      entries.put(keysAndValues[i], keysAndValues[i + 1].getBytes(UTF_8));
+    }
+    return entries;
+  }
+
+  private static String value(ArchiveIndex index, String fingerprint, String key) {
+    byte[] value = index.get(fingerprint, key);
+    return value == null ? null : new String(value, UTF_8);
+  }
+}
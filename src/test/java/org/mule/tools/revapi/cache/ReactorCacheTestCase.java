@@ -0,0 +1,155 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import static org.mule.tools.revapi.TestArchives.library;
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.mule.tools.revapi.archive.InMemoryArchive;
+import org.mule.tools.revapi.classfile.ClassPool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+import org.revapi.Archive;
+import org.revapi.base.FileArchive;
+
+public class ReactorCacheTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path module;
+  private Path base;
+
+  @Before
+  public void before() throws Exception {
+    module = module("org.foo").withClass("org.foo.A", "public class A {}").jar(path("foo.jar"));
+    base = library().withClass("org.base.Base", "public class Base {}").jar(path("base.jar"));
+  }
+
+  @Test
+  public void poolsSharingSupplementaryArchivesReadThemOnce() throws Exception {
+    ReactorCache cache = new ReactorCache(Long.MAX_VALUE, null);
+
+    ClassPool first = ClassPool.of(API.of(InMemoryArchive.of(module)).supportedBy(InMemoryArchive.of(base)).build(), cache);
+    assertThat(first.find("org/base/Base"), notNullValue());
+    ClassPool second = ClassPool.of(API.of(InMemoryArchive.of(module)).supportedBy(InMemoryArchive.of(base)).build(), cache);
+    assertThat(second.find("org/base/Base"), notNullValue());
+
+    assertThat(cache.getMisses(), equalTo(1));
+    assertThat(cache.getHits(), equalTo(1));
+  }
+
+  @Test
+  public void fingerprintsUnchangedJarFilesOnce() throws Exception {
+    ReactorCache cache = new ReactorCache(Long.MAX_VALUE, null);
+    AtomicInteger opened = new AtomicInteger();
+    Archive archive = new FileArchive(base.toFile()) {
+
+      @Override
+      public InputStream openStream() throws IOException {
+        opened.incrementAndGet();
+        return super.openStream();
+      }
+    };
+
+    String fingerprint = cache.getFingerprint(archive);
+    opened.set(0);
+    assertThat(cache.getFingerprint(archive), equalTo(fingerprint));
+    assertThat(opened.get(), equalTo(0));
+
+    Path rebuilt = library().withClass("org.base.Base", "public class Base {\n  public void run() {}\n}")
+        .jar(path("rebuilt.jar"));
+    Files.copy(rebuilt, base, REPLACE_EXISTING);
+    Files.setLastModifiedTime(base, FileTime.fromMillis(Files.getLastModifiedTime(base).toMillis() + 10_000));
+    assertThat(cache.getFingerprint(archive), not(equalTo(fingerprint)));
+    assertThat(opened.get(), not(equalTo(0)));
+  }
+
+  @Test
+  public void evictsLeastRecentlyUsedArchives() throws Exception {
+    Archive a = InMemoryArchive.of(library().withClass("org.a.A", "public class A {}").jar(path("a.jar")));
+    Archive b = InMemoryArchive.of(library().withClass("org.b.B", "public class B {}").jar(path("b.jar")));
+    Archive c = InMemoryArchive.of(library().withClass("org.c.C", "public class C {}").jar(path("c.jar")));
+    // Room for any two of them, but not for the three
+    ReactorCache cache = new ReactorCache(size(a) + size(b) + size(c) - 1, null);
+
+    cache.getClasses(cache.getFingerprint(a), a);
+    cache.getClasses(cache.getFingerprint(b), b);
+    cache.getClasses(cache.getFingerprint(a), a);
+    cache.getClasses(cache.getFingerprint(c), c);
+    assertThat(cache.getFootprint(), equalTo(size(a) + size(c)));
+
+    cache.getClasses(cache.getFingerprint(a), a);
+    cache.getClasses(cache.getFingerprint(c), c);
+    assertThat(cache.getHits(), equalTo(3));
+    cache.getClasses(cache.getFingerprint(b), b);
+    assertThat(cache.getMisses(), equalTo(4));
+  }
+
+  @Test
+  public void invalidateDropsTheCacheOfTheBuild() throws Exception {
+    System.setProperty(ReactorCache.ENABLED_PROPERTY, "true");
+    try {
+      ReactorCache cache = ReactorCache.getInstance();
+      Archive archive = InMemoryArchive.of(base);
+      cache.getClasses(cache.getFingerprint(archive), archive);
+      assertThat(cache.getFootprint(), equalTo(size(archive)));
+      assertThat(ReactorCache.getInstance(), sameInstance(cache));
+
+      ReactorCache.invalidate();
+
+      ReactorCache newCache = ReactorCache.getInstance();
+      assertThat(newCache, not(sameInstance(cache)));
+      assertThat(newCache.getFootprint(), equalTo(0L));
+    } finally {
+      System.clearProperty(ReactorCache.ENABLED_PROPERTY);
+      ReactorCache.invalidate();
+    }
+    assertThat(ReactorCache.getInstance(), nullValue());
+  }
+
+  @Test
+  public void clearDropsEveryArchive() throws Exception {
+    ReactorCache cache = new ReactorCache(Long.MAX_VALUE, null);
+    Archive archive = InMemoryArchive.of(base);
+    cache.getClasses(cache.getFingerprint(archive), archive);
+
+    cache.clear();
+
+    assertThat(cache.getFootprint(), equalTo(0L));
+    cache.getClasses(cache.getFingerprint(archive), archive);
+    assertThat(cache.getMisses(), equalTo(2));
+  }
+
+  private static long size(Archive archive) {
+    return ClassPool.readClasses(archive).values().stream().mapToLong(bytes -> bytes.length).sum();
+  }
+
+  private Path path(String name) {
+    return temporaryFolder.getRoot().toPath().resolve(name);
+  }
+}
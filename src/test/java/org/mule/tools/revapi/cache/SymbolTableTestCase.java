@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.Test;
+
+public class SymbolTableTestCase {
+
+  private static final int MANY_NAMES = 10_000;
+
+  private final SymbolTable symbols = new SymbolTable();
+
+  @Test
+  public void sameNameHasSameId() {
+    String name = "org.foo.A";
+    int id = symbols.intern(name);
+
+    assertThat(symbols.intern(new String(name.toCharArray())), equalTo(id));
+    assertThat(symbols.size(), equalTo(1));
+    // Only the first copy of the name is kept
+    assertThat(symbols.getName(id), sameInstance(name));
+  }
+
+  @Test
+  public void idsAreDense() {
+    assertThat(symbols.intern("org.foo.A"), equalTo(0));
+    assertThat(symbols.intern("org.foo.B"), equalTo(1));
+    assertThat(symbols.intern("org.foo.A"), equalTo(0));
+    assertThat(symbols.intern("org.bar.C"), equalTo(2));
+    assertThat(symbols.size(), equalTo(3));
+  }
+
+  @Test
+  public void namesWithTheSameHashHaveDifferentIds() {
+    assertThat("Aa".hashCode(), equalTo("BB".hashCode()));
+
+    int first = symbols.intern("Aa");
+    int second = symbols.intern("BB");
+
+    assertThat(first, not(equalTo(second)));
+    assertThat(symbols.getName(first), equalTo("Aa"));
+    assertThat(symbols.getName(second), equalTo("BB"));
+  }
+
+  @Test
+  public void idsAreStableWhileTheTableGrows() {
+    for (int i = 0; i < MANY_NAMES; i++) {
+      assertThat(symbols.intern("org.foo" + i % 10 + ".A" + i), equalTo(i));
+    }
+
+    for (int i = 0; i < MANY_NAMES; i++) {
+      String name = "org.foo" + i % 10 + ".A" + i;
+      assertThat(symbols.intern(name), equalTo(i));
+      assertThat(symbols.getName(i), equalTo(name));
+    }
+    assertThat(symbols.size(), equalTo(MANY_NAMES));
+  }
+
+  @Test
+  public void packagesAreInterned() {
+    int type = symbols.intern("org.foo.A");
+    int otherType = symbols.intern("org.foo.B");
+    int packageId = symbols.getPackage(type);
+
+    assertThat(symbols.getName(packageId), equalTo("org.foo"));
+    assertThat(symbols.getPackage(otherType), equalTo(packageId));
+    assertThat(symbols.intern("org.foo"), equalTo(packageId));
+    assertThat(symbols.getName(symbols.getPackage(symbols.intern("A"))), equalTo(""));
+  }
+
+  @Test
+  public void packagesSurviveGrowth() {
+    int type = symbols.intern("org.foo.A");
+    int packageId = symbols.getPackage(type);
+    for (int i = 0; i < MANY_NAMES; i++) {
+      symbols.getPackage(symbols.intern("org.bar" + i + ".B"));
+    }
+
+    assertThat(symbols.getPackage(type), equalTo(packageId));
+    assertThat(symbols.getName(symbols.getPackage(symbols.intern("org.bar42.B"))), equalTo("org.bar42"));
+  }
+
+  @Test
+  public void clearDropsEveryName() {
+    symbols.intern("org.foo.A");
+    symbols.intern("org.foo.B");
+    symbols.clear();
+
+    assertThat(symbols.size(), equalTo(0));
+    assertThat(symbols.intern("org.foo.B"), equalTo(0));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.cache;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+
+public class VerdictsTestCase {
+
+  @Test
+  public void growsUpToTheHighestCachedId() {
+    Verdicts verdicts = new Verdicts("Types");
+    verdicts.put(3, true);
+    verdicts.put(5000, false);
+    verdicts.put(3, false);
+
+    assertThat(verdicts.get(3), equalTo(false));
+    assertThat(verdicts.get(5000), equalTo(false));
+    assertThat(verdicts.get(4), nullValue());
+    assertThat(verdicts.get(100_000), nullValue());
+    assertThat(verdicts.size(), equalTo(2));
+    assertThat(verdicts.toString(), equalTo("Types{verdicts=2, size=4 KB, hits=2, misses=2}"));
+  }
+
+  @Test
+  public void doublesItsSizeForNearbyIds() {
+    Verdicts verdicts = new Verdicts("Types");
+    for (int id = 0; id < 2048; id++) {
+      verdicts.put(id, id % 2 == 0);
+    }
+
+    assertThat(verdicts.get(2046), equalTo(true));
+    assertThat(verdicts.get(2047), equalTo(false));
+    assertThat(verdicts.size(), equalTo(2048));
+    assertThat(verdicts.toString(), equalTo("Types{verdicts=2048, size=2 KB, hits=2, misses=0}"));
+  }
+
+  @Test
+  public void clearDropsEveryVerdictAndItsFootprint() {
+    Verdicts verdicts = new Verdicts("Types");
+    verdicts.put(5000, true);
+
+    verdicts.clear();
+
+    assertThat(verdicts.size(), equalTo(0));
+    assertThat(verdicts.get(5000), nullValue());
+    assertThat(verdicts.toString(), equalTo("Types{verdicts=0, size=0 KB, hits=0, misses=1}"));
+
+    verdicts.put(7, true);
+    assertThat(verdicts.get(7), equalTo(true));
+    assertThat(verdicts.size(), equalTo(1));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.classfile;
+
+import static org.mule.tools.revapi.TestArchives.library;
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.mule.tools.revapi.archive.InMemoryArchive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+import org.revapi.Archive;
+
+public class ClassPoolTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final List<String> opened = new ArrayList<>();
+  private Archive module;
+  private Archive base;
+  private Archive copy;
+  private Archive unrelated;
+
+  @Before
+  public void before() throws Exception {
+    module = InMemoryArchive.of(module("org.foo").withClass("org.foo.A", "public class A {}").jar(path("foo.jar")));
+    base = counting(library().withClass("org.base.Base", "public class Base {}").jar(path("base.jar")));
+    copy = counting(library().withClass("org.base.Base", "public class Base {}")
+        .withClass("org.copy.Copy", "public class Copy {}").jar(path("copy.jar")));
+    unrelated = counting(library().withClass("org.unrelated.U", "public class U {}").jar(path("unrelated.jar")));
+  }
+
+  @Test
+  public void platformClassesDoNotReadSupplementaryArchives() {
+    ClassPool pool = ClassPool.of(API.of(module).supportedBy(base, unrelated).build());
+
+    assertThat(pool.find("java/lang/Object"), is(nullValue()));
+    assertThat(pool.find("javax/annotation/Nullable"), is(nullValue()));
+    assertThat(opened, is(empty()));
+  }
+
+  @Test
+  public void readsOnlyTheArchiveContainingTheClass() {
+    ClassPool pool = ClassPool.of(API.of(module).supportedBy(unrelated, base).build());
+
+    assertThat(pool.find("org/base/Base"), is(notNullValue()));
+    opened.clear();
+    assertThat(pool.find("org/base/Base"), is(notNullValue()));
+    assertThat(pool.find("org/missing/Missing"), is(nullValue()));
+
+    assertThat(opened, is(empty()));
+  }
+
+  @Test
+  public void readsEachSupplementaryArchiveOnce() {
+    ClassPool pool = ClassPool.of(API.of(module).supportedBy(unrelated, base).build());
+
+    pool.find("org/base/Base");
+    opened.clear();
+    pool.find("org/unrelated/U");
+    pool.find("org/unrelated/U");
+
+    assertThat(opened, contains("unrelated.jar"));
+  }
+
+  @Test
+  public void takesClassesFromTheFirstArchiveContainingThem() {
+    ClassPool pool = ClassPool.of(API.of(module).supportedBy(base, copy).build());
+
+    // Reads the copy first, which also contains the class of the base archive
+    assertThat(pool.find("org/copy/Copy"), is(notNullValue()));
+    opened.clear();
+    assertThat(pool.find("org/base/Base"), is(notNullValue()));
+
+    assertThat(opened, contains("base.jar"));
+  }
+
+  private Archive counting(Path jar) throws IOException {
+    Archive archive = InMemoryArchive.of(jar);
+    return new Archive() {
+
+      @Override
+      public String getName() {
+        return archive.getName();
+      }
+
+      @Override
+      public InputStream openStream() throws IOException {
+        opened.add(getName());
+        return archive.openStream();
+      }
+    };
+  }
+
+  private Path path(String name) {
+    return temporaryFolder.getRoot().toPath().resolve(name);
+  }
+}
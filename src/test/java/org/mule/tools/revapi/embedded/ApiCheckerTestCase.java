@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.embedded;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+import org.mule.tools.revapi.cache.ReactorCache;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ApiCheckerTestCase {
+
+  private static final int CHECKS = 8;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path oldJar;
+  private Path newJar;
+
+  @Before
+  public void before() throws Exception {
+    oldJar = module("org.foo")
+        .withClass("org.foo.A", "public class A {\n  public void doStuff() {}\n}")
+        .jar(temporaryFolder.getRoot().toPath().resolve("old/foo.jar"));
+    newJar = module("org.foo")
+        .withClass("org.foo.A", "public class A {\n}")
+        .jar(temporaryFolder.getRoot().toPath().resolve("new/foo.jar"));
+  }
+
+  @Test
+  public void concurrentChecksFindTheSameDifferences() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(CHECKS);
+    try (ApiChecker checker = ApiChecker.create(2)) {
+      List<Future<ApiCheckResult>> results = new ArrayList<>();
+      for (int i = 0; i < CHECKS; i++) {
+        Callable<ApiCheckResult> check = () -> checker.check(ApiCheckRequest.builder()
+            .withOldArchivePaths(singletonList(oldJar))
+            .withNewArchivePaths(singletonList(newJar))
+            .build());
+        results.add(executor.submit(check));
+      }
+
+      for (Future<ApiCheckResult> result : results) {
+        ApiCheckResult checkResult = result.get();
+        assertThat(checkResult.isBroken(), equalTo(true));
+        assertThat(checkResult.isComplete(), equalTo(true));
+        assertThat(checkResult.getDifferences().stream().map(ApiDifference::getCode).collect(toList()),
+                   contains("java.method.removed"));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void unchangedApiHasNoDifferences() throws Exception {
+    try (ApiChecker checker = ApiChecker.create(1)) {
+      for (int i = 0; i < 2; i++) {
+        ApiCheckResult result = checker.check(ApiCheckRequest.builder()
+            .withOldArchivePaths(singletonList(oldJar))
+            .withNewArchivePaths(singletonList(oldJar))
+            .build());
+        assertThat(result.getDifferences(), empty());
+      }
+    }
+  }
+
+  @Test
+  public void checkerDoesNotEnableTheReactorCacheOfTheBuild() {
+    try (ApiChecker checker = ApiChecker.create(1)) {
+      assertThat(ReactorCache.getInstance(), nullValue());
+    }
+  }
+
+  @Test
+  public void closedCheckerRejectsChecks() throws Exception {
+    ApiChecker checker = ApiChecker.create(1);
+    checker.close();
+
+    assertThrows(IllegalStateException.class, () -> checker.check(ApiCheckRequest.builder()
+        .withOldArchivePaths(singletonList(oldJar))
+        .withNewArchivePaths(singletonList(newJar))
+        .build()));
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import static org.mule.tools.revapi.history.HistoryRecord.ACCEPTED;
+import static org.mule.tools.revapi.history.HistoryRecord.NO_EXTEND;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.startsWith;
+import static org.revapi.DifferenceSeverity.BREAKING;
+import static org.revapi.DifferenceSeverity.NON_BREAKING;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class HistoryQueryTestCase {
+
+  private static final String MODULE = "org.mule.runtime:mule-api";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path directory;
+
+  @Before
+  public void before() throws Exception {
+    directory = temporaryFolder.newFolder("history").toPath();
+    HistoryStore store = HistoryStore.open(directory);
+    store.append(MODULE, "1.0.0", "1.1.0", asList(
+        new HistoryRecord("java.method.removed", "method void org.foo.A::doStuff()", "org.foo.A", BREAKING, 0),
+        new HistoryRecord("java.method.added", "method void org.foo.B::doOther()", "org.foo.B", NON_BREAKING, 0)));
+    store.append(MODULE, "1.1.0", "1.2.0", asList(
+        new HistoryRecord("java.method.addedToInterface", "method void org.foo.B::doMore()", "org.foo.B", BREAKING,
+                          ACCEPTED | NO_EXTEND),
+        new HistoryRecord("java.method.added", "method void org.foo.B::doLess()", "org.foo.B", NON_BREAKING, NO_EXTEND)));
+  }
+
+  @Test
+  public void releases() {
+    List<String> lines = query("releases", MODULE);
+
+    assertThat(lines.size(), equalTo(2));
+    assertThat(lines.get(0), startsWith("1.0.0 -> 1.1.0: 2 differences, 1 breaking, 0 accepted"));
+    assertThat(lines.get(1), startsWith("1.1.0 -> 1.2.0: 2 differences, 0 breaking, 1 accepted"));
+  }
+
+  @Test
+  public void breaks() {
+    assertThat(query("breaks", MODULE, "org.foo"),
+               contains("1.0.0 -> 1.1.0 [BREAKING] java.method.removed: method void org.foo.A::doStuff()",
+                        "1.1.0 -> 1.2.0 [BREAKING, accepted] java.method.addedToInterface: method void org.foo.B::doMore()"));
+    assertThat(query("breaks", MODULE, "org.foo.A::"),
+               contains("1.0.0 -> 1.1.0 [BREAKING] java.method.removed: method void org.foo.A::doStuff()"));
+  }
+
+  @Test
+  public void churn() {
+    assertThat(query("churn", MODULE), contains("3\torg.foo.B", "1\torg.foo.A"));
+    assertThat(query("churn", MODULE, "NoExtend"), contains("2\torg.foo.B"));
+    assertThat(query("churn", MODULE, "NoExtend", "0"), contains());
+  }
+
+  @Test
+  public void unknownModuleHasNoReleases() {
+    assertThat(query("releases", "org.mule.runtime:mule-core"), contains());
+  }
+
+  private List<String> query(String... args) {
+    String[] arguments = new String[args.length + 1];
+    arguments[0] = directory.toString();
+    System.arraycopy(args, 0, arguments, 1, args.length);
+
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(output, true, UTF_8)) {
+      assertThat(HistoryQuery.run(arguments, out), equalTo(0));
+    }
+    String text = output.toString(UTF_8);
+    return text.isEmpty() ? List.of() : asList(text.split("\\R"));
+  }
+}
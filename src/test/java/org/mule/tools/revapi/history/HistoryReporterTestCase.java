@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.history;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.junit.Test;
+import org.revapi.API;
+import org.revapi.Archive;
+
+public class HistoryReporterTestCase {
+
+  @Test
+  public void moduleNameLeavesOutTheVersion() {
+    assertThat(HistoryReporter.getModuleName(api("org.mule.runtime:mule-api:1.5.0")), equalTo("org.mule.runtime:mule-api"));
+    assertThat(HistoryReporter.getModuleName(api("org.mule.runtime:mule-api:jar:1.6.0")),
+               equalTo("org.mule.runtime:mule-api"));
+  }
+
+  @Test
+  public void archivesOutsideMavenHaveNoModuleName() {
+    assertThat(HistoryReporter.getModuleName(api("mule-api-1.5.0.jar")), nullValue());
+  }
+
+  private static API api(String name) {
+    return API.of(new Archive() {
+
+      @Override
+      public String getName() {
+        return name;
+      }
+
+      @Override
+      public InputStream openStream() {
+        return new ByteArrayInputStream(new byte[0]);
+      }
+    }).build();
+  }
+}
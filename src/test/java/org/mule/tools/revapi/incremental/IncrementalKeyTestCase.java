@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.incremental;
+
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import org.junit.Test;
+
+public class IncrementalKeyTestCase {
+
+  private static final String CONFIGURATION = "{\"revapi\":{\"differences\":{\"ignore\":true}}}";
+
+  @Test
+  public void sameAnalysisHasSameKey() throws Exception {
+    assertThat(key(CONFIGURATION, "org.foo:bar:1.0"), equalTo(key(CONFIGURATION, "org.foo:bar:1.0")));
+  }
+
+  @Test
+  public void changedConfigurationChangesKey() throws Exception {
+    assertThat(key(CONFIGURATION, "org.foo:bar:1.0"), not(equalTo(key("{}", "org.foo:bar:1.0"))));
+  }
+
+  @Test
+  public void changedArchivesChangeKey() throws Exception {
+    assertThat(key(CONFIGURATION, "org.foo:bar:1.0"), not(equalTo(key(CONFIGURATION, "org.foo:bar:1.1"))));
+  }
+
+  @Test
+  public void hashIsStable() {
+    assertThat(IncrementalKey.hash(CONFIGURATION), equalTo(IncrementalKey.hash(CONFIGURATION)));
+    assertThat(IncrementalKey.hash(CONFIGURATION), not(equalTo(IncrementalKey.hash("{}"))));
+  }
+
+  private static String key(String configuration, String oldArchive) throws Exception {
+    return IncrementalKey.of(IncrementalKey.hash(configuration), singletonList(oldArchive), singletonList("org.foo:bar:2.0"));
+  }
+}
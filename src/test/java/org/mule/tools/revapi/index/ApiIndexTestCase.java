@@ -0,0 +1,209 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.index;
+
+import static org.mule.tools.revapi.ModuleExports.MODULE_PROPERTIES;
+import static org.mule.tools.revapi.TestArchives.module;
+import static org.mule.tools.revapi.index.ApiIndex.INDEX_ENTRY;
+import static org.mule.tools.revapi.index.ApiIndex.NO_EXTEND;
+import static org.mule.tools.revapi.index.ApiIndex.NO_IMPLEMENT;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThrows;
+
+import org.mule.tools.revapi.TestArchives;
+import org.mule.tools.revapi.embedded.ApiCheckRequest;
+import org.mule.tools.revapi.embedded.ApiCheckResult;
+import org.mule.tools.revapi.embedded.ApiChecker;
+import org.mule.tools.revapi.embedded.ApiDifference;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ApiIndexTestCase {
+
+  private static final int MANY_INTERFACES = 300;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void roundTripThroughTheJar() throws Exception {
+    Path jar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n  public void doStuff() {}\n}")
+        .withClass("org.foo.B", "public class B extends A {}")
+        .withClass("org.foo.I", "@org.mule.api.annotation.NoImplement public interface I {}")
+        .withClass("org.bar.C", "public class C {}")
+        .jar(path("foo.jar"));
+
+    ApiIndex written = ApiIndexWriter.write(jar, emptyList());
+    ApiIndex read = readIndex(jar);
+
+    assertThat(read.size(), equalTo(4));
+    assertThat(read.getExports().getPackages(), contains("org.foo"));
+    assertThat(read.getFingerprints(), equalTo(written.getFingerprints()));
+    assertThat(read.getFingerprints().keySet(), containsInAnyOrder("org/foo/A", "org/foo/B", "org/foo/I"));
+    assertThat(read.hasAnnotation("org/foo/B", NO_EXTEND), equalTo(true));
+    assertThat(read.hasAnnotation("org/foo/B", NO_IMPLEMENT), equalTo(false));
+    assertThat(read.hasAnnotation("org/foo/I", NO_IMPLEMENT), equalTo(true));
+    assertThat(read.hasAnnotation("org/foo/Missing", NO_EXTEND), nullValue());
+  }
+
+  @Test
+  public void indexFirstEntryAfterManifest() throws Exception {
+    Path jar = module("org.foo").withClass("org.foo.A", "public class A {}").jar(path("foo.jar"));
+    ApiIndexWriter.write(jar, emptyList());
+    // Writing the index again replaces it
+    ApiIndexWriter.write(jar, emptyList());
+
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      List<String> names = Collections.list(zip.entries()).stream().map(ZipEntry::getName).collect(toList());
+      assertThat(names.get(0), equalTo(INDEX_ENTRY));
+      assertThat(names.stream().filter(INDEX_ENTRY::equals).count(), equalTo(1L));
+    }
+  }
+
+  @Test
+  public void typeWithManySupertypes() throws Exception {
+    TestArchives module = module("org.foo");
+    StringJoiner interfaces = new StringJoiner(", ");
+    for (int i = 0; i < MANY_INTERFACES; i++) {
+      module.withClass("org.foo.I" + i, (i == MANY_INTERFACES - 1 ? "@org.mule.api.annotation.NoImplement " : "")
+          + "public interface I" + i + " {}");
+      interfaces.add("I" + i);
+    }
+    Path jar = module.withClass("org.foo.A", "public interface A extends " + interfaces + " {}").jar(path("foo.jar"));
+
+    ApiIndexWriter.write(jar, emptyList());
+    ApiIndex read = readIndex(jar);
+
+    assertThat(read.size(), equalTo(MANY_INTERFACES + 1));
+    // Only the last supertype is annotated, so every supertype has to survive the round trip
+    assertThat(read.hasAnnotation("org/foo/A", NO_IMPLEMENT), equalTo(true));
+  }
+
+  @Test
+  public void rejectsOtherContent() {
+    assertThrows(IOException.class, () -> ApiIndex.read(new ByteArrayInputStream(new byte[] {0, 1, 2, 3, 4, 5, 6, 7})));
+  }
+
+  @Test
+  public void rejectsOtherVersions() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ApiIndex.merge(emptyList()).write(bytes);
+    byte[] index = bytes.toByteArray();
+    // Version follows the magic number
+    index[7]++;
+
+    assertThrows(IOException.class, () -> ApiIndex.read(new ByteArrayInputStream(index)));
+  }
+
+  @Test
+  public void filterTakesExportsFromTheIndex() throws Exception {
+    String removedMethod = "public class C {\n  public void doStuff() {}\n}";
+    Path oldJar = indexed(module("org.foo", "org.bar")
+        .withClass("org.foo.A", "public class A {}")
+        .withClass("org.bar.C", removedMethod), "old.jar");
+    Path newJar = indexed(module("org.foo", "org.bar")
+        .withClass("org.foo.A", "public class A {}")
+        .withClass("org.bar.C", "public class C {}"), "new.jar");
+    // The module descriptors no longer export org.bar, but the analysis must only read the indexes
+    for (Path jar : new Path[] {oldJar, newJar}) {
+      replaceEntry(jar, MODULE_PROPERTIES, "module.name=foo\n\nartifact.export.classPackages=org.foo\n".getBytes(UTF_8));
+    }
+
+    assertThat(getCodes(check(oldJar, newJar).getDifferences()), contains("java.method.removed"));
+  }
+
+  @Test
+  public void transformTakesAnnotationsFromTheIndex() throws Exception {
+    Path oldJar = indexed(module("org.foo")
+        .withClass("org.foo.I", "@org.mule.api.annotation.NoImplement public interface I {\n  void a();\n}"), "old.jar");
+    Path newJar = indexed(module("org.foo")
+        .withClass("org.foo.I", "@org.mule.api.annotation.NoImplement public interface I {\n  void a();\n  void b();\n}"),
+                          "new.jar");
+
+    ApiCheckResult result = check(oldJar, newJar);
+
+    assertThat(result.getDifferences(), empty());
+    assertThat(getCodes(result.getAcceptedDifferences()), contains("java.method.addedToInterface"));
+  }
+
+  private Path indexed(TestArchives module, String name) throws IOException {
+    Path jar = module.jar(path(name));
+    ApiIndexWriter.write(jar, emptyList());
+    return jar;
+  }
+
+  private static ApiCheckResult check(Path oldJar, Path newJar) throws Exception {
+    try (ApiChecker checker = ApiChecker.create(1)) {
+      return checker.check(ApiCheckRequest.builder()
+          .withOldArchivePaths(singletonList(oldJar))
+          .withNewArchivePaths(singletonList(newJar))
+          .build());
+    }
+  }
+
+  private static List<String> getCodes(List<ApiDifference> differences) {
+    return differences.stream().map(ApiDifference::getCode).collect(toList());
+  }
+
+  private static ApiIndex readIndex(Path jar) throws IOException {
+    try (ZipFile zip = new ZipFile(jar.toFile()); InputStream is = zip.getInputStream(zip.getEntry(INDEX_ENTRY))) {
+      return ApiIndex.read(is);
+    }
+  }
+
+  private static void replaceEntry(Path jar, String name, byte[] content) throws IOException {
+    Map<String, byte[]> entries = new LinkedHashMap<>();
+    try (ZipFile zip = new ZipFile(jar.toFile())) {
+      for (ZipEntry entry : Collections.list(zip.entries())) {
+        try (InputStream is = zip.getInputStream(entry)) {
+          entries.put(entry.getName(), entry.getName().equals(name) ? content : is.readAllBytes());
+        }
+      }
+    }
+    try (OutputStream os = Files.newOutputStream(jar); ZipOutputStream out = new ZipOutputStream(os)) {
+      for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+        out.putNextEntry(new ZipEntry(entry.getKey()));
+        out.write(entry.getValue());
+        out.closeEntry();
+      }
+    }
+  }
+
+  private Path path(String name) {
+    return temporaryFolder.getRoot().toPath().resolve(name);
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.jfr;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.notNullValue;
+
+import org.mule.tools.revapi.embedded.ApiCheckRequest;
+import org.mule.tools.revapi.embedded.ApiChecker;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FlightRecorderEventsTestCase {
+
+  private static final String ARCHIVE_SCAN = "org.mule.revapi.ArchiveScan";
+  private static final String EXPORT_VERDICT = "org.mule.revapi.ExportVerdict";
+  private static final String HIERARCHY_WALK = "org.mule.revapi.HierarchyWalk";
+  private static final String TRANSFORM_DECISION = "org.mule.revapi.TransformDecision";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path oldJar;
+  private Path newJar;
+
+  @Before
+  public void before() throws Exception {
+    Path root = temporaryFolder.getRoot().toPath();
+    oldJar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n"
+            + "  public void doStuff() {}\n"
+            + "  protected void doProtectedStuff() {}\n}")
+        .withClass("org.bar.C", "public class C {}")
+        .jar(root.resolve("old/foo.jar"));
+    newJar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {}")
+        .withClass("org.bar.C", "public class C {}")
+        .jar(root.resolve("new/foo.jar"));
+  }
+
+  @Test
+  public void recordsTheEventsOfAnAnalysis() throws Exception {
+    Map<String, List<RecordedEvent>> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(ARCHIVE_SCAN);
+      recording.enable(EXPORT_VERDICT);
+      recording.enable(HIERARCHY_WALK);
+      recording.enable(TRANSFORM_DECISION);
+      events = record(recording);
+    }
+
+    List<RecordedEvent> archiveScans = events.get(ARCHIVE_SCAN);
+    assertThat(archiveScans.stream().map(event -> event.getString("archive")).collect(toList()),
+               contains("foo.jar", "foo.jar"));
+    for (RecordedEvent archiveScan : archiveScans) {
+      assertThat(archiveScan.getInt("entries"), greaterThan(0));
+      assertThat(archiveScan.getLong("bytesRead"), greaterThan(0L));
+      assertThat(archiveScan.getInt("exportedPackages"), equalTo(1));
+    }
+
+    List<RecordedEvent> exportVerdicts = events.get(EXPORT_VERDICT);
+    List<String> verdicts = exportVerdicts.stream()
+        .map(event -> event.getString("packageName") + "=" + event.getBoolean("exported"))
+        .collect(toList());
+    assertThat(verdicts, hasItem("org.foo=true"));
+    assertThat(verdicts, hasItem("org.bar=false"));
+    exportVerdicts.forEach(event -> assertThat(event.getString("element"), notNullValue()));
+
+    List<RecordedEvent> hierarchyWalks = events.get(HIERARCHY_WALK);
+    assertThat(hierarchyWalks.stream().map(event -> event.getString("type")).collect(toList()), hasItem("org.foo.A"));
+    for (RecordedEvent hierarchyWalk : hierarchyWalks) {
+      assertThat(hierarchyWalk.getInt("typesVisited"), greaterThan(0));
+      if (hierarchyWalk.getString("type").equals("org.foo.A")) {
+        assertThat(hierarchyWalk.getInt("depth"), equalTo(0));
+        assertThat(hierarchyWalk.getBoolean("annotated"), equalTo(true));
+      }
+    }
+
+    // The protected method of the @NoExtend class is accepted, the public one reaches the reporters
+    List<RecordedEvent> transformDecisions = events.get(TRANSFORM_DECISION);
+    assertThat(transformDecisions.stream()
+        .filter(event -> event.getString("transform").equals("mule.revapi.api.ignoreNoExtend"))
+        .map(event -> event.getString("code") + "=" + event.getBoolean("accepted"))
+        .collect(toList()), containsInAnyOrder("java.method.removed=true", "java.method.removed=false"));
+    transformDecisions.forEach(event -> assertThat(event.getString("element"), notNullValue()));
+  }
+
+  @Test
+  public void recordsNoEventsUnlessEnabled() throws Exception {
+    Map<String, List<RecordedEvent>> events;
+    try (Recording recording = new Recording()) {
+      events = record(recording);
+    }
+
+    for (String eventName : new String[] {ARCHIVE_SCAN, EXPORT_VERDICT, HIERARCHY_WALK, TRANSFORM_DECISION}) {
+      assertThat(eventName, events.getOrDefault(eventName, List.of()), empty());
+    }
+  }
+
+  private Map<String, List<RecordedEvent>> record(Recording recording) throws Exception {
+    recording.start();
+    try (ApiChecker checker = ApiChecker.create(1)) {
+      checker.check(ApiCheckRequest.builder()
+          .withOldArchivePaths(singletonList(oldJar))
+          .withNewArchivePaths(singletonList(newJar))
+          .build());
+    }
+    recording.stop();
+
+    Path file = temporaryFolder.getRoot().toPath().resolve("analysis.jfr");
+    recording.dump(file);
+    return RecordingFile.readAllEvents(file).stream()
+        .filter(event -> event.getEventType().getName().startsWith("org.mule.revapi."))
+        .collect(groupingBy(event -> event.getEventType().getName()));
+  }
+}
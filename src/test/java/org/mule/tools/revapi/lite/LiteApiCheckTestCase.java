@@ -0,0 +1,93 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.lite;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.util.stream.Collectors.toList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import org.mule.tools.revapi.TestArchives;
+import org.mule.tools.revapi.archive.InMemoryArchive;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+
+public class LiteApiCheckTestCase {
+
+  private static final String BASE = "public class Base {\n  protected void doStuff() {}\n}";
+  private static final String CHANGED_BASE = "public class Base {\n}";
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void ignoresRemovedProtectedMethodOfInternalSuperclassOfNoExtendClass() throws Exception {
+    List<String> candidates = check(module("org.foo")
+        .withClass("org.bar.Base", BASE)
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A extends org.bar.Base {}"),
+                                    module("org.foo")
+                                        .withClass("org.bar.Base", CHANGED_BASE)
+                                        .withClass("org.foo.A",
+                                                   "@org.mule.api.annotation.NoExtend public class A extends org.bar.Base {}"));
+
+    assertThat(candidates, empty());
+  }
+
+  @Test
+  public void detectsRemovedProtectedMethodOfInternalSuperclassSharedWithNoExtendClass() throws Exception {
+    // A is compared first, and accepts the removal
+    List<String> candidates = check(module("org.foo")
+        .withClass("org.bar.Base", BASE)
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A extends org.bar.Base {}")
+        .withClass("org.foo.B", "public class B extends org.bar.Base {}"),
+                                    module("org.foo")
+                                        .withClass("org.bar.Base", CHANGED_BASE)
+                                        .withClass("org.foo.A",
+                                                   "@org.mule.api.annotation.NoExtend public class A extends org.bar.Base {}")
+                                        .withClass("org.foo.B", "public class B extends org.bar.Base {}"));
+
+    assertThat(candidates, contains("REMOVED org.bar.Base#doStuff()V"));
+  }
+
+  @Test
+  public void ignoresChangedReturnTypeOfProtectedMethodOfNoExtendClass() throws Exception {
+    List<String> candidates = check(module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n  protected void foo(String s) {}\n}"),
+                                    module("org.foo")
+                                        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n"
+                                            + "  protected String foo(String s) { return s; }\n}"));
+
+    assertThat(candidates, empty());
+  }
+
+  @Test
+  public void detectsOverloadAddedAlongWithAcceptedRemoval() throws Exception {
+    List<String> candidates = check(module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n  protected void foo(String s) {}\n}"),
+                                    module("org.foo")
+                                        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {\n"
+                                            + "  protected String foo(String s) { return s; }\n"
+                                            + "  public void foo(int i) {}\n}"));
+
+    assertThat(candidates, contains("ADDED org.foo.A#foo(I)V"));
+  }
+
+  private List<String> check(TestArchives oldModule, TestArchives newModule) throws IOException {
+    API oldApi = API.of(InMemoryArchive.of(oldModule.compile(temporaryFolder.newFolder("old").toPath()))).build();
+    API newApi = API.of(InMemoryArchive.of(newModule.compile(temporaryFolder.newFolder("new").toPath()))).build();
+    return LiteApiCheck.check(oldApi, newApi).stream().map(CandidateBreak::toString).collect(toList());
+  }
+}
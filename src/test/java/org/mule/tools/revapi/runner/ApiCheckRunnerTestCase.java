@@ -0,0 +1,123 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.io.File.pathSeparator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ApiCheckRunnerTestCase {
+
+  private static final int BROKEN_API = 1;
+  private static final int ERROR = 2;
+  private static final int SHARDS = 3;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path oldJar;
+  private Path newJar;
+
+  @Before
+  public void before() throws Exception {
+    oldJar = module("org.a", "org.b", "org.c", "org.old")
+        .withClass("org.a.A", "public class A {\n  public void doStuff() {}\n}")
+        .withClass("org.b.B", "public class B {}")
+        .withClass("org.c.C", "public interface C {\n  void doStuff();\n}")
+        .withClass("org.old.Old", "public class Old {}")
+        .jar(path("old/foo.jar"));
+    newJar = module("org.a", "org.b", "org.c", "org.d")
+        .withClass("org.a.A", "public class A {\n}")
+        .withClass("org.b.B", "public class B {\n  public void doStuff() {}\n}")
+        .withClass("org.c.C", "public interface C {\n  void doStuff();\n  void doOther();\n}")
+        .withClass("org.d.D", "public class D {}")
+        .jar(path("new/foo.jar"));
+  }
+
+  @Test
+  public void shardedRunReportsTheSameAsUnshardedRun() throws Exception {
+    Path unsharded = path("unsharded.txt");
+    Path sharded = path("sharded.txt");
+
+    assertThat(run("--old", oldJar.toString(), "--new", newJar.toString(), "--output", unsharded.toString()),
+               equalTo(BROKEN_API));
+    assertThat(run("--old", oldJar.toString(), "--new", newJar.toString(), "--shards", String.valueOf(SHARDS),
+                   "--output", sharded.toString()),
+               equalTo(BROKEN_API));
+
+    assertThat(read(unsharded), is(not(empty())));
+    assertThat(read(sharded), equalTo(read(unsharded)));
+  }
+
+  @Test
+  public void mergedShardReportsAreTheSameAsUnshardedRun() throws Exception {
+    Path unsharded = path("unsharded.txt");
+    run("--old", oldJar.toString(), "--new", newJar.toString(), "--output", unsharded.toString());
+
+    StringBuilder reports = new StringBuilder();
+    for (int shard = 1; shard <= SHARDS; shard++) {
+      Path report = path("shard-" + shard + ".txt");
+      run("--old", oldJar.toString(), "--new", newJar.toString(), "--shard", shard + "/" + SHARDS, "--output", report.toString());
+      reports.append(shard == 1 ? "" : pathSeparator).append(report);
+    }
+    Path merged = path("merged.txt");
+
+    assertThat(run("--merge", reports.toString(), "--output", merged.toString()), equalTo(BROKEN_API));
+    assertThat(read(merged), equalTo(read(unsharded)));
+  }
+
+  @Test
+  public void shardsDropTheDebuggerAndTheOptionsOfShortRuns() {
+    List<String> inputArguments = asList("-Xmx2g", "-agentlib:jdwp=transport=dt_socket,server=y", "-XX:TieredStopAtLevel=1",
+                                         "-XX:+UseParallelGC", "-XX:ArchiveClassesAtExit=runner.jsa",
+                                         "-XX:SharedArchiveFile=runner.jsa");
+
+    assertThat(ApiCheckRunner.getWorkerArguments(inputArguments),
+               contains("-Xmx2g", "-XX:+UseParallelGC", "-XX:SharedArchiveFile=runner.jsa"));
+  }
+
+  @Test
+  public void rejectsInvalidShardTimeout() {
+    assertThat(run("--old", oldJar.toString(), "--new", newJar.toString(), "--shards", "2", "--shard-timeout", "0"),
+               equalTo(ERROR));
+  }
+
+  private static int run(String... args) {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(output, true, UTF_8)) {
+      return ApiCheckRunner.run(args, out);
+    }
+  }
+
+  private static List<String> read(Path report) throws Exception {
+    return Files.readAllLines(report, UTF_8);
+  }
+
+  private Path path(String name) {
+    return temporaryFolder.getRoot().toPath().resolve(name);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import org.mule.tools.revapi.archive.InMemoryArchive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.Archive;
+
+public class ApiShardsTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private List<Archive> oldArchives;
+  private List<Archive> newArchives;
+
+  @Before
+  public void before() throws Exception {
+    oldArchives = singletonList(InMemoryArchive.of(module("org.a", "org.b", "org.c", "org.old")
+        .withClass("org.a.A1", "public class A1 {}")
+        .withClass("org.a.A2", "public class A2 {}")
+        .withClass("org.a.A3", "public class A3 {}")
+        .withClass("org.b.B", "public class B {}")
+        .withClass("org.c.C1", "public class C1 {}")
+        .withClass("org.c.C2", "public class C2 {}")
+        .withClass("org.old.Old", "public class Old {}")
+        .withClass("org.internal.Internal", "public class Internal {}")
+        .jar(temporaryFolder.getRoot().toPath().resolve("old/foo.jar"))));
+    newArchives = singletonList(InMemoryArchive.of(module("org.a", "org.b", "org.c", "org.d", "org.empty")
+        .withClass("org.a.A1", "public class A1 {}")
+        .withClass("org.a.A2", "public class A2 {}")
+        .withClass("org.a.A3", "public class A3 {}")
+        .withClass("org.b.B", "public class B {}")
+        .withClass("org.c.C1", "public class C1 {}")
+        .withClass("org.c.C2", "public class C2 {}")
+        .withClass("org.d.D", "public class D {}")
+        .withClass("org.internal.Internal", "public class Internal {}")
+        .jar(temporaryFolder.getRoot().toPath().resolve("new/foo.jar"))));
+  }
+
+  @Test
+  public void shardsAreDisjointAndCoverEveryExportedPackage() {
+    List<List<String>> shards = ApiShards.of(oldArchives, newArchives, 3);
+
+    assertThat(shards, hasSize(3));
+    List<String> packages = new ArrayList<>();
+    shards.forEach(packages::addAll);
+    assertThat(packages, containsInAnyOrder("org.a", "org.b", "org.c", "org.d", "org.old", "org.empty"));
+  }
+
+  @Test
+  public void packagesOnlyInTheOldVersionGetAShard() {
+    List<String> packages = new ArrayList<>();
+    ApiShards.of(oldArchives, newArchives, 2).forEach(packages::addAll);
+
+    assertThat(packages.contains("org.old"), equalTo(true));
+  }
+
+  @Test
+  public void shardsAreDeterministic() {
+    List<List<String>> shards = ApiShards.of(oldArchives, newArchives, 3);
+
+    assertThat(ApiShards.of(oldArchives, newArchives, 3), equalTo(shards));
+    for (List<String> shard : shards) {
+      List<String> sorted = new ArrayList<>(shard);
+      sorted.sort(null);
+      assertThat(shard, equalTo(sorted));
+    }
+  }
+
+  @Test
+  public void heaviestPackagesGoToDifferentShards() {
+    List<List<String>> shards = ApiShards.of(oldArchives, newArchives, 2);
+
+    // org.a has 6 classes in both versions and org.c 4, the rest is spread to even out the shards
+    assertThat(shards.get(0).contains("org.a"), equalTo(true));
+    assertThat(shards.get(1).contains("org.c"), equalTo(true));
+  }
+
+  @Test
+  public void moreShardsThanPackages() {
+    List<List<String>> shards = ApiShards.of(oldArchives, newArchives, 8);
+
+    assertThat(shards, hasSize(8));
+    assertThat(shards.stream().filter(List::isEmpty).count(), equalTo(2L));
+    assertThat(shards.get(7), empty());
+  }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.runner;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassesWatcherTestCase {
+
+  private static final long TIMEOUT_SECONDS = 30;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void changedTypes() {
+    Map<String, String> fingerprints = new HashMap<>();
+    fingerprints.put("org.foo.Unchanged", "1");
+    fingerprints.put("org.foo.Changed", "2");
+    fingerprints.put("org.foo.Removed", "3");
+    Map<String, String> newFingerprints = new HashMap<>();
+    newFingerprints.put("org.foo.Unchanged", "1");
+    newFingerprints.put("org.foo.Changed", "4");
+    newFingerprints.put("org.foo.Added", "5");
+
+    assertThat(ApiCheckRunner.getChangedTypes(fingerprints, newFingerprints),
+               contains("org.foo.Added", "org.foo.Changed", "org.foo.Removed"));
+  }
+
+  @Test
+  public void noChangedTypes() {
+    Map<String, String> fingerprints = new HashMap<>();
+    fingerprints.put("org.foo.A", "1");
+
+    assertThat(ApiCheckRunner.getChangedTypes(fingerprints, new HashMap<>(fingerprints)), empty());
+    assertThat(ApiCheckRunner.getChangedTypes(emptyMap(), emptyMap()), empty());
+  }
+
+  @Test
+  public void notifiesClassWrittenInNewDirectory() throws Exception {
+    Path classes = temporaryFolder.newFolder("classes").toPath();
+    try (ClassesWatcher watcher = new ClassesWatcher(singletonList(classes))) {
+      // The package directory is created first, then the class in it
+      assertThat(awaitChange(watcher, () -> Files.createDirectories(classes.resolve("org/foo"))), equalTo(true));
+      assertThat(awaitChange(watcher, () -> Files.write(classes.resolve("org/foo/A.class"), new byte[] {1})), equalTo(true));
+    }
+  }
+
+  @Test
+  public void notifiesRewrittenJar() throws Exception {
+    Path jar = temporaryFolder.newFile("foo.jar").toPath();
+    try (ClassesWatcher watcher = new ClassesWatcher(singletonList(jar))) {
+      assertThat(awaitChange(watcher, () -> Files.write(jar, new byte[] {1})), equalTo(true));
+    }
+  }
+
+  private static boolean awaitChange(ClassesWatcher watcher, Change change) throws Exception {
+    CountDownLatch changed = new CountDownLatch(1);
+    Thread waiter = new Thread(() -> {
+      try {
+        watcher.awaitChange();
+        changed.countDown();
+      } catch (Exception e) {
+        // Not notified
+      }
+    });
+    waiter.start();
+    change.run();
+    boolean notified = changed.await(TIMEOUT_SECONDS, SECONDS);
+    waiter.interrupt();
+    return notified;
+  }
+
+  @FunctionalInterface
+  private interface Change {
+
+    void run() throws Exception;
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.mule.tools.revapi.transform;
+
+import static org.mule.tools.revapi.TestArchives.module;
+
+import static java.util.Collections.singletonList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.mule.tools.revapi.cache.Verdicts;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.revapi.API;
+import org.revapi.AnalysisContext;
+import org.revapi.base.FileArchive;
+
+public class NoExtendApiAnnotationTransformTestCase {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void closeClearsTheCaches() throws Exception {
+    Path jar = module("org.foo")
+        .withClass("org.foo.A", "@org.mule.api.annotation.NoExtend public class A {}")
+        .jar(temporaryFolder.getRoot().toPath().resolve("foo.jar"));
+    NoExtendApiAnnotationTransform transform = new NoExtendApiAnnotationTransform();
+    transform.initialize(AnalysisContext.builder()
+        .withOldAPI(API.of(singletonList(new FileArchive(jar.toFile()))).build())
+        .withNewAPI(API.of(singletonList(new FileArchive(jar.toFile()))).build())
+        .build());
+    List<Verdicts> verdicts = transform.getVerdicts();
+    // Annotated types of the old and the new version of the API
+    assertThat(verdicts, hasSize(2));
+    verdicts.forEach(cache -> cache.put(1, true));
+
+    transform.close();
+
+    assertThat(transform.getVerdicts(), empty());
+    for (Verdicts cache : verdicts) {
+      assertThat(cache.size(), equalTo(0));
+      assertThat(cache.get(1), nullValue());
+    }
+  }
+}
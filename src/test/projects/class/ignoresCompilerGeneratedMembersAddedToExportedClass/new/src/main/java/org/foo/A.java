@@ -0,0 +1,34 @@
+/*
+ * Copyright 2023 Salesforce, Inc. All rights reserved.
+ * The software in this package is published under the terms of the CPAL v1.0
+ * license, a copy of which has been included with this distribution in the
+ * LICENSE.txt file.
+ */
+package org.foo;
+
+public class A
+{
+
+    private int count;
+
+    public int doStuff(E e)
+    {
+        // Compiles into a synthetic class holding the switch map of E
+        switch (e) {
+            case ONE:
+                return new Counter().next();
+            default:
+                return count;
+        }
+    }
+
+    private class Counter
+    {
+
+        private int next()
+        {
+            // Before nestmates, reading the private field of A compiles into a synthetic accessor in A
+            return ++count;
+        }
+    }
+}